@@ -18,8 +18,18 @@
 package app.myoss.cloud.apm.log.method.aspectj;
 
 import java.io.Writer;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.Signature;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.util.ReflectionUtils;
 
 import com.alibaba.fastjson.JSONObject;
 
@@ -31,7 +41,124 @@ import com.alibaba.fastjson.JSONObject;
  */
 public abstract class AbstractMonitorMethod {
     @Autowired
-    protected MonitorMethodProperties properties;
+    protected MonitorMethodProperties                            properties;
+    @Autowired
+    protected MonitorMethodLogSampler                            sampler;
+    @Autowired
+    protected MonitorMethodValueLimiter                          limiter;
+    /**
+     * 记录方法执行时间的扩展点，Spring 容器中没有实现类的时候为空
+     */
+    @Autowired(required = false)
+    protected List<MonitorMethodRecorder>                        recorders         = Collections.emptyList();
+    /**
+     * 被监控方法的元数据缓存，使用 {@link Method} 作为 key（Spring AOP 每次调用都会创建新的 JoinPoint.StaticPart）
+     */
+    private final ConcurrentMap<Method, MonitorMethodDescriptor> descriptors       = new ConcurrentHashMap<>();
+    /**
+     * 子类重写了 {@link #convertArgs(Object[], int, Object)} 的时候，所有的参数都需要调用这个方法进行转换
+     */
+    private final boolean                                        customConvertArgs = ReflectionUtils
+            .findMethod(getClass(), "convertArgs", Object[].class, int.class, Object.class)
+            .getDeclaringClass() != AbstractMonitorMethod.class;
+
+    /**
+     * 获取被监控方法的元数据，每个方法只创建一次；不是方法签名的 JoinPoint（比如：直接调用 advice 方法）每次都创建新的元数据
+     *
+     * @param joinPoint AOP JoinPoint
+     * @return 被监控方法的元数据
+     */
+    protected MonitorMethodDescriptor getDescriptor(JoinPoint joinPoint) {
+        Signature joinPointSignature = joinPoint.getSignature();
+        if (!(joinPointSignature instanceof MethodSignature)) {
+            return new MonitorMethodDescriptor(joinPointSignature, properties, true);
+        }
+        MethodSignature signature = (MethodSignature) joinPointSignature;
+        Method method = signature.getMethod();
+        MonitorMethodDescriptor descriptor = descriptors.get(method);
+        if (descriptor == null) {
+            descriptor = descriptors.computeIfAbsent(method,
+                    key -> new MonitorMethodDescriptor(signature, properties, customConvertArgs));
+        }
+        return descriptor;
+    }
+
+    /**
+     * 获取所有被监控方法的元数据，用于导出调用次数、执行时间等统计数据
+     *
+     * @return 被监控方法的元数据
+     */
+    public Collection<MonitorMethodDescriptor> getDescriptors() {
+        return Collections.unmodifiableCollection(descriptors.values());
+    }
+
+    /**
+     * 是否打印日志，不是在 Spring 容器中创建的对象（没有注入 {@link MonitorMethodLogSampler}）不采样
+     *
+     * @param descriptor 被监控方法的元数据
+     * @param lines 需要打印的日志行数
+     * @return true：打印日志
+     */
+    protected boolean isLoggable(MonitorMethodDescriptor descriptor, int lines) {
+        return (sampler != null ? sampler.isLoggable(descriptor, lines) : properties.isLogEnabled());
+    }
+
+    /**
+     * 入参的日志是否打印，和返回值的日志使用同一个采样结果
+     *
+     * @param descriptor 被监控方法的元数据
+     * @return true：打印日志
+     * @see MonitorMethodLogSampler#isLoggableBefore(MonitorMethodDescriptor)
+     */
+    protected boolean isLoggableBefore(MonitorMethodDescriptor descriptor) {
+        return (sampler != null ? sampler.isLoggableBefore(descriptor) : properties.isLogEnabled());
+    }
+
+    /**
+     * 返回值的日志是否打印，和入参的日志使用同一个采样结果
+     *
+     * @param descriptor 被监控方法的元数据
+     * @return true：打印日志
+     * @see MonitorMethodLogSampler#isLoggableAfter(MonitorMethodDescriptor)
+     */
+    protected boolean isLoggableAfter(MonitorMethodDescriptor descriptor) {
+        return (sampler != null ? sampler.isLoggableAfter(descriptor) : properties.isLogEnabled());
+    }
+
+    /**
+     * 创建监控日志的 JSON 输出，限制入参、返回值序列化的大小，使用完之后需要关闭
+     *
+     * @return 监控日志的 JSON 输出
+     */
+    protected MonitorMethodJsonWriter newJsonWriter() {
+        return new MonitorMethodJsonWriter(properties.getDateFormat(), limiter);
+    }
+
+    /**
+     * 输出方法的入参，转换那些无法被JSON序列化的对象，比如：ServletRequest/ServletResponse
+     *
+     * @param writer 监控日志的 JSON 输出
+     * @param descriptor 被监控方法的元数据
+     * @param arguments 方法参数数组对象
+     * @see #convertArgs(Object[], int, Object)
+     */
+    protected void writeArgs(MonitorMethodJsonWriter writer, MonitorMethodDescriptor descriptor, Object[] arguments) {
+        writer.startArray("args");
+        for (int i = 0; i < arguments.length; i++) {
+            Object value = arguments[i];
+            if (value != null) {
+                byte argPolicy = descriptor.getArgPolicy(i);
+                if (argPolicy == MonitorMethodDescriptor.ARG_EXCLUDE) {
+                    value = value.getClass().getName();
+                } else if (argPolicy == MonitorMethodDescriptor.ARG_CHECK) {
+                    convertArgs(arguments, i, value);
+                    value = arguments[i];
+                }
+            }
+            writer.writeElement(value);
+        }
+        writer.endArray();
+    }
 
     /**
      * 转换那些无法被JSON序列化的对象，比如：ServletRequest/ServletResponse
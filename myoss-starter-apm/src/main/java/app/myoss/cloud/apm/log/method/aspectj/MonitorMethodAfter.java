@@ -20,14 +20,10 @@ package app.myoss.cloud.apm.log.method.aspectj;
 import java.lang.reflect.Method;
 
 import org.aspectj.lang.JoinPoint;
-import org.aspectj.lang.Signature;
 import org.aspectj.lang.annotation.AfterReturning;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
 import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import com.alibaba.fastjson.JSONObject;
 
 import app.myoss.cloud.apm.log.method.aspectj.annotation.LogMethodAfter;
 import app.myoss.cloud.apm.log.method.aspectj.annotation.MonitorMethodAdvice;
@@ -107,14 +103,17 @@ public class MonitorMethodAfter extends AbstractMonitorMethod {
      */
     @AfterReturning(value = "allWantToMatch()", returning = "result")
     public void doAfterReturning(JoinPoint joinPoint, Object result) {
-        Signature signature = joinPoint.getSignature();
-        String methodName = signature.getDeclaringTypeName() + "#" + signature.getName();
-        Logger logger = LoggerFactory.getLogger(methodName);
-        JSONObject jsonAfter = new JSONObject();
-        jsonAfter.put("end", System.currentTimeMillis());
-        jsonAfter.put("result", result);
-        jsonAfter.put("app", properties.getAppName());
-        logger.info(toJSONString(jsonAfter));
+        MonitorMethodDescriptor descriptor = getDescriptor(joinPoint);
+        Logger logger = descriptor.getLogger();
+        if (!logger.isInfoEnabled() || !isLoggableAfter(descriptor)) {
+            return;
+        }
+        try (MonitorMethodJsonWriter writer = newJsonWriter()) {
+            writer.writeField("end", System.currentTimeMillis());
+            writer.writeField("result", result);
+            writer.writeField("app", properties.getAppName());
+            logger.info(writer.finish());
+        }
     }
 
 }
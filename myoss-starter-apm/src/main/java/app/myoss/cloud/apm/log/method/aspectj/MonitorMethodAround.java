@@ -21,14 +21,10 @@ import java.lang.reflect.Method;
 import java.util.concurrent.TimeUnit;
 
 import org.aspectj.lang.ProceedingJoinPoint;
-import org.aspectj.lang.Signature;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
 import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import com.alibaba.fastjson.JSONObject;
 
 import app.myoss.cloud.apm.log.method.aspectj.annotation.LogMethodAround;
 import app.myoss.cloud.apm.log.method.aspectj.annotation.MonitorMethodAdvice;
@@ -107,26 +103,56 @@ public class MonitorMethodAround extends AbstractMonitorMethod {
     public Object doAround(ProceedingJoinPoint joinPoint) throws Throwable {
         long startTimeMillis = System.currentTimeMillis();
         long start = System.nanoTime();
-        Signature signature = joinPoint.getSignature();
-        String methodName = signature.getDeclaringTypeName() + "#" + signature.getName();
-        Logger logger = LoggerFactory.getLogger(methodName);
-        JSONObject jsonBefore = new JSONObject();
-        jsonBefore.put("start", startTimeMillis);
-        jsonBefore.put("args", convertArgs(joinPoint.getArgs()));
-        jsonBefore.put("app", properties.getAppName());
-        logger.info(toJSONString(jsonBefore));
+        MonitorMethodDescriptor descriptor = getDescriptor(joinPoint);
+        Logger logger = descriptor.getLogger();
+        // 只打印慢调用的日志：执行完成之后才能决定是否打印，入参和返回值合并成一行
+        long slowThresholdMillis = properties.getSlowThresholdMillis();
+        boolean slowOnly = slowThresholdMillis > 0;
+        boolean logEnabled = properties.isLogEnabled() && logger.isInfoEnabled();
+        Object[] args = (slowOnly && logEnabled ? joinPoint.getArgs() : null);
+        boolean loggable = !slowOnly && logEnabled && isLoggable(descriptor, 2);
+        if (loggable) {
+            try (MonitorMethodJsonWriter writer = newJsonWriter()) {
+                writer.writeField("start", startTimeMillis);
+                writeArgs(writer, descriptor, joinPoint.getArgs());
+                writer.writeField("app", properties.getAppName());
+                logger.info(writer.finish());
+            }
+        }
 
         // 这里不要去做： try/catch, A catch statement should never catch throwable since it includes errors
-        Object result = joinPoint.proceed();
+        Object result;
+        long costNanos;
+        boolean success = false;
+        try {
+            result = joinPoint.proceed();
+            success = true;
+        } finally {
+            // 不打印日志、执行异常的调用也需要统计执行时间
+            costNanos = System.nanoTime() - start;
+            descriptor.record(costNanos);
+            for (MonitorMethodRecorder recorder : recorders) {
+                recorder.record(descriptor.getMethodName(), costNanos, success);
+            }
+        }
 
-        long costTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
-        JSONObject jsonAfter = new JSONObject();
-        jsonAfter.put("start", startTimeMillis);
-        jsonAfter.put("end", System.currentTimeMillis());
-        jsonAfter.put("cost", costTime);
-        jsonAfter.put("result", result);
-        jsonAfter.put("app", properties.getAppName());
-        logger.info(toJSONString(jsonAfter));
+        long costTime = TimeUnit.NANOSECONDS.toMillis(costNanos);
+        if (slowOnly) {
+            loggable = args != null && costTime >= slowThresholdMillis && isLoggable(descriptor, 1);
+        }
+        if (loggable) {
+            try (MonitorMethodJsonWriter writer = newJsonWriter()) {
+                writer.writeField("start", startTimeMillis);
+                if (slowOnly) {
+                    writeArgs(writer, descriptor, args);
+                }
+                writer.writeField("end", System.currentTimeMillis());
+                writer.writeField("cost", costTime);
+                writer.writeField("result", result);
+                writer.writeField("app", properties.getAppName());
+                logger.info(writer.finish());
+            }
+        }
 
         return result;
     }
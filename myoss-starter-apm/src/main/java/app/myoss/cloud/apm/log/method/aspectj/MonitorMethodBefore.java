@@ -20,14 +20,10 @@ package app.myoss.cloud.apm.log.method.aspectj;
 import java.lang.reflect.Method;
 
 import org.aspectj.lang.JoinPoint;
-import org.aspectj.lang.Signature;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Before;
 import org.aspectj.lang.annotation.Pointcut;
 import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import com.alibaba.fastjson.JSONObject;
 
 import app.myoss.cloud.apm.log.method.aspectj.annotation.LogMethodBefore;
 import app.myoss.cloud.apm.log.method.aspectj.annotation.MonitorMethodAdvice;
@@ -106,14 +102,17 @@ public class MonitorMethodBefore extends AbstractMonitorMethod {
      */
     @Before("allWantToMatch()")
     public void doBefore(JoinPoint joinPoint) {
-        Signature signature = joinPoint.getSignature();
-        String methodName = signature.getDeclaringTypeName() + "#" + signature.getName();
-        Logger logger = LoggerFactory.getLogger(methodName);
-        JSONObject jsonBefore = new JSONObject();
-        jsonBefore.put("start", System.currentTimeMillis());
-        jsonBefore.put("args", convertArgs(joinPoint.getArgs()));
-        jsonBefore.put("app", properties.getAppName());
-        logger.info(toJSONString(jsonBefore));
+        MonitorMethodDescriptor descriptor = getDescriptor(joinPoint);
+        Logger logger = descriptor.getLogger();
+        if (!logger.isInfoEnabled() || !isLoggableBefore(descriptor)) {
+            return;
+        }
+        try (MonitorMethodJsonWriter writer = newJsonWriter()) {
+            writer.writeField("start", System.currentTimeMillis());
+            writeArgs(writer, descriptor, joinPoint.getArgs());
+            writer.writeField("app", properties.getAppName());
+            logger.info(writer.finish());
+        }
     }
 
 }
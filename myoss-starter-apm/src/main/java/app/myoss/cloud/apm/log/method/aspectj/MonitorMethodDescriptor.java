@@ -0,0 +1,190 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package app.myoss.cloud.apm.log.method.aspectj;
+
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.aspectj.lang.Signature;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import app.myoss.cloud.apm.log.method.aspectj.annotation.LogMethodAfter;
+import lombok.Getter;
+
+/**
+ * 被监控方法的元数据，每个方法只创建一次，避免每次调用都拼接方法名、获取 Logger、判断参数类型
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午8:38:27
+ * @see AbstractMonitorMethod#getDescriptor(org.aspectj.lang.JoinPoint)
+ */
+public class MonitorMethodDescriptor {
+    /**
+     * 参数需要在运行时判断实际的类型
+     */
+    public static final byte      ARG_CHECK      = 0;
+    /**
+     * 参数不需要转换，比如：基本类型、final 类型
+     */
+    public static final byte      ARG_KEEP       = 1;
+    /**
+     * 参数无法被 JSON 序列化，转换为 class name，比如：ServletRequest/ServletResponse
+     */
+    public static final byte      ARG_EXCLUDE    = 2;
+
+    /**
+     * 方法名：类名#方法名
+     */
+    @Getter
+    private final String          methodName;
+    /**
+     * 使用方法名作为 Logger 的名字
+     */
+    @Getter
+    private final Logger          logger;
+    /**
+     * 每个参数的转换方式，根据参数声明的类型计算
+     */
+    private final byte[]          argPolicies;
+    /**
+     * 日志采样率
+     */
+    @Getter
+    private final double          sampleRate;
+    /**
+     * 方法、类上有 {@link LogMethodAfter} 注解，入参和返回值的日志使用同一个采样结果
+     *
+     * @see MonitorMethodLogSampler#isLoggableBefore(MonitorMethodDescriptor)
+     */
+    @Getter
+    private final boolean         logAfter;
+    /**
+     * 调用次数，包括没有打印日志的调用
+     */
+    private final LongAdder       calls          = new LongAdder();
+    /**
+     * 总执行时间（纳秒）
+     */
+    private final LongAdder       totalCostNanos = new LongAdder();
+    /**
+     * 最大执行时间（纳秒）
+     */
+    private final LongAccumulator maxCostNanos   = new LongAccumulator(Math::max, 0);
+
+    /**
+     * 创建被监控方法的元数据
+     *
+     * @param signature 方法签名，不是 {@link MethodSignature} 的时候所有的参数都在运行时判断实际的类型
+     * @param properties 监控方法的属性配置
+     * @param checkAllArgs true：所有的参数都在运行时判断实际的类型（子类重写了参数转换的方法）
+     */
+    public MonitorMethodDescriptor(Signature signature, MonitorMethodProperties properties, boolean checkAllArgs) {
+        this.methodName = signature.getDeclaringTypeName() + "#" + signature.getName();
+        this.logger = LoggerFactory.getLogger(methodName);
+        this.sampleRate = properties.getSampleRate(methodName);
+        if (!(signature instanceof MethodSignature)) {
+            this.argPolicies = new byte[0];
+            this.logAfter = false;
+            return;
+        }
+        Set<Class> excludeClass = properties.getExcludeClass();
+        Method method = ((MethodSignature) signature).getMethod();
+        this.logAfter = method.isAnnotationPresent(LogMethodAfter.class)
+                || method.getDeclaringClass().isAnnotationPresent(LogMethodAfter.class);
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        this.argPolicies = new byte[parameterTypes.length];
+        if (checkAllArgs) {
+            return;
+        }
+        for (int i = 0; i < parameterTypes.length; i++) {
+            argPolicies[i] = getArgPolicy(parameterTypes[i], excludeClass);
+        }
+    }
+
+    private static byte getArgPolicy(Class<?> parameterType, Set<Class> excludeClass) {
+        if (Writer.class.isAssignableFrom(parameterType)) {
+            return ARG_EXCLUDE;
+        }
+        for (Class exclude : excludeClass) {
+            if (exclude.isAssignableFrom(parameterType)) {
+                return ARG_EXCLUDE;
+            }
+        }
+        if (parameterType.isPrimitive() || Modifier.isFinal(parameterType.getModifiers())) {
+            // final 类型的实际类型就是声明的类型，不可能是需要排除的 class
+            return ARG_KEEP;
+        }
+        return ARG_CHECK;
+    }
+
+    /**
+     * 记录一次调用的执行时间，每次调用都需要记录，包括没有打印日志的调用
+     *
+     * @param costNanos 执行时间（纳秒）
+     */
+    public void record(long costNanos) {
+        calls.increment();
+        totalCostNanos.add(costNanos);
+        maxCostNanos.accumulate(costNanos);
+    }
+
+    /**
+     * 调用次数，包括没有打印日志的调用
+     *
+     * @return 调用次数
+     */
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    /**
+     * 总执行时间
+     *
+     * @param timeUnit 时间单位
+     * @return 总执行时间
+     */
+    public long getTotalCost(TimeUnit timeUnit) {
+        return timeUnit.convert(totalCostNanos.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 最大执行时间
+     *
+     * @param timeUnit 时间单位
+     * @return 最大执行时间
+     */
+    public long getMaxCost(TimeUnit timeUnit) {
+        return timeUnit.convert(maxCostNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 获取参数的转换方式
+     *
+     * @param index 参数的索引
+     * @return 参数的转换方式，可变参数的方法通过反射调用的时候，超出声明的参数个数返回 {@link #ARG_CHECK}
+     */
+    public byte getArgPolicy(int index) {
+        return (index < argPolicies.length ? argPolicies[index] : ARG_CHECK);
+    }
+}
@@ -0,0 +1,306 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package app.myoss.cloud.apm.log.method.aspectj;
+
+import java.util.Map;
+
+import com.alibaba.fastjson.serializer.JSONSerializer;
+import com.alibaba.fastjson.serializer.SerialContext;
+import com.alibaba.fastjson.serializer.SerializeWriter;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import com.alibaba.fastjson.serializer.ValueFilter;
+
+/**
+ * 流式输出监控日志的 JSON 字符串，直接写入 fastjson 线程本地复用的字符缓冲区，不需要创建中间的 JSONObject、装箱的 Long；和
+ * {@code JSONObject.toJSONStringWithDateFormat} 的输出一致，值为 null 的字段不输出；使用 {@link MonitorMethodValueLimiter}
+ * 的时候，对象的值在序列化的过程中被截断
+ *
+ * <pre>
+ * try (MonitorMethodJsonWriter writer = new MonitorMethodJsonWriter(dateFormat)) {
+ *     writer.writeField(&quot;start&quot;, startTimeMillis);
+ *     writer.writeField(&quot;app&quot;, appName);
+ *     logger.info(writer.finish());
+ * }
+ * </pre>
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午8:39:37
+ */
+public class MonitorMethodJsonWriter implements AutoCloseable {
+    private final LimitedSerializeWriter    out;
+    private final JSONSerializer            serializer;
+    private final MonitorMethodValueLimiter limiter;
+    private boolean                         firstField   = true;
+    private boolean                         firstElement = true;
+
+    /**
+     * 创建监控日志的 JSON 输出，使用完之后需要调用 {@link #close()} 归还线程本地的字符缓冲区
+     *
+     * @param dateFormat 日期字段格式
+     */
+    public MonitorMethodJsonWriter(String dateFormat) {
+        this(dateFormat, null);
+    }
+
+    /**
+     * 创建监控日志的 JSON 输出，使用完之后需要调用 {@link #close()} 归还线程本地的字符缓冲区
+     *
+     * @param dateFormat 日期字段格式
+     * @param limiter 限制对象序列化的大小，为 null 的时候不限制
+     */
+    public MonitorMethodJsonWriter(String dateFormat, MonitorMethodValueLimiter limiter) {
+        this.out = new LimitedSerializeWriter();
+        this.serializer = new JSONSerializer(out);
+        if (dateFormat != null && dateFormat.length() != 0) {
+            serializer.setDateFormat(dateFormat);
+            serializer.config(SerializerFeature.WriteDateUseDateFormat, true);
+        }
+        this.limiter = (limiter != null && limiter.isEnabled() ? limiter : null);
+        if (this.limiter != null) {
+            // 集合、数组、Map 的元素已经在 limiter.limit 中递归截断，这里只截断对象的属性值，每个值只截断一次；嵌套层级从 fastjson
+            // 的序列化上下文中计算
+            serializer.addFilter((ValueFilter) (object, name, value) -> {
+                // 已经超过最大字符数的时候不再获取后面的属性值
+                out.checkLimit();
+                return (object instanceof Map ? value : this.limiter.limit(value, getDepth()));
+            });
+        }
+        out.write('{');
+    }
+
+    private int getDepth() {
+        int depth = 0;
+        for (SerialContext context = serializer.getContext(); context != null; context = context.parent) {
+            depth++;
+        }
+        return depth;
+    }
+
+    /**
+     * 输出入参、返回值，输出的字符数超过最大字符数的时候立即停止序列化，替换为截断之后的字符串（字符串已经在序列化之前截断）
+     */
+    private void writeValue(Object value) {
+        if (limiter == null) {
+            serializer.write(value);
+            return;
+        }
+        int start = out.size();
+        Object limited = limiter.limit(value, 0);
+        int maxLength = limiter.getMaxLength();
+        if (maxLength <= 0 || limited instanceof CharSequence) {
+            serializer.write(limited);
+            return;
+        }
+        out.startLimit(start + maxLength);
+        try {
+            serializer.write(limited);
+        } catch (RuntimeException ex) {
+            if (!LimitExceededException.isCausedBy(ex)) {
+                throw ex;
+            }
+        } finally {
+            out.endLimit();
+        }
+        if (out.size() - start > maxLength) {
+            out.writeString(out.truncate(start, maxLength) + MonitorMethodValueLimiter.TRUNCATED);
+        }
+    }
+
+    private void writeFieldName(String name) {
+        if (!firstField) {
+            out.write(',');
+        }
+        firstField = false;
+        out.writeFieldName(name);
+    }
+
+    /**
+     * 输出 long 类型的字段
+     *
+     * @param name 字段名
+     * @param value 字段值
+     * @return 当前对象
+     */
+    public MonitorMethodJsonWriter writeField(String name, long value) {
+        writeFieldName(name);
+        out.writeLong(value);
+        return this;
+    }
+
+    /**
+     * 输出对象类型的字段，值为 null 的时候不输出
+     *
+     * @param name 字段名
+     * @param value 字段值
+     * @return 当前对象
+     */
+    public MonitorMethodJsonWriter writeField(String name, Object value) {
+        if (value != null) {
+            writeFieldName(name);
+            writeValue(value);
+        }
+        return this;
+    }
+
+    /**
+     * 开始输出数组类型的字段
+     *
+     * @param name 字段名
+     * @return 当前对象
+     */
+    public MonitorMethodJsonWriter startArray(String name) {
+        writeFieldName(name);
+        out.write('[');
+        firstElement = true;
+        return this;
+    }
+
+    /**
+     * 输出数组中的元素
+     *
+     * @param value 元素的值
+     * @return 当前对象
+     */
+    public MonitorMethodJsonWriter writeElement(Object value) {
+        if (!firstElement) {
+            out.write(',');
+        }
+        firstElement = false;
+        writeValue(value);
+        return this;
+    }
+
+    /**
+     * 结束输出数组类型的字段
+     *
+     * @return 当前对象
+     */
+    public MonitorMethodJsonWriter endArray() {
+        out.write(']');
+        return this;
+    }
+
+    /**
+     * 结束输出，返回 JSON 字符串
+     *
+     * @return JSON 字符串
+     */
+    public String finish() {
+        out.write('}');
+        return out.toString();
+    }
+
+    @Override
+    public void close() {
+        out.close();
+    }
+
+    /**
+     * 可以回退已经输出的内容，设置了输出的上限之后，超过上限的时候抛出 {@link LimitExceededException} 停止序列化
+     * <p>
+     * fastjson 输出集合的元素、Map 的 entry、对象的属性之间的分隔符，以及输出字符串的时候都会检查上限，超过上限之后最多再输出一个元素
+     */
+    private static class LimitedSerializeWriter extends SerializeWriter {
+        /**
+         * 输出的上限，小于 0 不限制
+         */
+        private int limit = -1;
+
+        /**
+         * 开始限制输出的字符数
+         *
+         * @param limit 输出的上限
+         */
+        void startLimit(int limit) {
+            this.limit = limit;
+        }
+
+        /**
+         * 结束限制输出的字符数
+         */
+        void endLimit() {
+            this.limit = -1;
+        }
+
+        /**
+         * 检查是否超过了输出的上限
+         */
+        void checkLimit() {
+            if (limit >= 0 && count > limit) {
+                throw LimitExceededException.INSTANCE;
+            }
+        }
+
+        @Override
+        public void write(int c) {
+            checkLimit();
+            super.write(c);
+        }
+
+        @Override
+        public void writeString(String text) {
+            checkLimit();
+            super.writeString(text);
+        }
+
+        @Override
+        public void expandCapacity(int minimumCapacity) {
+            checkLimit();
+            super.expandCapacity(minimumCapacity);
+        }
+
+        /**
+         * 回退到指定的位置
+         *
+         * @param start 回退到的位置
+         * @param maxLength 保留的最大字符数
+         * @return 被回退的内容，最多保留 maxLength 个字符
+         */
+        String truncate(int start, int maxLength) {
+            String prefix = new String(buf, start, Math.min(maxLength, count - start));
+            count = start;
+            return prefix;
+        }
+    }
+
+    /**
+     * 输出的字符数超过上限，用于停止序列化，不会抛出到 {@link MonitorMethodJsonWriter} 之外
+     */
+    private static class LimitExceededException extends RuntimeException {
+        private static final long                  serialVersionUID = 1L;
+        private static final LimitExceededException INSTANCE         = new LimitExceededException();
+
+        LimitExceededException() {
+            super(null, null, false, false);
+        }
+
+        /**
+         * fastjson 序列化对象的时候会把异常包装为 JSONException
+         *
+         * @param ex 序列化抛出的异常
+         * @return true：因为超过上限停止序列化
+         */
+        static boolean isCausedBy(Throwable ex) {
+            for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+                if (cause == INSTANCE) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package app.myoss.cloud.apm.log.method.aspectj;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.NamedThreadLocal;
+
+import com.google.common.util.concurrent.RateLimiter;
+
+import app.myoss.cloud.apm.log.method.aspectj.annotation.MonitorMethodAdvice;
+
+/**
+ * 决定被监控方法的调用是否打印日志：关闭了日志则不打印，先按照方法的采样率采样，再使用令牌桶限制每秒打印的日志行数
+ * <p>
+ * 同时记录入参和返回值的方法，每次调用只采样一次，入参和返回值的日志成对打印
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午8:41:37
+ * @see MonitorMethodProperties#getSampleRate(String)
+ * @see MonitorMethodProperties#getMaxLinesPerSecond()
+ * @see MonitorMethodProperties#isLogEnabled()
+ */
+@MonitorMethodAdvice
+public class MonitorMethodLogSampler {
+    /**
+     * 当前线程中入参的日志的采样结果，key 为方法名，返回值的日志使用同一个结果
+     */
+    private static final ThreadLocal<Map<String, Boolean>> PAIRED_DECISIONS = new NamedThreadLocal<>(
+            "MonitorMethod paired log decisions");
+
+    @Autowired
+    private MonitorMethodProperties                         properties;
+    private RateLimiter                                     rateLimiter;
+
+    /**
+     * 初始化日志行数的令牌桶
+     */
+    @PostConstruct
+    public void init() {
+        if (properties.getMaxLinesPerSecond() > 0) {
+            rateLimiter = RateLimiter.create(properties.getMaxLinesPerSecond());
+        }
+    }
+
+    /**
+     * 是否打印日志
+     *
+     * @param descriptor 被监控方法的元数据
+     * @param lines 需要打印的日志行数
+     * @return true：打印日志
+     */
+    public boolean isLoggable(MonitorMethodDescriptor descriptor, int lines) {
+        if (!properties.isLogEnabled()) {
+            return false;
+        }
+        double sampleRate = descriptor.getSampleRate();
+        if (sampleRate <= 0 || (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return false;
+        }
+        return rateLimiter == null || rateLimiter.tryAcquire(lines);
+    }
+
+    /**
+     * 入参的日志是否打印。方法同时记录返回值的时候，一次获取入参和返回值两行日志的令牌，并在当前线程中保存采样结果，供
+     * {@link #isLoggableAfter(MonitorMethodDescriptor)} 使用
+     *
+     * @param descriptor 被监控方法的元数据
+     * @return true：打印日志
+     */
+    public boolean isLoggableBefore(MonitorMethodDescriptor descriptor) {
+        if (!descriptor.isLogAfter()) {
+            return isLoggable(descriptor, 1);
+        }
+        boolean loggable = isLoggable(descriptor, 2);
+        Map<String, Boolean> decisions = PAIRED_DECISIONS.get();
+        if (decisions == null) {
+            decisions = new HashMap<>(4);
+            PAIRED_DECISIONS.set(decisions);
+        }
+        decisions.put(descriptor.getMethodName(), loggable);
+        return loggable;
+    }
+
+    /**
+     * 返回值的日志是否打印，优先使用入参的日志保存的采样结果，没有保存的结果时重新采样
+     * <p>
+     * 方法抛出异常的时候不会记录返回值，保存的结果在这个方法下一次调用的时候被覆盖，每个线程每个方法最多保存一个结果；同一个方法递归调用的时候，
+     * 只有最内层的调用成对打印
+     *
+     * @param descriptor 被监控方法的元数据
+     * @return true：打印日志
+     */
+    public boolean isLoggableAfter(MonitorMethodDescriptor descriptor) {
+        Map<String, Boolean> decisions = PAIRED_DECISIONS.get();
+        Boolean loggable = (decisions != null ? decisions.remove(descriptor.getMethodName()) : null);
+        if (loggable == null) {
+            return isLoggable(descriptor, 1);
+        }
+        if (decisions.isEmpty()) {
+            PAIRED_DECISIONS.remove();
+        }
+        return loggable;
+    }
+}
@@ -18,6 +18,7 @@
 package app.myoss.cloud.apm.log.method.aspectj;
 
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
 
 import javax.annotation.PostConstruct;
@@ -46,7 +47,7 @@ public class MonitorMethodProperties {
      * @see MonitorMethodAfter#doAfterReturning(JoinPoint, Object)
      * @see MonitorMethodAround#doAround(ProceedingJoinPoint)
      */
-    private String      appName;
+    private String              appName;
 
     /**
      * 使用slf4j记录方法的入参和出参，动态排除的class（某些class不一定在依赖中），转换那些无法被JSON序列化的对象，比如：
@@ -54,20 +55,83 @@ public class MonitorMethodProperties {
      *
      * @see #getExcludeClass()
      */
-    private Set<String> dynamicExcludeClass;
+    private Set<String>         dynamicExcludeClass;
     /**
      * 使用slf4j记录方法的入参和出参，动态排除的class（某些class不一定在依赖中），转换那些无法被JSON序列化的对象，比如：
      * ServletRequest/ServletResponse.
      *
      * @see AbstractMonitorMethod#convertArgs(Object[])
      */
-    private Set<Class>  excludeClass;
+    private Set<Class>          excludeClass;
     /**
      * 日期字段格式，默认是：yyyy-MM-dd HH:mm:ss.SSS
      *
      * @see AbstractMonitorMethod#toJSONString(Object)
      */
-    private String      dateFormat = "yyyy-MM-dd HH:mm:ss.SSS";
+    private String              dateFormat            = "yyyy-MM-dd HH:mm:ss.SSS";
+    /**
+     * 全局的日志采样率，取值范围 [0, 1]，默认值为：1，每次调用都打印日志；不打印日志的调用依然会统计执行时间
+     *
+     * @see MonitorMethodLogSampler
+     */
+    private double              sampleRate            = 1;
+    /**
+     * 方法级别的日志采样率，优先级高于 {@link #sampleRate}，key 为：类名#方法名，配置文件中使用 [类名#方法名] 的格式，比如：
+     * myoss-cloud.log.method.method-sample-rates[app.myoss.UserService#getUser]=0.1
+     */
+    private Map<String, Double> methodSampleRates;
+    /**
+     * {@link MonitorMethodAround} 只打印慢调用的日志：执行时间大于等于这个值（毫秒）的时候，把入参和返回值合并成一行打印；默认值为：0，每次调用都打印日志
+     */
+    private long                slowThresholdMillis;
+    /**
+     * 每秒最多打印的日志行数，超过之后丢弃，默认值为：0，不限制
+     *
+     * @see MonitorMethodLogSampler
+     */
+    private double              maxLinesPerSecond;
+    /**
+     * 是否打印每次调用的日志，默认值为：true；设置为 false 的时候完全不打印日志，只统计执行时间（比如只使用 Prometheus 的指标）
+     *
+     * @see MonitorMethodLogSampler
+     */
+    private boolean             logEnabled            = true;
+    /**
+     * 是否使用 Prometheus Histogram 记录 {@link MonitorMethodAround} 的执行时间，默认值为：true
+     *
+     * @see app.myoss.cloud.apm.metrics.PrometheusMonitorMethodRecorder
+     */
+    private boolean             histogramEnabled      = true;
+    /**
+     * 单个入参、返回值序列化之后的最大字符数，超过的部分被截断，默认值为：65536，小于等于 0 不限制
+     *
+     * @see MonitorMethodValueLimiter
+     */
+    private int                 maxLength             = 65536;
+    /**
+     * 集合、数组、Map 最多打印的元素个数，超过的部分被丢弃，默认值为：100，小于等于 0 不限制
+     *
+     * @see MonitorMethodValueLimiter
+     */
+    private int                 maxCollectionElements = 100;
+    /**
+     * 对象最多打印的嵌套层级，入参、返回值为第 0 层，超过的层级只打印类名，默认值为：8，小于等于 0 不限制；按照类型转换为摘要使用
+     * {@link MonitorMethodSummarizer}
+     *
+     * @see MonitorMethodValueLimiter
+     */
+    private int                 maxDepth              = 8;
+
+    /**
+     * 获取方法的日志采样率
+     *
+     * @param methodName 类名#方法名
+     * @return 方法级别的日志采样率，没有配置则返回全局的日志采样率
+     */
+    public double getSampleRate(String methodName) {
+        Double methodSampleRate = (methodSampleRates != null ? methodSampleRates.get(methodName) : null);
+        return (methodSampleRate != null ? methodSampleRate : sampleRate);
+    }
 
     /**
      * 初始化属性
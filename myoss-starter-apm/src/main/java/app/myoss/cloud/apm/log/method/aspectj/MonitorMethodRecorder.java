@@ -0,0 +1,37 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package app.myoss.cloud.apm.log.method.aspectj;
+
+/**
+ * 记录被监控方法每次调用的执行时间，用于导出到 Prometheus 等监控系统，在 Spring 容器中注册实现类即可生效
+ * <p>
+ * 只有 {@link MonitorMethodAround} 可以统计执行时间，包括没有打印日志、执行异常的调用
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午8:43:22
+ * @see app.myoss.cloud.apm.metrics.PrometheusMonitorMethodRecorder
+ */
+public interface MonitorMethodRecorder {
+    /**
+     * 记录一次调用的执行时间
+     *
+     * @param methodName 方法名：类名#方法名
+     * @param costNanos 执行时间（纳秒）
+     * @param success true：执行成功；false：抛出了异常
+     */
+    void record(String methodName, long costNanos, boolean success);
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package app.myoss.cloud.apm.log.method.aspectj;
+
+/**
+ * 按照类型把被监控方法的入参、返回值转换为摘要再打印日志，比如：只打印分页结果的总数、文件的大小，在 Spring 容器中注册实现类即可生效
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午8:47:27
+ * @see MonitorMethodValueLimiter
+ */
+public interface MonitorMethodSummarizer {
+    /**
+     * 是否支持这个类型，每个类型只判断一次
+     *
+     * @param type 入参、返回值的实际类型
+     * @return true：使用 {@link #summarize(Object)} 转换
+     */
+    boolean supports(Class<?> type);
+
+    /**
+     * 转换为摘要，返回值会继续被序列化为 JSON
+     *
+     * @param value 入参、返回值
+     * @return 摘要
+     */
+    Object summarize(Object value);
+}
@@ -0,0 +1,300 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package app.myoss.cloud.apm.log.method.aspectj;
+
+import java.lang.reflect.Array;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import app.myoss.cloud.apm.log.method.aspectj.annotation.MonitorMethodAdvice;
+
+/**
+ * 限制被监控方法的入参、返回值序列化的大小，超大的集合、很深的对象只打印一部分，序列化的耗时不会随着数据量增长
+ * <ul>
+ * <li>集合、数组、Map 只保留前 {@link MonitorMethodProperties#getMaxCollectionElements()} 个元素，最后追加一个元素：...(总数)
+ * <li>嵌套层级超过 {@link MonitorMethodProperties#getMaxDepth()} 的对象只打印类名
+ * <li>字符串、单个入参/返回值超过 {@link MonitorMethodProperties#getMaxLength()} 个字符的部分被截断
+ * <li>{@link MonitorMethodSummarizer} 支持的类型转换为摘要
+ * </ul>
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午8:47:27
+ * @see MonitorMethodJsonWriter
+ */
+@MonitorMethodAdvice
+public class MonitorMethodValueLimiter {
+    /**
+     * 被截断的内容的后缀
+     */
+    public static final String                                     TRUNCATED       = "...";
+
+    @Autowired
+    private MonitorMethodProperties                                properties;
+    @Autowired(required = false)
+    private List<MonitorMethodSummarizer>                          summarizers     = Collections.emptyList();
+    /**
+     * 类型对应的摘要转换器缓存，没有摘要转换器的类型为 {@link Optional#empty()}
+     */
+    private final Map<Class<?>, Optional<MonitorMethodSummarizer>> typeSummarizers = new ConcurrentHashMap<>();
+
+    /**
+     * 是否需要限制序列化的大小
+     *
+     * @return true：配置了任何一个限制或者摘要转换器
+     */
+    public boolean isEnabled() {
+        return getMaxLength() > 0 || getMaxCollectionElements() > 0 || getMaxDepth() > 0 || !summarizers.isEmpty();
+    }
+
+    /**
+     * 单个入参、返回值序列化之后的最大字符数
+     *
+     * @return 最大字符数，小于等于 0 不限制
+     */
+    public int getMaxLength() {
+        return properties.getMaxLength();
+    }
+
+    /**
+     * 集合、数组、Map 最多打印的元素个数
+     *
+     * @return 最多打印的元素个数，小于等于 0 不限制
+     */
+    public int getMaxCollectionElements() {
+        return properties.getMaxCollectionElements();
+    }
+
+    /**
+     * 对象最多打印的嵌套层级
+     *
+     * @return 最多打印的嵌套层级，小于等于 0 不限制
+     */
+    public int getMaxDepth() {
+        return properties.getMaxDepth();
+    }
+
+    /**
+     * 限制入参、返回值序列化的大小，不会修改原来的对象，需要截断的时候返回新的对象
+     *
+     * @param value 入参、返回值，或者它们的属性值
+     * @param depth 嵌套层级，入参、返回值为 0
+     * @return 限制之后的对象
+     */
+    public Object limit(Object value, int depth) {
+        return limit(value, depth, null);
+    }
+
+    /**
+     * 限制入参、返回值序列化的大小
+     *
+     * @param value 入参、返回值，或者它们的属性值
+     * @param depth 嵌套层级，入参、返回值为 0
+     * @param ancestors 正在遍历的外层集合、数组、Map，没有外层的时候为 null
+     * @return 限制之后的对象
+     */
+    private Object limit(Object value, int depth, List<Object> ancestors) {
+        if (value == null) {
+            return null;
+        }
+        Class<?> type = value.getClass();
+        if (!summarizers.isEmpty()) {
+            Optional<MonitorMethodSummarizer> summarizer = getSummarizer(type);
+            if (summarizer.isPresent()) {
+                return summarizer.get().summarize(value);
+            }
+        }
+        if (value instanceof CharSequence) {
+            int maxLength = getMaxLength();
+            CharSequence chars = (CharSequence) value;
+            return (maxLength > 0 && chars.length() > maxLength
+                    ? chars.subSequence(0, maxLength).toString() + TRUNCATED : value);
+        }
+        if (isSimpleValue(value)) {
+            return value;
+        }
+        int maxDepth = getMaxDepth();
+        if (maxDepth > 0 && depth >= maxDepth) {
+            return type.getName();
+        }
+        boolean collection = value instanceof Collection;
+        boolean map = !collection && value instanceof Map;
+        if (!collection && !map && !type.isArray()) {
+            return value;
+        }
+        if (isAncestor(value, ancestors)) {
+            // 集合、Map 直接或者间接的包含了自己，只打印类名，和 max-depth 无关，避免无限递归
+            return type.getName();
+        }
+        List<Object> path = (ancestors != null ? ancestors : new ArrayList<>(4));
+        path.add(value);
+        try {
+            if (collection) {
+                return limitCollection((Collection<?>) value, depth, path);
+            }
+            return (map ? limitMap((Map<?, ?>) value, depth, path) : limitArray(value, depth, path));
+        } finally {
+            path.remove(path.size() - 1);
+        }
+    }
+
+    private static boolean isAncestor(Object value, List<Object> ancestors) {
+        if (ancestors != null) {
+            for (Object ancestor : ancestors) {
+                if (ancestor == value) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private Optional<MonitorMethodSummarizer> getSummarizer(Class<?> type) {
+        Optional<MonitorMethodSummarizer> summarizer = typeSummarizers.get(type);
+        if (summarizer == null) {
+            summarizer = typeSummarizers.computeIfAbsent(type,
+                    key -> summarizers.stream().filter(item -> item.supports(key)).findFirst());
+        }
+        return summarizer;
+    }
+
+    private static boolean isSimpleValue(Object value) {
+        return value instanceof Number || value instanceof Boolean || value instanceof Character
+                || value instanceof Enum || value instanceof Date || value instanceof TemporalAccessor
+                || value instanceof Class;
+    }
+
+    private static String truncatedElement(int size) {
+        return TRUNCATED + "(" + size + ")";
+    }
+
+    /**
+     * 只遍历前 N 个元素，元素没有变化的时候返回原来的集合，交给 fastjson 直接序列化；发现第一个变化的元素之后才创建新的集合
+     */
+    private Object limitCollection(Collection<?> collection, int depth, List<Object> ancestors) {
+        int size = collection.size();
+        int maxElements = getMaxCollectionElements();
+        int limit = (maxElements > 0 ? Math.min(size, maxElements) : size);
+        List<Object> result = (limit < size ? new ArrayList<>(limit + 1) : null);
+        int i = 0;
+        for (Object element : collection) {
+            if (i >= limit) {
+                break;
+            }
+            Object limited = limit(element, depth + 1, ancestors);
+            if (result == null && limited != element) {
+                // 复制前面没有变化的元素
+                result = new ArrayList<>(limit + 1);
+                Iterator<?> iterator = collection.iterator();
+                for (int j = 0; j < i; j++) {
+                    result.add(iterator.next());
+                }
+            }
+            if (result != null) {
+                result.add(limited);
+            }
+            i++;
+        }
+        if (result == null) {
+            return collection;
+        }
+        if (limit < size) {
+            result.add(truncatedElement(size));
+        }
+        return result;
+    }
+
+    private Object limitMap(Map<?, ?> map, int depth, List<Object> ancestors) {
+        int size = map.size();
+        int maxElements = getMaxCollectionElements();
+        int limit = (maxElements > 0 ? Math.min(size, maxElements) : size);
+        Map<Object, Object> result = (limit < size ? new LinkedHashMap<>() : null);
+        int i = 0;
+        for (Entry<?, ?> entry : map.entrySet()) {
+            if (i >= limit) {
+                break;
+            }
+            Object value = entry.getValue();
+            Object limited = limit(value, depth + 1, ancestors);
+            if (result == null && limited != value) {
+                // 复制前面没有变化的元素
+                result = new LinkedHashMap<>();
+                Iterator<? extends Entry<?, ?>> iterator = map.entrySet().iterator();
+                for (int j = 0; j < i; j++) {
+                    Entry<?, ?> previous = iterator.next();
+                    result.put(previous.getKey(), previous.getValue());
+                }
+            }
+            if (result != null) {
+                result.put(entry.getKey(), limited);
+            }
+            i++;
+        }
+        if (result == null) {
+            return map;
+        }
+        if (limit < size) {
+            result.put(TRUNCATED, truncatedElement(size));
+        }
+        return result;
+    }
+
+    private Object limitArray(Object array, int depth, List<Object> ancestors) {
+        int size = Array.getLength(array);
+        int maxElements = getMaxCollectionElements();
+        if (maxElements <= 0 || size <= maxElements) {
+            if (!(array instanceof Object[])) {
+                // 基本类型的数组没有嵌套的对象
+                return array;
+            }
+            maxElements = size;
+        }
+        List<Object> result = (maxElements < size ? new ArrayList<>(maxElements + 1) : null);
+        for (int i = 0; i < maxElements; i++) {
+            Object element = Array.get(array, i);
+            Object limited = limit(element, depth + 1, ancestors);
+            if (result == null && limited != element) {
+                // 复制前面没有变化的元素
+                result = new ArrayList<>(maxElements + 1);
+                for (int j = 0; j < i; j++) {
+                    result.add(Array.get(array, j));
+                }
+            }
+            if (result != null) {
+                result.add(limited);
+            }
+        }
+        if (result == null) {
+            return array;
+        }
+        if (maxElements < size) {
+            result.add(truncatedElement(size));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package app.myoss.cloud.apm.metrics;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import app.myoss.cloud.core.lang.concurrent.ExecutorEngine;
+import app.myoss.cloud.core.lang.concurrent.ExecutorEngineStatistics;
+import io.prometheus.client.Collector;
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.CounterMetricFamily;
+import io.prometheus.client.GaugeMetricFamily;
+
+/**
+ * 导出所有 {@link ExecutorEngine} 的队列长度、正在执行的任务数、拒绝的任务数、排队等待时间和执行时间到 Prometheus，使用执行框架的名字作为
+ * engine 标签，名字相同的执行框架会合并统计；没有指定名字的执行框架合并为 {@link #DEFAULT_ENGINE_LABEL} 标签，动态创建的执行框架不会导致标签无限增长
+ * <p>
+ * 使用 {@link #register(CollectorRegistry)} 注册，指标名字已经被注册的时候不会重复注册，调用 {@link #close()} 的时候注销
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午8:32:33
+ * @see ExecutorEngine#getEngines()
+ */
+public class ExecutorEngineCollector extends Collector implements AutoCloseable {
+    /**
+     * 没有指定名字的执行框架使用的 engine 标签
+     */
+    public static final String         DEFAULT_ENGINE_LABEL = "default";
+    private static final List<String>  LABEL_NAMES          = Collections.singletonList("engine");
+    private volatile CollectorRegistry registry;
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T extends Collector> T register(CollectorRegistry registry) {
+        if (PrometheusCollectors.register(registry, this)) {
+            this.registry = registry;
+        }
+        return (T) this;
+    }
+
+    /**
+     * 从注册的收集器中注销，Spring 容器关闭的时候自动调用
+     */
+    @Override
+    public void close() {
+        CollectorRegistry current = registry;
+        if (current != null) {
+            current.unregister(this);
+            registry = null;
+        }
+    }
+
+    @Override
+    public List<MetricFamilySamples> collect() {
+        Map<String, long[]> values = new LinkedHashMap<>();
+        for (ExecutorEngine engine : ExecutorEngine.getEngines()) {
+            ExecutorEngineStatistics statistics = engine.getStatistics();
+            String label = (engine.isNamed() ? engine.getName() : DEFAULT_ENGINE_LABEL);
+            long[] value = values.computeIfAbsent(label, key -> new long[7]);
+            value[0] += statistics.getQueueSize();
+            value[1] += statistics.getActiveCount();
+            value[2] += statistics.getSubmittedCount();
+            value[3] += statistics.getRejectedCount();
+            value[4] += statistics.getCompletedCount();
+            value[5] += statistics.getTotalQueueWaitTime(TimeUnit.NANOSECONDS);
+            value[6] += statistics.getTotalRunTime(TimeUnit.NANOSECONDS);
+        }
+        GaugeMetricFamily queueSize = new GaugeMetricFamily("myoss_executor_engine_queue_size",
+                "Number of tasks waiting in the executor engine queue.", LABEL_NAMES);
+        GaugeMetricFamily activeTasks = new GaugeMetricFamily("myoss_executor_engine_active_tasks",
+                "Number of tasks being executed by the executor engine.", LABEL_NAMES);
+        CounterMetricFamily submitted = new CounterMetricFamily("myoss_executor_engine_tasks_submitted_total",
+                "Number of tasks submitted to the executor engine.", LABEL_NAMES);
+        CounterMetricFamily rejected = new CounterMetricFamily("myoss_executor_engine_tasks_rejected_total",
+                "Number of tasks rejected by the executor engine.", LABEL_NAMES);
+        CounterMetricFamily completed = new CounterMetricFamily("myoss_executor_engine_tasks_completed_total",
+                "Number of tasks completed by the executor engine.", LABEL_NAMES);
+        CounterMetricFamily queueWait = new CounterMetricFamily("myoss_executor_engine_queue_wait_seconds_total",
+                "Total time tasks spent waiting in the executor engine queue.", LABEL_NAMES);
+        CounterMetricFamily run = new CounterMetricFamily("myoss_executor_engine_run_seconds_total",
+                "Total time tasks spent running in the executor engine.", LABEL_NAMES);
+        for (Map.Entry<String, long[]> entry : values.entrySet()) {
+            List<String> labelValues = Collections.singletonList(entry.getKey());
+            long[] value = entry.getValue();
+            queueSize.addMetric(labelValues, value[0]);
+            activeTasks.addMetric(labelValues, value[1]);
+            submitted.addMetric(labelValues, value[2]);
+            rejected.addMetric(labelValues, value[3]);
+            completed.addMetric(labelValues, value[4]);
+            queueWait.addMetric(labelValues, value[5] / NANOSECONDS_PER_SECOND);
+            run.addMetric(labelValues, value[6] / NANOSECONDS_PER_SECOND);
+        }
+        return Arrays.asList(queueSize, activeTasks, submitted, rejected, completed, queueWait, run);
+    }
+}
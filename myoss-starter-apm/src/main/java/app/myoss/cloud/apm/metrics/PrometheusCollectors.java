@@ -0,0 +1,54 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.apm.metrics;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.CollectorRegistry;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Prometheus 收集器的工具类
+ * <p>
+ * 同一个 JVM 中的多个 Spring 容器（父子容器、devtools 重启、测试用例缓存的容器）使用同一个
+ * {@link CollectorRegistry#defaultRegistry} 的时候，指标名字已经被其它容器注册的收集器不会重复注册，避免容器启动失败
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午8:59:42
+ */
+@Slf4j
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class PrometheusCollectors {
+    /**
+     * 注册收集器，指标名字已经被其它收集器注册的时候不注册，只输出 WARN 日志
+     *
+     * @param registry Prometheus 收集器
+     * @param collector 需要注册的收集器
+     * @return true：注册成功，false：指标名字已经被注册
+     */
+    public static boolean register(CollectorRegistry registry, Collector collector) {
+        try {
+            registry.register(collector);
+            return true;
+        } catch (IllegalArgumentException ex) {
+            log.warn("skip registering prometheus collector: {}", ex.getMessage());
+            return false;
+        }
+    }
+}
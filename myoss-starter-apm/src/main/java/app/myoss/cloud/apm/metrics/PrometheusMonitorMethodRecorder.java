@@ -0,0 +1,72 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package app.myoss.cloud.apm.metrics;
+
+import app.myoss.cloud.apm.log.method.aspectj.MonitorMethodRecorder;
+import io.prometheus.client.Collector;
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.Histogram;
+import lombok.Getter;
+
+/**
+ * 使用 Prometheus Histogram 记录被监控方法的执行时间，可以计算 P50/P99 等分位数，不需要再解析日志文件
+ * <ul>
+ * <li>myoss_method_duration_seconds{method, result}：执行时间，result 为：success/exception</li>
+ * </ul>
+ * 指标名字已经被其它 Spring 容器注册的时候不会重复注册，调用 {@link #close()} 的时候注销
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午8:43:22
+ */
+public class PrometheusMonitorMethodRecorder implements MonitorMethodRecorder, AutoCloseable {
+    @Getter
+    private final Histogram   durationSeconds;
+    private CollectorRegistry registry;
+
+    /**
+     * 创建 Prometheus 方法执行时间的记录器
+     *
+     * @param collectorRegistry Prometheus 收集器
+     */
+    public PrometheusMonitorMethodRecorder(CollectorRegistry collectorRegistry) {
+        this.durationSeconds = Histogram.build()
+                .name("myoss_method_duration_seconds")
+                .help("Duration of methods monitored by @LogMethodAround.")
+                .labelNames("method", "result")
+                .create();
+        if (PrometheusCollectors.register(collectorRegistry, durationSeconds)) {
+            this.registry = collectorRegistry;
+        }
+    }
+
+    /**
+     * 从注册的收集器中注销，Spring 容器关闭的时候自动调用
+     */
+    @Override
+    public synchronized void close() {
+        if (registry != null) {
+            registry.unregister(durationSeconds);
+            registry = null;
+        }
+    }
+
+    @Override
+    public void record(String methodName, long costNanos, boolean success) {
+        durationSeconds.labels(methodName, (success ? "success" : "exception"))
+                .observe(costNanos / Collector.NANOSECONDS_PER_SECOND);
+    }
+}
@@ -64,4 +64,22 @@ public class TraceableExecutorEngine {
                 new LinkedBlockingQueue<>(1024), threadFactory);
         return buildTraceableExecutorService(beanFactory, poolExecutor);
     }
+
+    /**
+     * 创建可以追踪调用链的虚拟线程执行框架，每个执行单元都在一个新的虚拟线程中执行（需要 JDK 21+）；如果当前的 JDK
+     * 不支持虚拟线程，则使用 {@link #buildTraceableExecutorService(BeanFactory)} 创建的线程池
+     *
+     * @param beanFactory Spring BeanFactory
+     * @return 可以追踪调用链的虚拟线程执行框架
+     * @see ExecutorEngine#buildVirtualThreadExecutor()
+     */
+    public static ExecutorEngine buildTraceableVirtualThreadExecutor(BeanFactory beanFactory) {
+        ExecutorService executorService = ExecutorEngine
+                .newVirtualThreadPerTaskExecutor("TraceableExecutorEngineVirtualThread-");
+        if (executorService == null) {
+            return buildTraceableExecutorService(beanFactory);
+        }
+        // TraceableExecutorService 会在执行单元所在的虚拟线程中恢复调用链的上下文
+        return buildTraceableExecutorService(beanFactory, executorService);
+    }
 }
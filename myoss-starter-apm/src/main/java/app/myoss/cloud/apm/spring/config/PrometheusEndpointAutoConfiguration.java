@@ -23,10 +23,14 @@ import org.springframework.boot.actuate.autoconfigure.endpoint.web.WebEndpointPr
 import org.springframework.boot.actuate.metrics.export.prometheus.PrometheusScrapeEndpoint;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import app.myoss.cloud.apm.constants.ApmConstants;
+import app.myoss.cloud.apm.metrics.ExecutorEngineCollector;
+import app.myoss.cloud.apm.metrics.PrometheusMonitorMethodRecorder;
 import io.prometheus.client.CollectorRegistry;
 import io.prometheus.client.exporter.common.TextFormat;
 import io.prometheus.client.hotspot.DefaultExports;
@@ -65,6 +69,32 @@ public class PrometheusEndpointAutoConfiguration {
         return CollectorRegistry.defaultRegistry;
     }
 
+    /**
+     * 导出 {@link app.myoss.cloud.core.lang.concurrent.ExecutorEngine} 线程池的监控指标
+     *
+     * @param collectorRegistry 收集器Bean
+     * @return ExecutorEngine 监控指标收集器
+     */
+    @ConditionalOnMissingBean
+    @Bean
+    public ExecutorEngineCollector executorEngineCollector(CollectorRegistry collectorRegistry) {
+        return new ExecutorEngineCollector().register(collectorRegistry);
+    }
+
+    /**
+     * 导出 {@link app.myoss.cloud.apm.log.method.aspectj.annotation.LogMethodAround} 方法执行时间的 Histogram
+     *
+     * @param collectorRegistry 收集器Bean
+     * @return 方法执行时间的记录器
+     */
+    @ConditionalOnProperty(prefix = ApmConstants.MONITOR_METHOD_CONFIG_PREFIX, name = "histogram-enabled",
+            matchIfMissing = true)
+    @ConditionalOnMissingBean
+    @Bean
+    public PrometheusMonitorMethodRecorder prometheusMonitorMethodRecorder(CollectorRegistry collectorRegistry) {
+        return new PrometheusMonitorMethodRecorder(collectorRegistry);
+    }
+
     /**
      * 创建默认的 Prometheus Endpoint
      *
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package app.myoss.cloud.apm.log.method;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.rule.OutputCapture;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import app.myoss.cloud.apm.log.method.aspectj.annotation.EnableAopLogMethod;
+import app.myoss.cloud.apm.log.method.aspectj.annotation.LogMethodAfter;
+
+/**
+ * 注解 {@link LogMethodAfter} 放在方法上，限制每秒打印的日志行数
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午9:07:59
+ */
+@SpringBootTest(properties = { "myoss-cloud.log.method.app-name:myoss-starter-apm",
+        "myoss-cloud.log.method.max-lines-per-second:5" })
+@RunWith(SpringRunner.class)
+public class MonitorMethodAfterCase4Tests {
+    @Rule
+    public OutputCapture    output = new OutputCapture();
+
+    @Autowired
+    private LogOnMethodTest logOnMethodTest;
+
+    @Test
+    public void maxLinesPerSecondTest() {
+        int calls = 100;
+        long start = System.nanoTime();
+        for (int i = 0; i < calls; i++) {
+            logOnMethodTest.isMatch();
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        int lines = StringUtils.countMatches(this.output.toString(), "[MonitorMethodAfter.java");
+        // 令牌桶每秒产生 5 个令牌，第一次获取令牌不需要等待
+        assertThat(lines).isGreaterThanOrEqualTo(1).isLessThanOrEqualTo(2 + (int) (elapsedMillis * 5 / 1000));
+        assertThat(lines).isLessThan(calls);
+    }
+
+    // 开启AspectJ
+    @EnableAspectJAutoProxy
+    @EnableAopLogMethod
+    @Configuration
+    protected static class Config {
+        @Bean
+        public LogOnMethodTest logOnMethodTest() {
+            return new LogOnMethodTest();
+        }
+    }
+
+    /**
+     * 注解 {@link LogMethodAfter} 放在方法上
+     */
+    protected static class LogOnMethodTest {
+        @LogMethodAfter
+        public String isMatch() {
+            return "matched";
+        }
+    }
+
+}
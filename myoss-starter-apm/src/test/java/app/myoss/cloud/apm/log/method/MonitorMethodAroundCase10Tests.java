@@ -0,0 +1,138 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package app.myoss.cloud.apm.log.method;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.rule.OutputCapture;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+
+import app.myoss.cloud.apm.log.method.aspectj.MonitorMethodValueLimiter;
+import app.myoss.cloud.apm.log.method.aspectj.annotation.EnableAopLogMethod;
+import app.myoss.cloud.apm.log.method.aspectj.annotation.LogMethodAround;
+
+/**
+ * 注解 {@link LogMethodAround} 只限制最大字符数，不限制集合的元素个数和嵌套层级：超过最大字符数之后停止序列化、自引用的集合
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午9:10:41
+ */
+@SpringBootTest(properties = { "myoss-cloud.log.method.app-name:myoss-starter-apm",
+        "myoss-cloud.log.method.max-length:200" })
+@RunWith(SpringRunner.class)
+public class MonitorMethodAroundCase10Tests {
+    @Rule
+    public OutputCapture    output = new OutputCapture();
+
+    @Autowired
+    private LogOnMethodTest logOnMethodTest;
+
+    private JSONObject getAfterJson() {
+        String[] lines = this.output.toString().split(System.getProperty("line.separator"));
+        assertThat(lines).hasSize(2);
+        String line = lines[1];
+        assertThat(line).contains("[MonitorMethodAround.java");
+        return JSON.parseObject(StringUtils.substring(line, line.indexOf(" - {") + 3));
+    }
+
+    @Test
+    public void stopSerializeAfterMaxLengthTest() {
+        Item.GETTER_CALLS.set(0);
+        List<Item> items = logOnMethodTest.largeItems(1000);
+        assertThat(items).hasSize(1000);
+
+        String result = getAfterJson().getString("result");
+        assertThat(result).hasSize(200 + MonitorMethodValueLimiter.TRUNCATED.length())
+                .startsWith("[{\"values\":[\"aaa")
+                .endsWith(MonitorMethodValueLimiter.TRUNCATED);
+        // 第一个元素就已经超过了最大字符数，后面的元素不再序列化
+        assertThat(Item.GETTER_CALLS.get()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    public void selfReferenceCollectionTest() {
+        List<Object> values = new ArrayList<>();
+        values.add("jerry");
+        values.add(values);
+        logOnMethodTest.selfReference(values);
+
+        String printLog = this.output.toString();
+        JSONObject json = JSON.parseObject(StringUtils.substring(printLog, printLog.indexOf(" - {") + 3,
+                printLog.indexOf(System.getProperty("line.separator"))));
+        // 没有配置 max-depth，自引用的集合只打印类名
+        assertThat(json.getJSONArray("args").getJSONArray(0)).containsExactly("jerry", ArrayList.class.getName());
+    }
+
+    // 开启AspectJ
+    @EnableAspectJAutoProxy
+    @EnableAopLogMethod
+    @Configuration
+    protected static class Config {
+        @Bean
+        public LogOnMethodTest logOnMethodTest() {
+            return new LogOnMethodTest();
+        }
+    }
+
+    /**
+     * 记录属性被获取的次数
+     */
+    public static class Item {
+        static final AtomicInteger GETTER_CALLS = new AtomicInteger();
+
+        public List<String> getValues() {
+            GETTER_CALLS.incrementAndGet();
+            return Collections.nCopies(10, StringUtils.repeat('a', 1000));
+        }
+    }
+
+    /**
+     * 注解 {@link LogMethodAround} 放在方法上
+     */
+    protected static class LogOnMethodTest {
+        @LogMethodAround
+        public List<Item> largeItems(int size) {
+            List<Item> items = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                items.add(new Item());
+            }
+            return items;
+        }
+
+        @LogMethodAround
+        public int selfReference(List<Object> values) {
+            return values.size();
+        }
+    }
+}
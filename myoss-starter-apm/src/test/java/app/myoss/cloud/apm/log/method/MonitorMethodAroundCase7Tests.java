@@ -0,0 +1,149 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package app.myoss.cloud.apm.log.method;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.rule.OutputCapture;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+
+import app.myoss.cloud.apm.log.method.aspectj.MonitorMethodAround;
+import app.myoss.cloud.apm.log.method.aspectj.MonitorMethodDescriptor;
+import app.myoss.cloud.apm.log.method.aspectj.annotation.EnableAopLogMethod;
+import app.myoss.cloud.apm.log.method.aspectj.annotation.LogMethodAround;
+
+/**
+ * 注解 {@link LogMethodAround} 只打印慢调用的日志，按照方法的采样率打印日志
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午8:41:37
+ */
+@SpringBootTest(properties = { "myoss-cloud.log.method.app-name:myoss-starter-apm",
+        "myoss-cloud.log.method.slow-threshold-millis:100",
+        "myoss-cloud.log.method.method-sample-rates[" + MonitorMethodAroundCase7Tests.NOT_SAMPLED + "]:0" })
+@RunWith(SpringRunner.class)
+public class MonitorMethodAroundCase7Tests {
+    static final String         NOT_SAMPLED = "app.myoss.cloud.apm.log.method.MonitorMethodAroundCase7Tests"
+            + "$LogOnMethodTest#notSampled";
+
+    @Rule
+    public OutputCapture        output      = new OutputCapture();
+
+    @Autowired
+    private MonitorMethodAround monitorMethodAround;
+    @Autowired
+    private LogOnMethodTest     logOnMethodTest;
+
+    private MonitorMethodDescriptor getDescriptor(String methodName) {
+        return monitorMethodAround.getDescriptors()
+                .stream()
+                .filter(item -> item.getMethodName().endsWith("$LogOnMethodTest#" + methodName))
+                .findFirst()
+                .orElse(null);
+    }
+
+    @Test
+    public void fastMethodNotLogTest() {
+        logOnMethodTest.fast("jerry");
+        assertThat(this.output.toString()).isEmpty();
+        // 不打印日志的调用也会统计执行时间
+        assertThat(getDescriptor("fast").getCalls()).isEqualTo(1);
+    }
+
+    @Test
+    public void slowMethodLogTest() throws InterruptedException {
+        String name = "jerry";
+        long startTimeMillis = System.currentTimeMillis();
+        logOnMethodTest.slow(name);
+
+        String printLog = this.output.toString();
+        String[] lines = printLog.split(System.getProperty("line.separator"));
+        // 入参和返回值合并成一行
+        assertThat(lines).hasSize(1);
+        String line = lines[0];
+        assertThat(line).contains(
+                "[app.myoss.cloud.apm.log.method.MonitorMethodAroundCase7Tests$LogOnMethodTest#slow]",
+                "[MonitorMethodAround.java");
+        JSONObject json = JSON.parseObject(StringUtils.substring(line, line.indexOf(" - {") + 3));
+        assertThat(json.getLong("start")).isGreaterThanOrEqualTo(startTimeMillis);
+        assertThat(json.getJSONArray("args")).containsExactly(name);
+        assertThat(json.getLong("cost")).isGreaterThanOrEqualTo(100L);
+        assertThat(json.getString("result")).isEqualTo("slow, " + name);
+        assertThat(json.getString("app")).isEqualTo("myoss-starter-apm");
+
+        MonitorMethodDescriptor descriptor = getDescriptor("slow");
+        assertThat(descriptor.getCalls()).isEqualTo(1);
+        assertThat(descriptor.getMaxCost(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(100L);
+    }
+
+    @Test
+    public void notSampledMethodTest() throws InterruptedException {
+        logOnMethodTest.notSampled();
+        logOnMethodTest.notSampled();
+        assertThat(this.output.toString()).isEmpty();
+        MonitorMethodDescriptor descriptor = getDescriptor("notSampled");
+        assertThat(descriptor.getSampleRate()).isZero();
+        assertThat(descriptor.getCalls()).isEqualTo(2);
+    }
+
+    // 开启AspectJ
+    @EnableAspectJAutoProxy
+    @EnableAopLogMethod
+    @Configuration
+    protected static class Config {
+        @Bean
+        public LogOnMethodTest logOnMethodTest() {
+            return new LogOnMethodTest();
+        }
+    }
+
+    /**
+     * 注解 {@link LogMethodAround} 放在方法上
+     */
+    protected static class LogOnMethodTest {
+        @LogMethodAround
+        public String fast(String name) {
+            return "fast, " + name;
+        }
+
+        @LogMethodAround
+        public String slow(String name) throws InterruptedException {
+            Thread.sleep(150L);
+            return "slow, " + name;
+        }
+
+        @LogMethodAround
+        public String notSampled() throws InterruptedException {
+            Thread.sleep(150L);
+            return "not sampled";
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package app.myoss.cloud.apm.log.method;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.rule.OutputCapture;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import app.myoss.cloud.apm.log.method.aspectj.annotation.EnableAopLogMethod;
+import app.myoss.cloud.apm.log.method.aspectj.annotation.LogMethodAround;
+import app.myoss.cloud.apm.metrics.PrometheusMonitorMethodRecorder;
+import io.prometheus.client.CollectorRegistry;
+
+/**
+ * 注解 {@link LogMethodAround} 关闭日志，只使用 Prometheus Histogram 记录方法的执行时间
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午8:43:22
+ */
+@SpringBootTest(properties = { "myoss-cloud.log.method.app-name:myoss-starter-apm",
+        "myoss-cloud.log.method.log-enabled:false" })
+@RunWith(SpringRunner.class)
+public class MonitorMethodAroundCase8Tests {
+    static final String       METHOD_PREFIX = "app.myoss.cloud.apm.log.method.MonitorMethodAroundCase8Tests"
+            + "$LogOnMethodTest#";
+
+    @Rule
+    public OutputCapture      output        = new OutputCapture();
+
+    @Autowired
+    private CollectorRegistry collectorRegistry;
+    @Autowired
+    private LogOnMethodTest   logOnMethodTest;
+
+    private Double getSampleValue(String sampleName, String methodName, String result) {
+        return collectorRegistry.getSampleValue(sampleName, new String[] { "method", "result" },
+                new String[] { METHOD_PREFIX + methodName, result });
+    }
+
+    @Test
+    public void successHistogramTest() throws InterruptedException {
+        logOnMethodTest.slow("jerry");
+        logOnMethodTest.slow("tom");
+        assertThat(this.output.toString()).isEmpty();
+
+        assertThat(getSampleValue("myoss_method_duration_seconds_count", "slow", "success")).isEqualTo(2);
+        assertThat(getSampleValue("myoss_method_duration_seconds_sum", "slow", "success")).isGreaterThanOrEqualTo(0.1);
+        assertThat(getSampleValue("myoss_method_duration_seconds_count", "slow", "exception")).isNull();
+    }
+
+    @Test
+    public void exceptionHistogramTest() {
+        assertThatThrownBy(() -> logOnMethodTest.fail()).isInstanceOf(IllegalStateException.class);
+        assertThat(this.output.toString()).isEmpty();
+
+        assertThat(getSampleValue("myoss_method_duration_seconds_count", "fail", "exception")).isEqualTo(1);
+    }
+
+    // 开启AspectJ
+    @EnableAspectJAutoProxy
+    @EnableAopLogMethod
+    @Configuration
+    protected static class Config {
+        @Bean
+        public CollectorRegistry collectorRegistry() {
+            return new CollectorRegistry();
+        }
+
+        @Bean
+        public PrometheusMonitorMethodRecorder prometheusMonitorMethodRecorder(CollectorRegistry collectorRegistry) {
+            return new PrometheusMonitorMethodRecorder(collectorRegistry);
+        }
+
+        @Bean
+        public LogOnMethodTest logOnMethodTest() {
+            return new LogOnMethodTest();
+        }
+    }
+
+    /**
+     * 注解 {@link LogMethodAround} 放在方法上
+     */
+    protected static class LogOnMethodTest {
+        @LogMethodAround
+        public String slow(String name) throws InterruptedException {
+            Thread.sleep(50L);
+            return "slow, " + name;
+        }
+
+        @LogMethodAround
+        public String fail() {
+            throw new IllegalStateException("fail");
+        }
+    }
+}
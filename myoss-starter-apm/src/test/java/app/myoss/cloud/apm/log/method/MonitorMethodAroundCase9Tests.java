@@ -0,0 +1,259 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package app.myoss.cloud.apm.log.method;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.rule.OutputCapture;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+
+import app.myoss.cloud.apm.log.method.aspectj.MonitorMethodSummarizer;
+import app.myoss.cloud.apm.log.method.aspectj.MonitorMethodValueLimiter;
+import app.myoss.cloud.apm.log.method.aspectj.annotation.EnableAopLogMethod;
+import app.myoss.cloud.apm.log.method.aspectj.annotation.LogMethodAround;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 注解 {@link LogMethodAround} 限制入参、返回值序列化的大小：集合的元素个数、嵌套层级、最大字符数、按照类型转换为摘要
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午8:47:27
+ */
+@SpringBootTest(properties = { "myoss-cloud.log.method.app-name:myoss-starter-apm",
+        "myoss-cloud.log.method.max-length:200", "myoss-cloud.log.method.max-collection-elements:3",
+        "myoss-cloud.log.method.max-depth:2" })
+@RunWith(SpringRunner.class)
+public class MonitorMethodAroundCase9Tests {
+    @Rule
+    public OutputCapture    output = new OutputCapture();
+
+    @Autowired
+    private LogOnMethodTest logOnMethodTest;
+
+    private JSONObject getAfterJson() {
+        String[] lines = this.output.toString().split(System.getProperty("line.separator"));
+        assertThat(lines).hasSize(2);
+        String line = lines[1];
+        assertThat(line).contains("[MonitorMethodAround.java");
+        return JSON.parseObject(StringUtils.substring(line, line.indexOf(" - {") + 3));
+    }
+
+    @Test
+    public void largeCollectionTest() {
+        // 超过限制的集合只序列化前 3 个元素，序列化的耗时见 MonitorMethodValueLimiterBenchmark
+        List<Integer> values = logOnMethodTest.largeList(10000);
+        assertThat(values).hasSize(10000);
+
+        String printLog = this.output.toString();
+        assertThat(printLog.length()).isLessThan(2000);
+        JSONArray result = getAfterJson().getJSONArray("result");
+        assertThat(result).containsExactly(0, 1, 2, MonitorMethodValueLimiter.TRUNCATED + "(10000)");
+    }
+
+    @Test
+    public void largeCollectionInMapTest() {
+        // Map 中的集合只截断一次，显示集合真实的元素个数
+        logOnMethodTest.largeListInMap(10000);
+
+        JSONArray result = getAfterJson().getJSONObject("result").getJSONArray("values");
+        assertThat(result).containsExactly(0, 1, 2, MonitorMethodValueLimiter.TRUNCATED + "(10000)");
+    }
+
+    @Test
+    public void largeArrayTest() {
+        logOnMethodTest.largeArray(new long[10000]);
+
+        String printLog = this.output.toString();
+        assertThat(printLog.length()).isLessThan(2000);
+        JSONObject json = JSON.parseObject(StringUtils.substring(printLog, printLog.indexOf(" - {") + 3,
+                printLog.indexOf(System.getProperty("line.separator"))));
+        assertThat(json.getJSONArray("args").getJSONArray(0))
+                .containsExactly(0, 0, 0, MonitorMethodValueLimiter.TRUNCATED + "(10000)");
+    }
+
+    @Test
+    public void largeStringTest() {
+        String value = logOnMethodTest.largeString(10000);
+        assertThat(value).hasSize(10000);
+
+        String result = getAfterJson().getString("result");
+        assertThat(result).hasSize(200 + MonitorMethodValueLimiter.TRUNCATED.length())
+                .endsWith(MonitorMethodValueLimiter.TRUNCATED);
+    }
+
+    @Test
+    public void maxDepthTest() {
+        logOnMethodTest.deepNode(10);
+
+        JSONObject result = getAfterJson().getJSONObject("result");
+        assertThat(result.getString("name")).isEqualTo("node-10");
+        JSONObject child = result.getJSONObject("child");
+        assertThat(child.getString("name")).isEqualTo("node-9");
+        // 第 2 层只打印类名
+        assertThat(child.getString("child")).isEqualTo(Node.class.getName());
+    }
+
+    @Test
+    public void nestedCollectionTest() {
+        logOnMethodTest.nestedList();
+
+        JSONArray result = getAfterJson().getJSONArray("result");
+        assertThat(result).hasSize(4);
+        JSONObject first = result.getJSONObject(0);
+        assertThat(first.getString("name")).isEqualTo("node-0");
+        // 集合中的元素是第 1 层，元素的属性是第 2 层
+        assertThat(first.getString("child")).isEqualTo(Node.class.getName());
+        assertThat(result.get(3)).isEqualTo(MonitorMethodValueLimiter.TRUNCATED + "(10)");
+    }
+
+    @Test
+    public void maxLengthTest() {
+        // 集合的元素个数、嵌套层级、字符串的长度都没有超过限制，但是序列化之后超过了最大字符数
+        logOnMethodTest.wideMap();
+
+        String result = getAfterJson().getString("result");
+        assertThat(result).hasSize(200 + MonitorMethodValueLimiter.TRUNCATED.length())
+                .startsWith("{\"a\":\"")
+                .endsWith(MonitorMethodValueLimiter.TRUNCATED);
+    }
+
+    @Test
+    public void summarizerTest() {
+        logOnMethodTest.file(new File("/tmp/myoss-starter-apm.log"));
+
+        String printLog = this.output.toString();
+        JSONObject json = JSON.parseObject(StringUtils.substring(printLog, printLog.indexOf(" - {") + 3,
+                printLog.indexOf(System.getProperty("line.separator"))));
+        assertThat(json.getJSONArray("args")).containsExactly("file:myoss-starter-apm.log");
+    }
+
+    // 开启AspectJ
+    @EnableAspectJAutoProxy
+    @EnableAopLogMethod
+    @Configuration
+    protected static class Config {
+        @Bean
+        public LogOnMethodTest logOnMethodTest() {
+            return new LogOnMethodTest();
+        }
+
+        @Bean
+        public MonitorMethodSummarizer fileSummarizer() {
+            return new MonitorMethodSummarizer() {
+                @Override
+                public boolean supports(Class<?> type) {
+                    return File.class.isAssignableFrom(type);
+                }
+
+                @Override
+                public Object summarize(Object value) {
+                    return "file:" + ((File) value).getName();
+                }
+            };
+        }
+    }
+
+    @AllArgsConstructor
+    @Data
+    public static class Node {
+        private String name;
+        private Node   child;
+    }
+
+    /**
+     * 注解 {@link LogMethodAround} 放在方法上
+     */
+    protected static class LogOnMethodTest {
+        @LogMethodAround
+        public List<Integer> largeList(int size) {
+            List<Integer> values = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                values.add(i);
+            }
+            return values;
+        }
+
+        @LogMethodAround
+        public Map<String, List<Integer>> largeListInMap(int size) {
+            Map<String, List<Integer>> values = new LinkedHashMap<>();
+            values.put("values", largeList(size));
+            return values;
+        }
+
+        @LogMethodAround
+        public int largeArray(long[] values) {
+            return values.length;
+        }
+
+        @LogMethodAround
+        public String largeString(int size) {
+            return StringUtils.repeat('a', size);
+        }
+
+        @LogMethodAround
+        public Node deepNode(int depth) {
+            Node node = null;
+            for (int i = 1; i <= depth; i++) {
+                node = new Node("node-" + i, node);
+            }
+            return node;
+        }
+
+        @LogMethodAround
+        public List<Node> nestedList() {
+            List<Node> nodes = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                nodes.add(new Node("node-" + i, new Node("child-" + i, null)));
+            }
+            return nodes;
+        }
+
+        @LogMethodAround
+        public Map<String, String> wideMap() {
+            Map<String, String> values = new LinkedHashMap<>();
+            values.put("a", StringUtils.repeat('a', 100));
+            values.put("b", StringUtils.repeat('b', 100));
+            values.put("c", StringUtils.repeat('c', 100));
+            return values;
+        }
+
+        @LogMethodAround
+        public String file(File file) {
+            return file.getName();
+        }
+    }
+}
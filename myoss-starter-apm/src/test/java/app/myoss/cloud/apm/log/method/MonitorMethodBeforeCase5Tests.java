@@ -0,0 +1,99 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package app.myoss.cloud.apm.log.method;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.rule.OutputCapture;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import app.myoss.cloud.apm.log.method.aspectj.annotation.EnableAopLogMethod;
+import app.myoss.cloud.apm.log.method.aspectj.annotation.LogMethodAfter;
+import app.myoss.cloud.apm.log.method.aspectj.annotation.LogMethodBefore;
+
+/**
+ * 全局的日志采样率，注解 {@link LogMethodBefore} 和 {@link LogMethodAfter} 同时放在方法上，入参和返回值的日志成对打印
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午9:07:59
+ */
+@SpringBootTest(properties = { "myoss-cloud.log.method.app-name:myoss-starter-apm",
+        "myoss-cloud.log.method.sample-rate:0.5" })
+@RunWith(SpringRunner.class)
+public class MonitorMethodBeforeCase5Tests {
+    @Rule
+    public OutputCapture    output = new OutputCapture();
+
+    @Autowired
+    private LogOnMethodTest logOnMethodTest;
+
+    @Test
+    public void sampleRatePairedLogTest() {
+        int calls = 200;
+        for (int i = 0; i < calls; i++) {
+            logOnMethodTest.isMatch("jerry" + i);
+        }
+
+        String[] lines = this.output.toString().split(System.getProperty("line.separator"));
+        int before = 0;
+        int after = 0;
+        for (int i = 0; i < lines.length; i++) {
+            if (lines[i].contains("[MonitorMethodBefore.java")) {
+                before++;
+                // 入参的日志后面紧跟着同一次调用的返回值的日志
+                assertThat(lines[i + 1]).contains("[MonitorMethodAfter.java");
+                String name = lines[i].substring(lines[i].indexOf("\"args\":[\"") + 9, lines[i].indexOf("\"]"));
+                assertThat(lines[i + 1]).contains("\"result\":\"matched, " + name + "\"");
+            } else if (lines[i].contains("[MonitorMethodAfter.java")) {
+                after++;
+            }
+        }
+        // 采样率为 0.5，200 次调用全部采样或者全部不采样的概率可以忽略
+        assertThat(before).isGreaterThan(0).isLessThan(calls).isEqualTo(after);
+    }
+
+    // 开启AspectJ
+    @EnableAspectJAutoProxy
+    @EnableAopLogMethod
+    @Configuration
+    protected static class Config {
+        @Bean
+        public LogOnMethodTest logOnMethodTest() {
+            return new LogOnMethodTest();
+        }
+    }
+
+    /**
+     * 注解 {@link LogMethodBefore} 和 {@link LogMethodAfter} 放在方法上
+     */
+    protected static class LogOnMethodTest {
+        @LogMethodBefore
+        @LogMethodAfter
+        public String isMatch(String name) {
+            return "matched, " + name;
+        }
+    }
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package app.myoss.cloud.apm.log.method;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+
+import app.myoss.cloud.apm.log.method.aspectj.MonitorMethodJsonWriter;
+
+/**
+ * {@link MonitorMethodJsonWriter} 测试类，内存分配的对比参考 MonitorMethodJsonWriterBenchmark
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午8:39:37
+ */
+public class MonitorMethodJsonWriterTests {
+    private static final String DATE_FORMAT = "yyyy-MM-dd HH:mm:ss.SSS";
+
+    private static String writeByJSONObject(long start, Object[] args, Object result) {
+        JSONObject json = new JSONObject();
+        json.put("start", start);
+        json.put("args", args);
+        json.put("result", result);
+        json.put("app", null);
+        return JSONObject.toJSONStringWithDateFormat(json, DATE_FORMAT);
+    }
+
+    private static String writeByWriter(long start, Object[] args, Object result) {
+        try (MonitorMethodJsonWriter writer = new MonitorMethodJsonWriter(DATE_FORMAT)) {
+            writer.writeField("start", start);
+            writer.startArray("args");
+            for (Object arg : args) {
+                writer.writeElement(arg);
+            }
+            writer.endArray();
+            writer.writeField("result", result);
+            writer.writeField("app", null);
+            return writer.finish();
+        }
+    }
+
+    @Test
+    public void sameAsJSONObjectTest() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("name", "jerry");
+        result.put("date", new Date(0));
+        Object[] args = new Object[] { "jerry", null, 18, new Date(0), Arrays.asList(1, 2) };
+        long start = System.currentTimeMillis();
+
+        String expected = writeByJSONObject(start, args, result);
+        String actual = writeByWriter(start, args, result);
+        assertThat(JSON.parseObject(actual)).isEqualTo(JSON.parseObject(expected));
+        // 值为 null 的字段不输出，日期字段使用日期格式
+        assertThat(actual).doesNotContain("\"app\"")
+                .contains(JSON.toJSONStringWithDateFormat(new Date(0), DATE_FORMAT));
+        assertThat(writeByWriter(start, new Object[0], null)).isEqualTo("{\"start\":" + start + ",\"args\":[]}");
+    }
+}
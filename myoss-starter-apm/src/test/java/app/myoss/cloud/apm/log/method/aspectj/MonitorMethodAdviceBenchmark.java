@@ -0,0 +1,138 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package app.myoss.cloud.apm.log.method.aspectj;
+
+import java.util.concurrent.TimeUnit;
+
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Before;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import app.myoss.cloud.apm.log.method.aspectj.annotation.LogMethodAround;
+
+/**
+ * {@link MonitorMethodAround} 的 advice 开销性能基准测试，不是单元测试，需要手动运行 {@link #main(String[])}
+ * <p>
+ * 关闭日志的输出，只比较每次调用获取被监控方法的元数据的开销：
+ * <ul>
+ * <li>direct：不经过 AOP 直接调用
+ * <li>aroundAdvice：经过 {@link MonitorMethodAround} 调用，使用缓存的元数据
+ * <li>descriptorCached：从缓存中获取元数据
+ * <li>descriptorPerCall：修改之前的实现，每次调用都拼接方法名、获取 Logger
+ * </ul>
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午10:12:10
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MonitorMethodAdviceBenchmark {
+    private MonitorMethodProperties properties;
+    private MonitorMethodAround     around;
+    private MonitorService          target;
+    private MonitorService          proxy;
+    private JoinPoint               joinPoint;
+
+    @Setup
+    public void setup() {
+        properties = new MonitorMethodProperties();
+        properties.setAppName("MonitorMethodAdviceBenchmark");
+        properties.setLogEnabled(false);
+        properties.init();
+        around = new MonitorMethodAround();
+        around.properties = properties;
+        target = new MonitorService();
+
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.addAspect(around);
+        proxy = proxyFactory.getProxy();
+
+        // 获取一个真实的 JoinPoint，用于单独测试获取元数据的开销
+        JoinPointCapture capture = new JoinPointCapture();
+        AspectJProxyFactory captureFactory = new AspectJProxyFactory(target);
+        captureFactory.addAspect(capture);
+        captureFactory.<MonitorService> getProxy().call("jerry");
+        joinPoint = capture.joinPoint;
+    }
+
+    @Benchmark
+    public String direct() {
+        return target.call("jerry");
+    }
+
+    @Benchmark
+    public String aroundAdvice() {
+        return proxy.call("jerry");
+    }
+
+    @Benchmark
+    public MonitorMethodDescriptor descriptorCached() {
+        return around.getDescriptor(joinPoint);
+    }
+
+    @Benchmark
+    public MonitorMethodDescriptor descriptorPerCall() {
+        return new MonitorMethodDescriptor(joinPoint.getSignature(), properties, false);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(MonitorMethodAdviceBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+
+    /**
+     * 被监控的方法
+     */
+    public static class MonitorService {
+        @LogMethodAround
+        public String call(String name) {
+            return name;
+        }
+    }
+
+    /**
+     * 保存被监控方法的 JoinPoint
+     */
+    @Aspect
+    public static class JoinPointCapture {
+        private JoinPoint joinPoint;
+
+        @Before("@annotation(app.myoss.cloud.apm.log.method.aspectj.annotation.LogMethodAround)")
+        public void capture(JoinPoint joinPoint) {
+            this.joinPoint = joinPoint;
+        }
+    }
+}
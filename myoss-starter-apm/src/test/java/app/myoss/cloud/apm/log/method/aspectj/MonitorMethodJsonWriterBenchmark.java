@@ -0,0 +1,91 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package app.myoss.cloud.apm.log.method.aspectj;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.alibaba.fastjson.JSONObject;
+
+/**
+ * {@link MonitorMethodJsonWriter} 性能基准测试，不是单元测试，需要手动运行 {@link #main(String[])}，使用 GC profiler（{@code -prof gc}）
+ * 输出每次操作分配的内存（gc.alloc.rate.norm）
+ * <ul>
+ * <li>jsonObject：修改之前的实现，创建中间的 JSONObject 再序列化
+ * <li>jsonWriter：流式写入线程本地复用的字符缓冲区
+ * </ul>
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午10:12:22
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MonitorMethodJsonWriterBenchmark {
+    private static final String DATE_FORMAT = "yyyy-MM-dd HH:mm:ss.SSS";
+    private final Object[]      args        = new Object[] { "jerry", 18L, 3.14D };
+    private long                start       = System.currentTimeMillis();
+
+    @Benchmark
+    public String jsonObject() {
+        JSONObject json = new JSONObject();
+        json.put("start", start);
+        json.put("args", args);
+        json.put("result", "result");
+        json.put("app", null);
+        return JSONObject.toJSONStringWithDateFormat(json, DATE_FORMAT);
+    }
+
+    @Benchmark
+    public String jsonWriter() {
+        try (MonitorMethodJsonWriter writer = new MonitorMethodJsonWriter(DATE_FORMAT)) {
+            writer.writeField("start", start);
+            writer.startArray("args");
+            for (Object arg : args) {
+                writer.writeElement(arg);
+            }
+            writer.endArray();
+            writer.writeField("result", "result");
+            writer.writeField("app", null);
+            return writer.finish();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(MonitorMethodJsonWriterBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
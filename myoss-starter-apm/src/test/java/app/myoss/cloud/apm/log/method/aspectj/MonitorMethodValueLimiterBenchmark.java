@@ -0,0 +1,157 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package app.myoss.cloud.apm.log.method.aspectj;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import app.myoss.cloud.apm.log.method.MonitorMethodAroundCase9Tests.Node;
+
+/**
+ * {@link MonitorMethodValueLimiter} 序列化开销性能基准测试，不是单元测试，需要手动运行 {@link #main(String[])}，使用 GC
+ * profiler（{@code -prof gc}）输出每次操作分配的内存（gc.alloc.rate.norm）
+ * <p>
+ * 使用 {@link MonitorMethodJsonWriter} 序列化超大的集合、字符串和很深的对象，比较开启限制（limited*）和不限制（unlimited*）的耗时，
+ * 开启限制之后的耗时不应该随着 size、depth 增长
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午10:13:54
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MonitorMethodValueLimiterBenchmark {
+    private static final String       DATE_FORMAT = "yyyy-MM-dd HH:mm:ss.SSS";
+    private MonitorMethodValueLimiter limiter;
+
+    @Setup
+    public void setup() {
+        // 和 MonitorMethodAroundCase9Tests 使用相同的限制
+        MonitorMethodProperties properties = new MonitorMethodProperties();
+        properties.setAppName("MonitorMethodValueLimiterBenchmark");
+        properties.setMaxLength(200);
+        properties.setMaxCollectionElements(3);
+        properties.setMaxDepth(2);
+        properties.init();
+        limiter = new MonitorMethodValueLimiter();
+        ReflectionTestUtils.setField(limiter, "properties", properties);
+    }
+
+    private static String write(MonitorMethodValueLimiter limiter, Object result) {
+        try (MonitorMethodJsonWriter writer = new MonitorMethodJsonWriter(DATE_FORMAT, limiter)) {
+            writer.writeField("result", result);
+            return writer.finish();
+        }
+    }
+
+    @Benchmark
+    public String limitedLargeList(LargePayload payload) {
+        return write(limiter, payload.list);
+    }
+
+    @Benchmark
+    public String unlimitedLargeList(LargePayload payload) {
+        return write(null, payload.list);
+    }
+
+    @Benchmark
+    public String limitedLargeString(LargePayload payload) {
+        return write(limiter, payload.string);
+    }
+
+    @Benchmark
+    public String unlimitedLargeString(LargePayload payload) {
+        return write(null, payload.string);
+    }
+
+    @Benchmark
+    public String limitedDeepNode(DeepPayload payload) {
+        return write(limiter, payload.node);
+    }
+
+    @Benchmark
+    public String unlimitedDeepNode(DeepPayload payload) {
+        return write(null, payload.node);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(MonitorMethodValueLimiterBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+
+    /**
+     * 超大的集合、字符串
+     */
+    @State(Scope.Benchmark)
+    public static class LargePayload {
+        @Param({ "1000", "1000000" })
+        int           size;
+        List<Integer> list;
+        String        string;
+
+        @Setup
+        public void setup() {
+            list = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                list.add(i);
+            }
+            string = StringUtils.repeat('a', size);
+        }
+    }
+
+    /**
+     * 很深的对象
+     */
+    @State(Scope.Benchmark)
+    public static class DeepPayload {
+        @Param({ "10", "500" })
+        int  depth;
+        Node node;
+
+        @Setup
+        public void setup() {
+            for (int i = 1; i <= depth; i++) {
+                node = new Node("node-" + i, node);
+            }
+        }
+    }
+}
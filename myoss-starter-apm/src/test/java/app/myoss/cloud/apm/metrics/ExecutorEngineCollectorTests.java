@@ -0,0 +1,77 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.apm.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import app.myoss.cloud.core.lang.concurrent.ExecutorEngine;
+import io.prometheus.client.CollectorRegistry;
+
+/**
+ * {@link ExecutorEngineCollector} 测试类
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午8:59:42
+ */
+public class ExecutorEngineCollectorTests {
+    @Test
+    public void registerTwiceInSameRegistryTest() {
+        CollectorRegistry registry = new CollectorRegistry();
+        String[] labelNames = { "engine" };
+        String[] labelValues = { "collector-test" };
+        try (ExecutorEngine engine = new ExecutorEngine("collector-test", Executors.newSingleThreadExecutor())) {
+            ExecutorEngineCollector first = new ExecutorEngineCollector().register(registry);
+            // 模拟另外一个 Spring 容器使用同一个收集器，不会因为指标已经注册而失败
+            ExecutorEngineCollector second = new ExecutorEngineCollector().register(registry);
+            assertThat(registry.getSampleValue("myoss_executor_engine_queue_size", labelNames, labelValues))
+                    .isEqualTo(0.0);
+
+            // 注销之后，可以重新注册
+            first.close();
+            second.close();
+            assertThat(registry.getSampleValue("myoss_executor_engine_queue_size", labelNames, labelValues))
+                    .isNull();
+            ExecutorEngineCollector third = new ExecutorEngineCollector().register(registry);
+            assertThat(registry.getSampleValue("myoss_executor_engine_queue_size", labelNames, labelValues))
+                    .isEqualTo(0.0);
+            third.close();
+        }
+    }
+
+    @Test
+    public void unnamedEnginesShareDefaultLabelTest() throws Exception {
+        CollectorRegistry registry = new CollectorRegistry();
+        String[] labelNames = { "engine" };
+        try (ExecutorEngine first = new ExecutorEngine(Executors.newSingleThreadExecutor());
+                ExecutorEngine second = new ExecutorEngine(Executors.newSingleThreadExecutor())) {
+            first.getExecutorService().submit(() -> 1).get();
+            second.getExecutorService().submit(() -> 2).get();
+            ExecutorEngineCollector collector = new ExecutorEngineCollector().register(registry);
+            // 没有指定名字的执行框架合并为一个标签，不会为每个执行框架增加一个标签
+            assertThat(registry.getSampleValue("myoss_executor_engine_tasks_submitted_total", labelNames,
+                    new String[] { ExecutorEngineCollector.DEFAULT_ENGINE_LABEL })).isGreaterThanOrEqualTo(2.0);
+            assertThat(registry.getSampleValue("myoss_executor_engine_tasks_submitted_total", labelNames,
+                    new String[] { first.getName() })).isNull();
+            collector.close();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.apm.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import io.prometheus.client.CollectorRegistry;
+
+/**
+ * {@link PrometheusMonitorMethodRecorder} 测试类
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午8:59:55
+ */
+public class PrometheusMonitorMethodRecorderTests {
+    private static final String[] LABEL_NAMES  = { "method", "result" };
+    private static final String[] LABEL_VALUES = { "test#run", "success" };
+
+    @Test
+    public void registerTwiceInSameRegistryTest() {
+        CollectorRegistry registry = new CollectorRegistry();
+        PrometheusMonitorMethodRecorder first = new PrometheusMonitorMethodRecorder(registry);
+        // 模拟另外一个 Spring 容器使用同一个收集器，不会因为指标已经注册而失败
+        PrometheusMonitorMethodRecorder second = new PrometheusMonitorMethodRecorder(registry);
+        first.record("test#run", TimeUnit.MILLISECONDS.toNanos(10), true);
+        second.record("test#run", TimeUnit.MILLISECONDS.toNanos(10), true);
+        assertThat(registry.getSampleValue("myoss_method_duration_seconds_count", LABEL_NAMES, LABEL_VALUES))
+                .isEqualTo(1.0);
+
+        // 注销之后，可以重新注册
+        first.close();
+        second.close();
+        assertThat(registry.getSampleValue("myoss_method_duration_seconds_count", LABEL_NAMES, LABEL_VALUES))
+                .isNull();
+        PrometheusMonitorMethodRecorder third = new PrometheusMonitorMethodRecorder(registry);
+        third.record("test#run", TimeUnit.MILLISECONDS.toNanos(10), true);
+        assertThat(registry.getSampleValue("myoss_method_duration_seconds_count", LABEL_NAMES, LABEL_VALUES))
+                .isEqualTo(1.0);
+        third.close();
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.lock;
+
+import java.io.Serializable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.util.backoff.BackOff;
+
+import app.myoss.cloud.cache.lock.functions.LockFunctionGeneric;
+import app.myoss.cloud.cache.lock.functions.LockFunctionGenericWithArgs;
+import reactor.core.publisher.Mono;
+
+/**
+ * 非阻塞的缓存锁服务接口
+ * <p>
+ * 获取锁、重试、释放锁都不会阻塞调用线程，重试之间的等待使用定时器实现，适用于 WebFlux 等响应式应用
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午5:10:33
+ * @see LockService
+ */
+public interface AsyncLockService {
+    /**
+     * 获取锁
+     *
+     * @param key 锁的名字
+     * @param expireTime 锁的过期时间
+     * @param timeUnit 缓存锁的时间单位
+     * @return 获取到锁返回持有者令牌，没有获取到锁返回 {@link Mono#empty()}
+     */
+    Mono<String> getLock(Serializable key, int expireTime, TimeUnit timeUnit);
+
+    /**
+     * 获取锁
+     *
+     * @param key 锁的名字
+     * @param expireTime 锁的过期时间
+     * @return 获取到锁返回持有者令牌，没有获取到锁返回 {@link Mono#empty()}
+     */
+    Mono<String> getLock(Serializable key, int expireTime);
+
+    /**
+     * 释放锁
+     *
+     * @param key 锁的名字
+     * @param token 获取锁的时候返回的持有者令牌
+     * @return true：释放锁成功，false：锁已经不属于此持有者
+     */
+    Mono<Boolean> releaseLock(Serializable key, String token);
+
+    /**
+     * 如果获取锁成功，则执行 onLockSuccess，执行完成之后释放锁；如果获取锁失败，则执行 onLockFailed
+     *
+     * @param key 锁的名字
+     * @param expireTime 锁的过期时间
+     * @param backOff 重复尝试获取锁的退避策略
+     * @param onLockSuccess 获取锁成功的时候执行
+     * @param onLockFailed 获取锁失败的时候执行
+     * @param <T> 回调函数返回的泛型
+     * @return 回调函数返回的结果
+     */
+    <T> Mono<T> executeByLock(Serializable key, int expireTime, BackOff backOff, Supplier<Mono<T>> onLockSuccess,
+                              Supplier<Mono<T>> onLockFailed);
+
+    /**
+     * 如果获取锁成功，则执行 {@link LockFunctionGeneric#onLockSuccess()
+     * callback.onLockSuccess()} 如果获取锁失败，则执行
+     * {@link LockFunctionGeneric#onLockFailed() callback.onLockFailed()}
+     * <p>
+     * 回调函数是同步执行的代码，会在单独的线程池中执行，不会阻塞 Redis 的 IO 线程
+     *
+     * @param key 锁的名字
+     * @param expireTime 锁的过期时间
+     * @param callback 回调函数
+     * @param <T> 回调函数返回的泛型
+     * @return 回调函数返回的结果
+     */
+    <T> Mono<T> executeByLock(Serializable key, int expireTime, LockFunctionGeneric<T> callback);
+
+    /**
+     * 如果获取锁成功，则执行 {@link LockFunctionGenericWithArgs#onLockSuccess(Object...)
+     * callback.onLockSuccess()} 如果获取锁失败，则执行
+     * {@link LockFunctionGenericWithArgs#onLockFailed(Object...)
+     * callback.onLockFailed()}
+     * <p>
+     * 回调函数是同步执行的代码，会在单独的线程池中执行，不会阻塞 Redis 的 IO 线程
+     *
+     * @param key 锁的名字
+     * @param expireTime 锁的过期时间
+     * @param callback 回调函数
+     * @param args 回调函数的入参
+     * @param <T> 回调函数返回的泛型
+     * @return 回调函数返回的结果
+     */
+    <T> Mono<T> executeByLock(Serializable key, int expireTime, LockFunctionGenericWithArgs<T> callback,
+                              Object... args);
+
+    /**
+     * 使用 {@link CompletableFuture} 返回结果，参考
+     * {@link #executeByLock(Serializable, int, LockFunctionGeneric)}
+     *
+     * @param key 锁的名字
+     * @param expireTime 锁的过期时间
+     * @param callback 回调函数
+     * @param <T> 回调函数返回的泛型
+     * @return 回调函数返回的结果
+     */
+    default <T> CompletableFuture<T> executeByLockAsync(Serializable key, int expireTime,
+                                                        LockFunctionGeneric<T> callback) {
+        return executeByLock(key, expireTime, callback).toFuture();
+    }
+
+    /**
+     * 使用 {@link CompletableFuture} 返回结果，参考
+     * {@link #executeByLock(Serializable, int, LockFunctionGenericWithArgs, Object...)}
+     *
+     * @param key 锁的名字
+     * @param expireTime 锁的过期时间
+     * @param callback 回调函数
+     * @param args 回调函数的入参
+     * @param <T> 回调函数返回的泛型
+     * @return 回调函数返回的结果
+     */
+    default <T> CompletableFuture<T> executeByLockAsync(Serializable key, int expireTime,
+                                                        LockFunctionGenericWithArgs<T> callback, Object... args) {
+        return executeByLock(key, expireTime, callback, args).toFuture();
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package app.myoss.cloud.cache.lock;
+
+import java.io.Serializable;
+
+/**
+ * 分布式限流器，使用令牌桶算法限制整个集群的请求速率
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午5:12:40
+ */
+public interface DistributedRateLimiter {
+    /**
+     * 从令牌桶中获取令牌
+     *
+     * @param key 令牌桶的名字
+     * @param capacity 令牌桶的容量，即允许的最大突发请求数
+     * @param permitsPerSecond 每秒生成的令牌数
+     * @param permits 需要获取的令牌数
+     * @return true：获取到令牌，false：令牌不足，请求被限流
+     */
+    boolean tryAcquire(Serializable key, long capacity, double permitsPerSecond, int permits);
+
+    /**
+     * 从令牌桶中获取一个令牌
+     *
+     * @param key 令牌桶的名字
+     * @param capacity 令牌桶的容量，即允许的最大突发请求数
+     * @param permitsPerSecond 每秒生成的令牌数
+     * @return true：获取到令牌，false：令牌不足，请求被限流
+     */
+    default boolean tryAcquire(Serializable key, long capacity, double permitsPerSecond) {
+        return tryAcquire(key, capacity, permitsPerSecond, 1);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package app.myoss.cloud.cache.lock;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 分布式信号量，限制整个集群中同时执行某段代码的持有者数量
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午5:12:40
+ */
+public interface DistributedSemaphore {
+    /**
+     * 获取一个许可
+     *
+     * @param name 信号量的名字
+     * @param permits 信号量的许可总数
+     * @param leaseTime 许可的租期，持有者异常退出没有释放许可的时候，超过租期之后许可自动失效
+     * @param timeUnit 租期的时间单位
+     * @return 获取到许可返回许可的唯一标识，没有获取到许可返回 null
+     */
+    String tryAcquire(Serializable name, int permits, long leaseTime, TimeUnit timeUnit);
+
+    /**
+     * 释放许可
+     *
+     * @param name 信号量的名字
+     * @param permitId 许可的唯一标识
+     * @return true：释放成功，false：许可已经失效
+     */
+    boolean release(Serializable name, String permitId);
+
+    /**
+     * 如果获取许可成功，则执行 {@code onAcquired}，执行完成之后释放许可；如果获取许可失败，则执行 {@code onRejected}
+     *
+     * @param name 信号量的名字
+     * @param permits 信号量的许可总数
+     * @param leaseTime 许可的租期
+     * @param timeUnit 租期的时间单位
+     * @param onAcquired 获取许可成功的回调函数
+     * @param onRejected 获取许可失败的回调函数
+     * @param <T> 回调函数返回的泛型
+     * @return 回调函数返回的结果
+     */
+    default <T> T executeByPermit(Serializable name, int permits, long leaseTime, TimeUnit timeUnit,
+                                  Supplier<T> onAcquired, Supplier<T> onRejected) {
+        String permitId = tryAcquire(name, permits, leaseTime, timeUnit);
+        if (permitId == null) {
+            return onRejected.get();
+        }
+        try {
+            return onAcquired.get();
+        } finally {
+            release(name, permitId);
+        }
+    }
+}
@@ -19,6 +19,7 @@ package app.myoss.cloud.cache.lock;
 
 import java.io.Serializable;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
 import app.myoss.cloud.cache.lock.functions.LockFunction;
 import app.myoss.cloud.cache.lock.functions.LockFunctionGeneric;
@@ -40,14 +41,18 @@ public interface LockService {
      * ("Passes on my machine!") or load.
      * <p>
      * 也可以使用 {@link TimeUnit#sleep(long)} 去替代 Thread.sleep 代码
+     * <p>
+     * 使用 {@link LockSupport#parkNanos(long)} 挂起当前线程，等待期间不占用 CPU；如果线程被中断，会提前返回并保留中断标记
      *
      * @param milliseconds 等待的毫秒时间
      */
     static void sleep(long milliseconds) {
-        long begin = System.currentTimeMillis();
-        long cost = 0;
-        while (cost <= milliseconds) {
-            cost = System.currentTimeMillis() - begin;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(milliseconds);
+        long remaining = deadline - System.nanoTime();
+        while (remaining > 0 && !Thread.currentThread().isInterrupted()) {
+            // parkNanos 可能会被虚假唤醒，所以需要循环直到等待时间结束
+            LockSupport.parkNanos(remaining);
+            remaining = deadline - System.nanoTime();
         }
     }
 
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.lock;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import app.myoss.cloud.cache.lock.functions.LockFunction;
+import app.myoss.cloud.cache.lock.functions.LockFunctionGeneric;
+import app.myoss.cloud.cache.lock.functions.LockFunctionGenericWithArgs;
+import app.myoss.cloud.cache.lock.functions.LockFunctionWithArgs;
+
+/**
+ * 支持批量获取锁的缓存锁服务接口，和 {@link LockService} 分开定义，已有的 {@link LockService} 实现类不需要修改
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午9:19:58
+ * @see LockService
+ */
+public interface MultiLockService extends LockService {
+    /**
+     * 批量获取锁，所有的锁都获取成功才返回 true，只要有一个锁已经被其它线程持有，则一个锁都不会获取
+     * <p>
+     * 锁的名字会去重并按照固定的顺序排序，不同的线程批量获取有交集的锁的时候不会出现死锁
+     *
+     * @param keys 锁的名字集合
+     * @param expireTime 锁的过期时间
+     * @param timeUnit 缓存锁的时间单位
+     * @return true：获取到全部的锁，false：没有获取到锁
+     */
+    boolean getLocks(Collection<? extends Serializable> keys, int expireTime, TimeUnit timeUnit);
+
+    /**
+     * 批量获取锁，所有的锁都获取成功才返回 true，只要有一个锁已经被其它线程持有，则一个锁都不会获取
+     *
+     * @param keys 锁的名字集合
+     * @param expireTime 锁的过期时间
+     * @return true：获取到全部的锁，false：没有获取到锁
+     */
+    boolean getLocks(Collection<? extends Serializable> keys, int expireTime);
+
+    /**
+     * 批量释放锁
+     *
+     * @param keys 锁的名字集合
+     * @return true：全部的锁释放成功，false：有锁释放失败
+     */
+    boolean releaseLocks(Collection<? extends Serializable> keys);
+
+    /**
+     * 如果批量获取锁成功，则执行 {@link LockFunction#onLockSuccess() callback.onLockSuccess()}
+     * 如果批量获取锁失败，则执行 {@link LockFunction#onLockFailed() callback.onLockFailed()}
+     *
+     * @param keys 锁的名字集合
+     * @param expireTime 锁的过期时间
+     * @param callback 回调函数
+     * @return true：获取到全部的锁，false：没有获取到锁
+     * @see #getLocks(Collection, int)
+     */
+    boolean executeByLocks(Collection<? extends Serializable> keys, int expireTime, LockFunction callback);
+
+    /**
+     * 如果批量获取锁成功，则执行 {@link LockFunctionWithArgs#onLockSuccess(Object...)
+     * callback.onLockSuccess()} 如果批量获取锁失败，则执行
+     * {@link LockFunctionWithArgs#onLockFailed(Object...)
+     * callback.onLockFailed()}
+     *
+     * @param keys 锁的名字集合
+     * @param expireTime 锁的过期时间
+     * @param callback 回调函数
+     * @param args 回调函数的入参
+     * @return true：获取到全部的锁，false：没有获取到锁
+     * @see #getLocks(Collection, int)
+     */
+    boolean executeByLocks(Collection<? extends Serializable> keys, int expireTime, LockFunctionWithArgs callback,
+                           Object... args);
+
+    /**
+     * 如果批量获取锁成功，则执行 {@link LockFunctionGeneric#onLockSuccess()
+     * callback.onLockSuccess()} 如果批量获取锁失败，则执行
+     * {@link LockFunctionGeneric#onLockFailed() callback.onLockFailed()}
+     *
+     * @param keys 锁的名字集合
+     * @param expireTime 锁的过期时间
+     * @param callback 回调函数
+     * @param <T> 回调函数返回的泛型
+     * @return 回调函数返回的结果
+     * @see #getLocks(Collection, int)
+     */
+    <T> T executeByLocks(Collection<? extends Serializable> keys, int expireTime, LockFunctionGeneric<T> callback);
+
+    /**
+     * 如果批量获取锁成功，则执行 {@link LockFunctionGenericWithArgs#onLockSuccess(Object...)
+     * callback.onLockSuccess()} 如果批量获取锁失败，则执行
+     * {@link LockFunctionGenericWithArgs#onLockFailed(Object...)
+     * callback.onLockFailed()}
+     *
+     * @param keys 锁的名字集合
+     * @param expireTime 锁的过期时间
+     * @param callback 回调函数
+     * @param args 回调函数的入参
+     * @param <T> 回调函数返回的泛型
+     * @return 回调函数返回的结果
+     * @see #getLocks(Collection, int)
+     */
+    <T> T executeByLocks(Collection<? extends Serializable> keys, int expireTime,
+                         LockFunctionGenericWithArgs<T> callback, Object... args);
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package app.myoss.cloud.cache.lock;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分布式滑动窗口限流器，限制整个集群在任意一个时间窗口内的请求数量，和令牌桶
+ * {@link DistributedRateLimiter} 不同，不允许超过窗口内限制数量的突发请求
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午10:05:36
+ */
+public interface SlidingWindowRateLimiter {
+    /**
+     * 在滑动窗口中获取请求的配额
+     *
+     * @param key 滑动窗口的名字
+     * @param limit 时间窗口内允许的最大请求数
+     * @param window 时间窗口的长度
+     * @param timeUnit 时间窗口的时间单位
+     * @param permits 需要获取的配额，不能超过 limit
+     * @return true：获取到配额，false：时间窗口内的请求数已经达到上限，请求被限流
+     */
+    boolean tryAcquire(Serializable key, long limit, long window, TimeUnit timeUnit, int permits);
+
+    /**
+     * 在滑动窗口中获取一个请求的配额
+     *
+     * @param key 滑动窗口的名字
+     * @param limit 时间窗口内允许的最大请求数
+     * @param window 时间窗口的长度
+     * @param timeUnit 时间窗口的时间单位
+     * @return true：获取到配额，false：时间窗口内的请求数已经达到上限，请求被限流
+     */
+    default boolean tryAcquire(Serializable key, long limit, long window, TimeUnit timeUnit) {
+        return tryAcquire(key, limit, window, timeUnit, 1);
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.lock.backoff;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.util.backoff.BackOff;
+import org.springframework.util.backoff.BackOffExecution;
+
+import lombok.Getter;
+
+/**
+ * 限定最长等待时间的重试策略，超过最长等待时间之后不再重试
+ * <p>
+ * 每次的休眠时间由 {@link #delegate} 决定，但是不会超过剩余的等待时间
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 上午10:12:30
+ */
+@Getter
+public class DeadlineBackOff implements BackOff {
+    /**
+     * 代理的重试策略
+     */
+    private final BackOff delegate;
+    /**
+     * 最长的等待时间，单位：毫秒
+     */
+    private final long    maxWaitTime;
+
+    /**
+     * 创建限定最长等待时间的重试策略
+     *
+     * @param delegate 代理的重试策略
+     * @param maxWaitTime 最长的等待时间，单位：毫秒
+     */
+    public DeadlineBackOff(BackOff delegate, long maxWaitTime) {
+        this.delegate = delegate;
+        this.maxWaitTime = maxWaitTime;
+    }
+
+    @Override
+    public BackOffExecution start() {
+        BackOffExecution execution = delegate.start();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitTime);
+        return () -> {
+            long next = execution.nextBackOff();
+            if (next == BackOffExecution.STOP) {
+                return BackOffExecution.STOP;
+            }
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remaining <= 0) {
+                return BackOffExecution.STOP;
+            }
+            return Math.min(next, remaining);
+        };
+    }
+}
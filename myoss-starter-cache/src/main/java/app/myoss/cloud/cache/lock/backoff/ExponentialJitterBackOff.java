@@ -0,0 +1,97 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.lock.backoff;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.util.backoff.BackOff;
+import org.springframework.util.backoff.BackOffExecution;
+
+import lombok.Getter;
+
+/**
+ * 指数退避 + 随机抖动的重试策略
+ * <p>
+ * 第 n 次重试的休眠上限为：min(maxInterval, initialInterval * multiplier^n)，实际休眠时间在 [上限/2,
+ * 上限] 之间随机取值，避免大量线程在同一时刻集中重试同一个锁
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 上午10:12:30
+ * @see org.springframework.util.backoff.ExponentialBackOff
+ */
+@Getter
+public class ExponentialJitterBackOff implements BackOff {
+    /**
+     * 初始的休眠时间，单位：毫秒
+     */
+    private final long   initialInterval;
+    /**
+     * 每次重试休眠时间的增长倍数
+     */
+    private final double multiplier;
+    /**
+     * 最大的休眠时间，单位：毫秒
+     */
+    private final long   maxInterval;
+    /**
+     * 最多重试几次
+     */
+    private final long   maxAttempts;
+
+    /**
+     * 创建指数退避 + 随机抖动的重试策略
+     *
+     * @param initialInterval 初始的休眠时间，单位：毫秒
+     * @param multiplier 每次重试休眠时间的增长倍数
+     * @param maxInterval 最大的休眠时间，单位：毫秒
+     * @param maxAttempts 最多重试几次
+     */
+    public ExponentialJitterBackOff(long initialInterval, double multiplier, long maxInterval, long maxAttempts) {
+        if (initialInterval < 1 || multiplier < 1 || maxInterval < initialInterval || maxAttempts < 0) {
+            throw new IllegalArgumentException("invalid backOff config, initialInterval: " + initialInterval
+                    + ", multiplier: " + multiplier + ", maxInterval: " + maxInterval + ", maxAttempts: "
+                    + maxAttempts);
+        }
+        this.initialInterval = initialInterval;
+        this.multiplier = multiplier;
+        this.maxInterval = maxInterval;
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Override
+    public BackOffExecution start() {
+        return new ExponentialJitterBackOffExecution();
+    }
+
+    private class ExponentialJitterBackOffExecution implements BackOffExecution {
+        private long   attempts;
+        private double currentInterval = initialInterval;
+
+        @Override
+        public long nextBackOff() {
+            if (attempts >= maxAttempts) {
+                return STOP;
+            }
+            attempts++;
+            long ceiling = (long) Math.min(currentInterval, maxInterval);
+            currentInterval = Math.min(currentInterval * multiplier, maxInterval);
+            long half = ceiling / 2;
+            return half + ThreadLocalRandom.current().nextLong(ceiling - half + 1);
+        }
+    }
+}
@@ -17,6 +17,9 @@
 
 package app.myoss.cloud.cache.lock.functions;
 
+import org.springframework.util.backoff.BackOff;
+import org.springframework.util.backoff.FixedBackOff;
+
 /**
  * 使用锁执行方法的时候，使用的回调函数基类
  *
@@ -41,4 +44,18 @@ public interface BaseLockFunction {
     default long tryLockSleepTime() {
         return 10L;
     }
+
+    /**
+     * 重复尝试获取锁的退避策略，默认使用 {@link FixedBackOff}：每次休眠 {@link #tryLockSleepTime()}
+     * 毫秒，最多重试 {@link #tryLockTimes()} - 1 次
+     * <p>
+     * 可以替换为
+     * {@link app.myoss.cloud.cache.lock.backoff.ExponentialJitterBackOff}（指数退避 +
+     * 随机抖动）、{@link app.myoss.cloud.cache.lock.backoff.DeadlineBackOff}（限定最长等待时间）
+     *
+     * @return 重复尝试获取锁的退避策略
+     */
+    default BackOff tryLockBackOff() {
+        return new FixedBackOff(tryLockSleepTime(), Math.max(tryLockTimes() - 1, 0));
+    }
 }
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package app.myoss.cloud.cache.lock.metrics;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import lombok.Getter;
+
+/**
+ * 把锁的名字归一化为锁的名字模式，作为监控指标的标签，避免每个锁的名字生成一个时间序列
+ * <p>
+ * 锁的名字中的 UUID、长的十六进制字符串、数字会被替换为 {@code *}，例如：{@code order:lock:10086} 归一化为
+ * {@code order:lock:*}；不同的模式数量超过 {@link #maxPatterns} 之后，新的模式统一归为 {@link #OTHER_PATTERN}
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午4:30:18
+ */
+public class LockKeyPatternNormalizer {
+    /**
+     * 模式数量超过上限之后使用的模式
+     */
+    public static final String         OTHER_PATTERN    = "other";
+    private static final Pattern       VARIABLE_PATTERN = Pattern.compile(
+            "[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}|[0-9a-fA-F]{16,}|\\d+");
+    private final Map<String, Boolean> patterns         = new ConcurrentHashMap<>();
+    /**
+     * 模式数量的上限
+     */
+    @Getter
+    private final int                  maxPatterns;
+
+    /**
+     * 创建锁的名字模式归一化器
+     *
+     * @param maxPatterns 模式数量的上限
+     */
+    public LockKeyPatternNormalizer(int maxPatterns) {
+        this.maxPatterns = maxPatterns;
+    }
+
+    /**
+     * 把锁的名字归一化为锁的名字模式
+     *
+     * @param key 锁的名字
+     * @return 锁的名字模式
+     */
+    public String normalize(Serializable key) {
+        String pattern = VARIABLE_PATTERN.matcher(String.valueOf(key)).replaceAll("*");
+        if (patterns.containsKey(pattern)) {
+            return pattern;
+        }
+        if (patterns.size() >= maxPatterns) {
+            return OTHER_PATTERN;
+        }
+        patterns.putIfAbsent(pattern, Boolean.TRUE);
+        return pattern;
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package app.myoss.cloud.cache.lock.metrics;
+
+import java.io.Serializable;
+
+/**
+ * 缓存锁的监控指标记录器
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午4:30:18
+ */
+public interface LockMetrics {
+    /**
+     * 不记录任何监控指标
+     */
+    LockMetrics NONE = new LockMetrics() {
+    };
+
+    /**
+     * 记录一次获取锁的结果
+     *
+     * @param key 锁的名字
+     * @param success true：获取到锁，false：没有获取到锁
+     * @param attempts 请求获取锁的次数，大于 1 表示进行了重试
+     * @param waitNanos 获取锁等待的时间，单位：纳秒
+     */
+    default void recordAcquire(Serializable key, boolean success, int attempts, long waitNanos) {
+    }
+
+    /**
+     * 记录一次持有锁的时间
+     *
+     * @param key 锁的名字
+     * @param holdNanos 持有锁的时间，单位：纳秒
+     */
+    default void recordHold(Serializable key, long holdNanos) {
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package app.myoss.cloud.cache.lock.metrics;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.Counter;
+import io.prometheus.client.Histogram;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 使用 Prometheus 记录缓存锁的监控指标，标签 {@code pattern} 为 {@link LockKeyPatternNormalizer} 归一化之后的锁的名字模式
+ * <ul>
+ * <li>myoss_cache_lock_acquire_seconds：获取锁等待的时间，标签 {@code result} 为 success / failed，可以计算获取锁的失败率
+ * <li>myoss_cache_lock_retries_total：获取锁重试的次数
+ * <li>myoss_cache_lock_hold_seconds：持有锁的时间
+ * </ul>
+ * 同一个 JVM 中的多个 Spring 容器（父子容器、devtools 重启、测试用例缓存的容器）使用同一个收集器的时候，指标名字已经被其它容器注册的时候
+ * 不会重复注册（只输出 WARN 日志），调用 {@link #close()} 的时候注销当前对象注册的指标
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午4:30:18
+ */
+@Slf4j
+public class PrometheusLockMetrics implements LockMetrics, AutoCloseable {
+    @Getter
+    private final LockKeyPatternNormalizer normalizer;
+    private final CollectorRegistry        registry;
+    private final List<Collector>          registered = new CopyOnWriteArrayList<>();
+    private final Histogram                acquireSeconds;
+    private final Counter                  retries;
+    private final Histogram                holdSeconds;
+
+    /**
+     * 创建 Prometheus 缓存锁监控指标记录器，并注册到收集器中
+     *
+     * @param registry Prometheus 收集器
+     * @param normalizer 锁的名字模式归一化器
+     */
+    public PrometheusLockMetrics(CollectorRegistry registry, LockKeyPatternNormalizer normalizer) {
+        this.normalizer = normalizer;
+        this.registry = registry;
+        this.acquireSeconds = register(Histogram.build()
+                .name("myoss_cache_lock_acquire_seconds")
+                .help("Time spent waiting to acquire cache locks.")
+                .labelNames("pattern", "result")
+                .buckets(0.001, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10)
+                .create());
+        this.retries = register(Counter.build()
+                .name("myoss_cache_lock_retries_total")
+                .help("Number of cache lock acquisition retries.")
+                .labelNames("pattern")
+                .create());
+        this.holdSeconds = register(Histogram.build()
+                .name("myoss_cache_lock_hold_seconds")
+                .help("Time cache locks were held by callbacks.")
+                .labelNames("pattern")
+                .buckets(0.001, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60)
+                .create());
+    }
+
+    /**
+     * 注册指标到收集器中，指标的名字已经被其它收集器注册的时候不注册，返回的指标依然可以记录数据，但是不会被导出
+     *
+     * @param collector 指标收集器
+     * @param <T> 指标收集器的类型
+     * @return 指标收集器
+     */
+    public <T extends Collector> T register(T collector) {
+        try {
+            registry.register(collector);
+            registered.add(collector);
+        } catch (IllegalArgumentException ex) {
+            log.warn("skip registering prometheus collector: {}", ex.getMessage());
+        }
+        return collector;
+    }
+
+    /**
+     * 从收集器中注销当前对象注册的指标，Spring 容器关闭的时候自动调用
+     */
+    @Override
+    public void close() {
+        for (Collector collector : registered) {
+            registry.unregister(collector);
+        }
+        registered.clear();
+    }
+
+    @Override
+    public void recordAcquire(Serializable key, boolean success, int attempts, long waitNanos) {
+        String pattern = normalizer.normalize(key);
+        acquireSeconds.labels(pattern, (success ? "success" : "failed"))
+                .observe(waitNanos / Collector.NANOSECONDS_PER_SECOND);
+        if (attempts > 1) {
+            retries.labels(pattern).inc(attempts - 1);
+        }
+    }
+
+    @Override
+    public void recordHold(Serializable key, long holdNanos) {
+        holdSeconds.labels(normalizer.normalize(key)).observe(holdNanos / Collector.NANOSECONDS_PER_SECOND);
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.redis;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.util.backoff.BackOff;
+import org.springframework.util.backoff.BackOffExecution;
+
+import app.myoss.cloud.cache.lock.AsyncLockService;
+import app.myoss.cloud.cache.lock.functions.LockFunctionGeneric;
+import app.myoss.cloud.cache.lock.functions.LockFunctionGenericWithArgs;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * 非阻塞的 Redis 缓存锁实现，基于 {@link ReactiveRedisTemplate}
+ * <p>
+ * 和 {@link RedisTokenLockServiceImpl} 一样使用持有者令牌作为锁的值，释放锁的时候使用 Lua 脚本
+ * {@link RedisLockScripts#RELEASE_LOCK} 比较令牌之后再删除锁，两者可以互斥的使用同一个锁
+ * <p>
+ * executeByLock 在回调函数执行成功、返回空、执行异常以及订阅被取消（超时、客户端断开、take 等）的时候都会释放锁
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午5:10:33
+ */
+@Slf4j
+public class ReactiveRedisLockServiceImpl implements AsyncLockService {
+    /**
+     * Reactive Redis data access Template
+     */
+    @Getter
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    /**
+     * 缓存锁的时间单位
+     */
+    @Getter
+    private final TimeUnit                              timeUnit;
+    /**
+     * 执行同步回调函数的线程池，默认为：{@link Schedulers#elastic()}
+     */
+    @Getter
+    @Setter
+    private Scheduler                                   callbackScheduler = Schedulers.elastic();
+    private final String                                instanceId        = UUID.randomUUID().toString();
+    private final AtomicLong                            sequence          = new AtomicLong();
+
+    /**
+     * 初始化非阻塞的 Redis 缓存锁实现
+     *
+     * @param redisTemplate Reactive Redis data access Template
+     * @param timeUnit 缓存锁的时间单位
+     */
+    public ReactiveRedisLockServiceImpl(ReactiveRedisTemplate<String, String> redisTemplate, TimeUnit timeUnit) {
+        this.redisTemplate = redisTemplate;
+        this.timeUnit = timeUnit;
+    }
+
+    @Override
+    public Mono<String> getLock(Serializable key, int expireTime, TimeUnit timeUnit) {
+        return Mono.defer(() -> {
+            String token = instanceId + ":" + sequence.incrementAndGet();
+            AtomicBoolean replied = new AtomicBoolean();
+            return redisTemplate.opsForValue()
+                    .setIfAbsent(String.valueOf(key), token, Duration.ofMillis(timeUnit.toMillis(expireTime)))
+                    .doOnSuccess(result -> replied.set(true))
+                    // 请求已经发出但是订阅被取消的时候，Redis 中可能已经设置了锁，使用令牌释放锁
+                    .doOnCancel(() -> releaseOnCancel(key, token, replied))
+                    .filter(Boolean::booleanValue)
+                    .map(result -> token);
+        });
+    }
+
+    @Override
+    public Mono<String> getLock(Serializable key, int expireTime) {
+        return getLock(key, expireTime, timeUnit);
+    }
+
+    @Override
+    public Mono<Boolean> releaseLock(Serializable key, String token) {
+        return redisTemplate
+                .execute(RedisLockScripts.RELEASE_LOCK, Collections.singletonList(String.valueOf(key)),
+                        Collections.singletonList(token))
+                .next()
+                .map(result -> Objects.equals(result, 1L))
+                .defaultIfEmpty(false);
+    }
+
+    /**
+     * 订阅被取消的时候释放锁，取消订阅的线程不会等待释放的结果；锁已经释放过的时候不再释放
+     *
+     * @param key 锁的名字
+     * @param token 持有者令牌
+     * @param released 锁是否已经释放过
+     */
+    protected void releaseOnCancel(Serializable key, String token, AtomicBoolean released) {
+        if (released.get()) {
+            return;
+        }
+        releaseLock(key, token).subscribe(null,
+                ex -> log.warn("release lock failed after the subscription was cancelled, key: {}", key, ex));
+    }
+
+    /**
+     * 尝试获取锁，获取失败的时候按照退避策略使用定时器延迟重试，不会阻塞线程
+     *
+     * @param key 锁的名字
+     * @param expireTime 锁的过期时间
+     * @param backOffExecution 退避策略
+     * @return 获取到锁返回持有者令牌，没有获取到锁返回 {@link Mono#empty()}
+     */
+    protected Mono<String> tryGetLock(Serializable key, int expireTime, BackOffExecution backOffExecution) {
+        return getLock(key, expireTime).switchIfEmpty(Mono.defer(() -> {
+            long sleepTime = backOffExecution.nextBackOff();
+            if (sleepTime == BackOffExecution.STOP) {
+                return Mono.empty();
+            }
+            return Mono.delay(Duration.ofMillis(sleepTime)).then(tryGetLock(key, expireTime, backOffExecution));
+        }));
+    }
+
+    @Override
+    public <T> Mono<T> executeByLock(Serializable key, int expireTime, BackOff backOff,
+                                     Supplier<Mono<T>> onLockSuccess, Supplier<Mono<T>> onLockFailed) {
+        return Mono.defer(() -> tryGetLock(key, expireTime, backOff.start()))
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(token -> {
+                    if (!token.isPresent()) {
+                        return onLockFailed.get();
+                    }
+                    String lockToken = token.get();
+                    AtomicBoolean released = new AtomicBoolean();
+                    Mono<Boolean> release = releaseLock(key, lockToken).doOnSuccess(result -> released.set(true));
+                    // 回调函数可能返回 Mono.empty()，使用 Optional 包装，保证一定会释放锁
+                    return Mono.defer(onLockSuccess)
+                            .map(Optional::of)
+                            .defaultIfEmpty(Optional.empty())
+                            .onErrorResume(ex -> release.onErrorResume(e -> Mono.empty())
+                                    .then(Mono.<Optional<T>> error(ex)))
+                            .flatMap(result -> release.thenReturn(result))
+                            // 订阅被取消（超时、客户端断开、take 等）的时候，回调函数和释放锁都不会继续执行
+                            .doOnCancel(() -> releaseOnCancel(key, lockToken, released))
+                            .flatMap(result -> Mono.justOrEmpty(result));
+                });
+    }
+
+    @Override
+    public <T> Mono<T> executeByLock(Serializable key, int expireTime, LockFunctionGeneric<T> callback) {
+        return executeByLock(key, expireTime, callback.tryLockBackOff(),
+                () -> Mono.fromCallable(callback::onLockSuccess).subscribeOn(callbackScheduler),
+                () -> Mono.fromCallable(callback::onLockFailed).subscribeOn(callbackScheduler));
+    }
+
+    @Override
+    public <T> Mono<T> executeByLock(Serializable key, int expireTime, LockFunctionGenericWithArgs<T> callback,
+                                     Object... args) {
+        return executeByLock(key, expireTime, callback.tryLockBackOff(),
+                () -> Mono.fromCallable(() -> callback.onLockSuccess(args)).subscribeOn(callbackScheduler),
+                () -> Mono.fromCallable(() -> callback.onLockFailed(args)).subscribeOn(callbackScheduler));
+    }
+}
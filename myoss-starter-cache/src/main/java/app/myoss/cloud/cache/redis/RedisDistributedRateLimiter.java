@@ -0,0 +1,166 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package app.myoss.cloud.cache.redis;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.springframework.data.redis.core.RedisTemplate;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import app.myoss.cloud.cache.lock.DistributedRateLimiter;
+import app.myoss.cloud.cache.lock.SlidingWindowRateLimiter;
+
+/**
+ * Redis 分布式限流器实现，令牌桶使用 Lua 脚本 {@link RedisLockScripts#TOKEN_BUCKET} 在一次网络请求中完成令牌桶的补充和扣减，
+ * 滑动窗口使用 Lua 脚本 {@link RedisLockScripts#SLIDING_WINDOW} 在一次网络请求中完成过期请求的清除和计数
+ * <p>
+ * 请求被限流的时候，Lua 脚本会返回还需要等待的时间，在这段时间内（最长 {@code maxLocalDenyMillis}）当前
+ * JVM 直接拒绝这个令牌桶/滑动窗口的请求，不再请求 Redis
+ * <p>
+ * 令牌的补充和滑动窗口的移动使用 Redis 服务端的时间计算，各个节点之间的时钟误差不会影响限流的精度
+ * <p>
+ * 没有获取到 Lua 脚本的执行结果的时候（例如在事务或者管道中执行），按照 {@code failOpen} 决定放行还是拒绝请求；请求 Redis
+ * 发生异常的时候直接抛出异常
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午5:12:40
+ */
+public class RedisDistributedRateLimiter implements DistributedRateLimiter, SlidingWindowRateLimiter {
+    /**
+     * 没有获取到 Lua 脚本的执行结果
+     */
+    protected static final long             NO_RESULT  = -1L;
+
+    private final RedisTemplate             redisTemplate;
+    private final String                    instanceId = UUID.randomUUID().toString();
+    private final AtomicLong                sequence   = new AtomicLong();
+    /**
+     * 本地拒绝的截止时间（{@link System#nanoTime()}），为空的时候不开启本地预检查
+     */
+    private final Cache<Serializable, Long> deniedUntil;
+    /**
+     * 没有获取到 Lua 脚本的执行结果的时候，true：放行请求，false：拒绝请求
+     */
+    private final boolean                   failOpen;
+
+    /**
+     * 创建 Redis 分布式限流器，没有获取到 Lua 脚本的执行结果的时候拒绝请求
+     *
+     * @param redisTemplate Redis data access Template
+     * @param maxLocalDenyMillis 请求被限流之后，本地直接拒绝的最长时间，单位：毫秒，小于等于 0 的时候不开启本地预检查
+     */
+    public RedisDistributedRateLimiter(RedisTemplate redisTemplate, long maxLocalDenyMillis) {
+        this(redisTemplate, maxLocalDenyMillis, false);
+    }
+
+    /**
+     * 创建 Redis 分布式限流器
+     *
+     * @param redisTemplate Redis data access Template
+     * @param maxLocalDenyMillis 请求被限流之后，本地直接拒绝的最长时间，单位：毫秒，小于等于 0 的时候不开启本地预检查
+     * @param failOpen 没有获取到 Lua 脚本的执行结果的时候，true：放行请求，false：拒绝请求
+     */
+    public RedisDistributedRateLimiter(RedisTemplate redisTemplate, long maxLocalDenyMillis, boolean failOpen) {
+        this.redisTemplate = redisTemplate;
+        this.failOpen = failOpen;
+        this.deniedUntil = (maxLocalDenyMillis > 0 ? Caffeine.newBuilder()
+                .expireAfterWrite(maxLocalDenyMillis, TimeUnit.MILLISECONDS)
+                .maximumSize(10_000)
+                .build() : null);
+    }
+
+    @Override
+    public boolean tryAcquire(Serializable key, long capacity, double permitsPerSecond, int permits) {
+        return tryAcquire(key, () -> acquireTokens(key, capacity, permitsPerSecond, permits));
+    }
+
+    @Override
+    public boolean tryAcquire(Serializable key, long limit, long window, TimeUnit timeUnit, int permits) {
+        if (permits <= 0 || permits > limit) {
+            throw new IllegalArgumentException("permits must be between 1 and limit: " + limit);
+        }
+        return tryAcquire(key, () -> acquireWindow(key, limit, timeUnit.toMillis(window), permits));
+    }
+
+    /**
+     * 先在本地预检查，没有被本地拒绝的时候才请求 Redis
+     *
+     * @param key 令牌桶/滑动窗口的名字
+     * @param acquire 请求 Redis，返回值参考 {@link #acquireTokens(Serializable, long, double, int)}
+     * @return true：获取成功，false：请求被限流
+     */
+    private boolean tryAcquire(Serializable key, LongSupplier acquire) {
+        if (deniedUntil != null) {
+            Long until = deniedUntil.getIfPresent(key);
+            if (until != null && until - System.nanoTime() > 0) {
+                return false;
+            }
+        }
+        long waitMillis = acquire.getAsLong();
+        if (waitMillis == NO_RESULT) {
+            return failOpen;
+        }
+        if (waitMillis <= 0) {
+            return true;
+        }
+        if (deniedUntil != null) {
+            deniedUntil.put(key, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitMillis));
+        }
+        return false;
+    }
+
+    /**
+     * 请求 Redis 从令牌桶中获取令牌
+     *
+     * @param key 令牌桶的名字
+     * @param capacity 令牌桶的容量
+     * @param permitsPerSecond 每秒生成的令牌数
+     * @param permits 需要获取的令牌数
+     * @return 0 获取成功，大于 0 表示令牌不足，还需要等待的时间，单位：毫秒，{@link #NO_RESULT} 表示没有获取到 Lua 脚本的执行结果
+     */
+    @SuppressWarnings("unchecked")
+    protected long acquireTokens(Serializable key, long capacity, double permitsPerSecond, int permits) {
+        Long result = (Long) redisTemplate.execute(RedisLockScripts.TOKEN_BUCKET, Collections.singletonList(key),
+                String.valueOf(capacity), String.valueOf(permitsPerSecond / 1000.0), String.valueOf(permits));
+        return (result != null ? result : NO_RESULT);
+    }
+
+    /**
+     * 请求 Redis 在滑动窗口中获取配额
+     *
+     * @param key 滑动窗口的名字
+     * @param limit 时间窗口内允许的最大请求数
+     * @param windowMillis 时间窗口的长度，单位：毫秒
+     * @param permits 需要获取的配额
+     * @return 0 获取成功，大于 0 表示窗口内的请求数已经达到上限，还需要等待的时间，单位：毫秒，{@link #NO_RESULT}
+     *         表示没有获取到 Lua 脚本的执行结果
+     */
+    @SuppressWarnings("unchecked")
+    protected long acquireWindow(Serializable key, long limit, long windowMillis, int permits) {
+        String requestId = instanceId + ":" + sequence.incrementAndGet();
+        Long result = (Long) redisTemplate.execute(RedisLockScripts.SLIDING_WINDOW, Collections.singletonList(key),
+                String.valueOf(limit), String.valueOf(windowMillis), String.valueOf(permits), requestId);
+        return (result != null ? result : NO_RESULT);
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package app.myoss.cloud.cache.redis;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.data.redis.core.RedisTemplate;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import app.myoss.cloud.cache.lock.DistributedSemaphore;
+
+/**
+ * Redis 分布式信号量实现，使用 Lua 脚本 {@link RedisLockScripts#ACQUIRE_PERMIT} 在一次网络请求中完成获取许可的判断
+ * <p>
+ * 获取许可失败之后，在 {@code localDenyMillis} 时间内当前 JVM 直接拒绝获取这个信号量的许可，不再请求 Redis；当前 JVM
+ * 释放许可的时候会清除本地的拒绝标记
+ * <p>
+ * 许可的过期时间使用 Redis 服务端的时间计算，各个节点之间的时钟误差不会导致许可提前失效或者延迟失效
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午5:12:40
+ */
+public class RedisDistributedSemaphore implements DistributedSemaphore {
+    private final RedisTemplate                redisTemplate;
+    private final String                       instanceId = UUID.randomUUID().toString();
+    private final AtomicLong                   sequence   = new AtomicLong();
+    /**
+     * 本地的拒绝标记，为空的时候不开启本地预检查
+     */
+    private final Cache<Serializable, Boolean> deniedNames;
+
+    /**
+     * 创建 Redis 分布式信号量
+     *
+     * @param redisTemplate Redis data access Template
+     * @param localDenyMillis 获取许可失败之后，本地直接拒绝的时间，单位：毫秒，小于等于 0 的时候不开启本地预检查
+     */
+    public RedisDistributedSemaphore(RedisTemplate redisTemplate, long localDenyMillis) {
+        this.redisTemplate = redisTemplate;
+        this.deniedNames = (localDenyMillis > 0 ? Caffeine.newBuilder()
+                .expireAfterWrite(localDenyMillis, TimeUnit.MILLISECONDS)
+                .maximumSize(10_000)
+                .build() : null);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public String tryAcquire(Serializable name, int permits, long leaseTime, TimeUnit timeUnit) {
+        if (deniedNames != null && deniedNames.getIfPresent(name) != null) {
+            return null;
+        }
+        String permitId = instanceId + ":" + sequence.incrementAndGet();
+        Long result = (Long) redisTemplate.execute(RedisLockScripts.ACQUIRE_PERMIT, Collections.singletonList(name),
+                String.valueOf(permits), String.valueOf(timeUnit.toMillis(leaseTime)), permitId);
+        if (Objects.equals(result, 1L)) {
+            return permitId;
+        }
+        if (deniedNames != null) {
+            deniedNames.put(name, Boolean.TRUE);
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public boolean release(Serializable name, String permitId) {
+        Long result = (Long) redisTemplate.execute(RedisLockScripts.RELEASE_PERMIT, Collections.singletonList(name),
+                permitId);
+        if (deniedNames != null) {
+            deniedNames.invalidate(name);
+        }
+        return Objects.equals(result, 1L);
+    }
+}
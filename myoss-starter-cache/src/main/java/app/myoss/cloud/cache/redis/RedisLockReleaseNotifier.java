@@ -0,0 +1,242 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.redis;
+
+import java.io.Serializable;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import app.myoss.cloud.core.constants.MyossConstants;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Redis 缓存锁释放的通知器，等待锁的线程在锁释放之后立即被唤醒，不用等到下一次轮询
+ * <p>
+ * 释放锁的 Lua 脚本 {@link RedisLockScripts#RELEASE_LOCK_AND_NOTIFY} 会把锁的名字发布到 "通道前缀 +
+ * 锁的名字" 的通道中。当前 JVM 只订阅有线程在等待的锁的通道：第一个线程开始等待某个锁的时候订阅这个锁的通道，最后一个等待的线程离开的时候取消订阅，
+ * 所有的通道共用 {@link RedisMessageListenerContainer} 的一个订阅连接，收到消息之后唤醒等待这个锁的所有线程。等待获取锁的线程在整个重试过程中使用同一个
+ * {@link Subscription}，不会每次重试都订阅、取消订阅
+ * <p>
+ * 消息可能会丢失（比如订阅的连接断开重连），所以等待的时间仍然受限于重试的休眠时间，退化为轮询获取锁
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午4:02:18
+ */
+@Slf4j
+public class RedisLockReleaseNotifier implements MessageListener, AutoCloseable {
+    /**
+     * 锁释放的消息通道前缀
+     */
+    @Getter
+    private final String                         channelPrefix;
+    private final RedisMessageListenerContainer  listenerContainer;
+    private final Map<String, Set<Subscription>> waiters         = new ConcurrentHashMap<>();
+    /**
+     * 已经订阅的通道对应的锁的名字
+     */
+    private final Set<String>                    subscribedNames = new HashSet<>();
+
+    /**
+     * 创建 Redis 缓存锁释放的通知器
+     *
+     * @param connectionFactory Redis 连接工厂
+     * @param channelPrefix 锁释放的消息通道前缀
+     */
+    public RedisLockReleaseNotifier(RedisConnectionFactory connectionFactory, String channelPrefix) {
+        this(channelPrefix, new RedisMessageListenerContainer());
+        this.listenerContainer.setConnectionFactory(connectionFactory);
+        this.listenerContainer.afterPropertiesSet();
+        this.listenerContainer.start();
+    }
+
+    /**
+     * 创建 Redis 缓存锁释放的通知器，listenerContainer 为 null 的时候不订阅锁释放的消息，由调用方调用
+     * {@link #onMessage(Message, byte[])}
+     *
+     * @param channelPrefix 锁释放的消息通道前缀
+     * @param listenerContainer 订阅锁释放的消息的容器
+     */
+    RedisLockReleaseNotifier(String channelPrefix, RedisMessageListenerContainer listenerContainer) {
+        this.channelPrefix = channelPrefix;
+        this.listenerContainer = listenerContainer;
+    }
+
+    /**
+     * 获取锁释放的消息通道
+     *
+     * @param key 锁的名字
+     * @return 锁释放的消息通道
+     */
+    public String getChannel(Serializable key) {
+        return channelPrefix + key;
+    }
+
+    /**
+     * 订阅锁释放的通知，在整个等待获取锁的过程中使用同一个订阅，等待结束之后调用 {@link Subscription#close()} 取消订阅
+     * <p>
+     * 同一个锁的多个等待者共用一个通道的订阅：第一个等待者订阅通道，最后一个等待者离开的时候取消订阅。订阅是异步生效的，订阅生效之前发布的消息会丢失，
+     * 这次等待只能等到超时之后重试；订阅生效之后，两次等待之间发布的消息会保留到下一次等待
+     *
+     * @param key 锁的名字
+     * @return 锁释放的通知的订阅
+     */
+    public Subscription subscribe(Serializable key) {
+        Subscription subscription = new Subscription(String.valueOf(key));
+        waiters.compute(subscription.name, (k, subscriptions) -> {
+            if (subscriptions == null) {
+                subscriptions = ConcurrentHashMap.newKeySet();
+            }
+            subscriptions.add(subscription);
+            return subscriptions;
+        });
+        // 在 ConcurrentHashMap 的锁之外订阅通道，订阅是网络请求
+        updateSubscription(subscription.name);
+        return subscription;
+    }
+
+    /**
+     * 等待锁被释放，锁被释放或者超过等待时间之后返回，只等待一次，多次等待请使用 {@link #subscribe(Serializable)}
+     *
+     * @param key 锁的名字
+     * @param timeoutMillis 最长的等待时间，单位：毫秒
+     * @return true：收到了锁释放的通知，false：等待超时或者线程被中断
+     */
+    public boolean await(Serializable key, long timeoutMillis) {
+        try (Subscription subscription = subscribe(key)) {
+            return subscription.await(timeoutMillis);
+        }
+    }
+
+    /**
+     * 当前正在等待锁释放的通知的锁的数量，也就是订阅的通道的数量
+     *
+     * @return 订阅的通道的数量
+     */
+    public int getSubscribedCount() {
+        return waiters.size();
+    }
+
+    /**
+     * 注销一个等待锁释放的订阅，最后一个等待者离开之后取消订阅这个锁的通道
+     *
+     * @param subscription 锁释放的通知的订阅
+     */
+    private void unsubscribe(Subscription subscription) {
+        waiters.computeIfPresent(subscription.name, (k, subscriptions) -> {
+            subscriptions.remove(subscription);
+            return (subscriptions.isEmpty() ? null : subscriptions);
+        });
+        updateSubscription(subscription.name);
+    }
+
+    /**
+     * 根据锁当前有没有等待者订阅或者取消订阅这个锁的通道。订阅、取消订阅是网络请求，不能在 ConcurrentHashMap 的锁里面执行；使用
+     * {@link #subscribedNames} 的锁保证同一个通道的订阅、取消订阅按照等待者的变化顺序执行，最终的订阅状态和有没有等待者一致
+     *
+     * @param name 锁的名字
+     */
+    private void updateSubscription(String name) {
+        if (listenerContainer == null) {
+            return;
+        }
+        synchronized (subscribedNames) {
+            if (waiters.containsKey(name)) {
+                if (subscribedNames.add(name)) {
+                    listenerContainer.addMessageListener(this, new ChannelTopic(getChannel(name)));
+                }
+            } else if (subscribedNames.remove(name)) {
+                listenerContainer.removeMessageListener(this, new ChannelTopic(getChannel(name)));
+            }
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String key = new String(message.getBody(), MyossConstants.UTF_8);
+        Set<Subscription> subscriptions = waiters.get(key);
+        if (subscriptions != null) {
+            subscriptions.forEach(Subscription::signal);
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (listenerContainer != null) {
+            listenerContainer.destroy();
+        }
+        // 唤醒所有等待的线程
+        waiters.values().forEach(subscriptions -> subscriptions.forEach(Subscription::signal));
+        waiters.clear();
+        synchronized (subscribedNames) {
+            subscribedNames.clear();
+        }
+    }
+
+    /**
+     * 一个等待者对锁释放的通知的订阅，只能在一个线程中使用
+     */
+    public class Subscription implements AutoCloseable {
+        private final String    name;
+        /**
+         * 收到锁释放的通知之后释放一个许可，没有被等待者消费的通知保留到下一次等待
+         */
+        private final Semaphore released = new Semaphore(0);
+
+        Subscription(String name) {
+            this.name = name;
+        }
+
+        /**
+         * 等待锁被释放，上一次等待之后已经收到通知的时候立即返回
+         *
+         * @param timeoutMillis 最长的等待时间，单位：毫秒
+         * @return true：收到了锁释放的通知，false：等待超时或者线程被中断
+         */
+        public boolean await(long timeoutMillis) {
+            try {
+                return released.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return false;
+            } finally {
+                // 多次通知只需要唤醒一次
+                released.drainPermits();
+            }
+        }
+
+        void signal() {
+            released.release();
+        }
+
+        @Override
+        public void close() {
+            unsubscribe(this);
+        }
+    }
+}
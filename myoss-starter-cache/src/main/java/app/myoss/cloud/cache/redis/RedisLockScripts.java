@@ -0,0 +1,190 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.redis;
+
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+/**
+ * Redis 缓存锁、信号量、限流器使用的 Lua 脚本
+ * <p>
+ * {@link org.springframework.data.redis.core.RedisTemplate#execute(RedisScript, java.util.List, Object...)}
+ * 会优先使用 EVALSHA 执行脚本，脚本不存在的时候才会使用 EVAL 重新加载脚本
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 上午11:05:12
+ */
+public class RedisLockScripts {
+    /**
+     * 获取 Redis 服务端的当前时间（毫秒），保存到 Lua 变量 {@code now} 中
+     * <p>
+     * {@code TIME} 是不确定性的命令，需要先调用 {@code redis.replicate_commands()} 开启按照命令的效果复制（Redis 3.2
+     * 及以上版本支持，Redis 5 开始默认开启），否则在 {@code TIME} 之后执行写命令会报错
+     */
+    private static final String           REDIS_TIME_MILLIS       = "redis.replicate_commands()"
+            + " local time = redis.call('time')"
+            + " local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)";
+
+    /**
+     * 释放锁：只有锁的值等于持有者令牌的时候才删除锁，避免误删其它线程/节点持有的锁
+     * <ul>
+     * <li>KEYS[1]：锁的名字
+     * <li>ARGV[1]：持有者令牌
+     * </ul>
+     * 返回值：1 释放成功，0 锁已经不属于当前持有者
+     */
+    public static final RedisScript<Long> RELEASE_LOCK            = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) end return 0",
+            Long.class);
+    /**
+     * 释放锁并通知等待者：只有锁的值等于持有者令牌的时候才删除锁，删除之后发布锁释放的消息
+     * <ul>
+     * <li>KEYS[1]：锁的名字
+     * <li>ARGV[1]：持有者令牌
+     * <li>ARGV[2]：锁释放的消息通道
+     * </ul>
+     * 返回值：1 释放成功，0 锁已经不属于当前持有者
+     */
+    public static final RedisScript<Long> RELEASE_LOCK_AND_NOTIFY = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then redis.call('del', KEYS[1]);"
+                    + " redis.call('publish', ARGV[2], KEYS[1]); return 1 end return 0",
+            Long.class);
+    /**
+     * 续期锁：只有锁的值等于持有者令牌的时候才延长锁的过期时间
+     * <ul>
+     * <li>KEYS[1]：锁的名字
+     * <li>ARGV[1]：持有者令牌
+     * <li>ARGV[2]：新的过期时间，单位：毫秒
+     * </ul>
+     * 返回值：1 续期成功，0 锁已经不属于当前持有者
+     */
+    public static final RedisScript<Long> RENEW_LOCK              = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) end return 0",
+            Long.class);
+    /**
+     * 批量获取锁：只要有一个锁已经存在则返回 0，否则设置全部的锁
+     * <ul>
+     * <li>KEYS[1..n]：锁的名字
+     * <li>ARGV[1]：锁的过期时间，单位：毫秒
+     * <li>ARGV[2..n+1]：KEYS[i] 对应的锁的值
+     * </ul>
+     * 返回值：1 获取到全部的锁，0 没有获取到锁
+     * <p>
+     * 注意：Redis Cluster 模式下所有的锁的名字需要使用 hash tag 分配到同一个 slot 中
+     */
+    public static final RedisScript<Long> GET_LOCKS               = new DefaultRedisScript<>(
+            "for i = 1, #KEYS do if redis.call('exists', KEYS[i]) == 1 then return 0 end end"
+                    + " for i = 1, #KEYS do redis.call('set', KEYS[i], ARGV[i + 1], 'px', ARGV[1]) end return 1",
+            Long.class);
+    /**
+     * 批量释放锁：只有锁的值等于持有者令牌的时候才删除锁，删除之后如果消息通道前缀不为空，则发布锁释放的消息
+     * <ul>
+     * <li>KEYS[1..n]：锁的名字
+     * <li>ARGV[1]：锁释放的消息通道前缀，为空字符串的时候不发布消息
+     * <li>ARGV[2..n+1]：KEYS[i] 对应的持有者令牌
+     * </ul>
+     * 返回值：释放成功的锁的数量
+     */
+    public static final RedisScript<Long> RELEASE_LOCKS           = new DefaultRedisScript<>(
+            "local count = 0 for i = 1, #KEYS do if redis.call('get', KEYS[i]) == ARGV[i + 1] then"
+                    + " redis.call('del', KEYS[i]); count = count + 1;"
+                    + " if ARGV[1] ~= '' then redis.call('publish', ARGV[1] .. KEYS[i], KEYS[i]) end end end"
+                    + " return count",
+            Long.class);
+    /**
+     * 获取信号量的许可：先清除已经过期的许可，许可数量小于总数的时候添加新的许可；许可的过期时间使用 Redis 服务端的时间
+     * （{@code TIME} 命令）计算，不受各个节点之间时钟误差的影响
+     * <ul>
+     * <li>KEYS[1]：信号量的名字（ZSET，member 为许可的唯一标识，score 为许可的过期时间）
+     * <li>ARGV[1]：许可总数
+     * <li>ARGV[2]：许可的租期，单位：毫秒
+     * <li>ARGV[3]：许可的唯一标识
+     * </ul>
+     * 返回值：1 获取成功，0 没有可用的许可
+     */
+    public static final RedisScript<Long> ACQUIRE_PERMIT          = new DefaultRedisScript<>(
+            REDIS_TIME_MILLIS + " local lease = tonumber(ARGV[2])"
+                    + " redis.call('zremrangebyscore', KEYS[1], '-inf', now)"
+                    + " if redis.call('zcard', KEYS[1]) < tonumber(ARGV[1]) then"
+                    + " redis.call('zadd', KEYS[1], now + lease, ARGV[3]);"
+                    + " if redis.call('pttl', KEYS[1]) < lease then redis.call('pexpire', KEYS[1], lease) end"
+                    + " return 1 end return 0",
+            Long.class);
+    /**
+     * 释放信号量的许可
+     * <ul>
+     * <li>KEYS[1]：信号量的名字
+     * <li>ARGV[1]：许可的唯一标识
+     * </ul>
+     * 返回值：1 释放成功，0 许可已经失效
+     */
+    public static final RedisScript<Long> RELEASE_PERMIT          = new DefaultRedisScript<>(
+            "return redis.call('zrem', KEYS[1], ARGV[1])", Long.class);
+    /**
+     * 令牌桶限流：按照时间补充令牌之后，令牌足够则扣减令牌；补充令牌使用 Redis 服务端的时间（{@code TIME} 命令）计算，不受各个节点之间时钟误差的影响
+     * <ul>
+     * <li>KEYS[1]：令牌桶的名字（HASH，tokens 为剩余的令牌数，ts 为上一次补充令牌的时间）
+     * <li>ARGV[1]：令牌桶的容量
+     * <li>ARGV[2]：每毫秒生成的令牌数
+     * <li>ARGV[3]：需要获取的令牌数
+     * </ul>
+     * 返回值：0 获取成功，大于 0 表示令牌不足，还需要等待的时间，单位：毫秒
+     */
+    public static final RedisScript<Long> TOKEN_BUCKET            = new DefaultRedisScript<>(
+            REDIS_TIME_MILLIS + " local capacity = tonumber(ARGV[1]) local rate = tonumber(ARGV[2])"
+                    + " local permits = tonumber(ARGV[3])"
+                    + " local bucket = redis.call('hmget', KEYS[1], 'tokens', 'ts')"
+                    + " local tokens = tonumber(bucket[1]) or capacity local ts = tonumber(bucket[2]) or now"
+                    + " if now > ts then tokens = math.min(capacity, tokens + (now - ts) * rate) ts = now end"
+                    + " local wait = 0"
+                    + " if tokens >= permits then tokens = tokens - permits"
+                    + " else wait = math.ceil((permits - tokens) / rate) end"
+                    + " redis.call('hmset', KEYS[1], 'tokens', tokens, 'ts', ts)"
+                    + " redis.call('pexpire', KEYS[1], math.ceil(capacity / rate) + 1000)"
+                    + " return wait",
+            Long.class);
+    /**
+     * 滑动窗口限流：先清除已经滑出时间窗口的请求，窗口内的请求数加上本次的配额不超过上限的时候记录本次的请求；请求的时间使用 Redis
+     * 服务端的时间（{@code TIME} 命令）计算，不受各个节点之间时钟误差的影响
+     * <p>
+     * 每个请求的配额都是 ZSET 中的一个 member，占用的内存和时间窗口内允许的最大请求数成正比
+     * <ul>
+     * <li>KEYS[1]：滑动窗口的名字（ZSET，member 为配额的唯一标识，score 为请求的时间）
+     * <li>ARGV[1]：时间窗口内允许的最大请求数
+     * <li>ARGV[2]：时间窗口的长度，单位：毫秒
+     * <li>ARGV[3]：需要获取的配额，不能超过 ARGV[1]
+     * <li>ARGV[4]：请求的唯一标识，配额的唯一标识为 "ARGV[4]:序号"
+     * </ul>
+     * 返回值：0 获取成功，大于 0 表示窗口内的请求数已经达到上限，还需要等待的时间，单位：毫秒
+     */
+    public static final RedisScript<Long> SLIDING_WINDOW          = new DefaultRedisScript<>(
+            REDIS_TIME_MILLIS + " local limit = tonumber(ARGV[1]) local window = tonumber(ARGV[2])"
+                    + " local permits = tonumber(ARGV[3])"
+                    + " redis.call('zremrangebyscore', KEYS[1], '-inf', now - window)"
+                    + " local count = redis.call('zcard', KEYS[1])"
+                    + " if count + permits <= limit then"
+                    + " for i = 1, permits do redis.call('zadd', KEYS[1], now, ARGV[4] .. ':' .. i) end"
+                    + " redis.call('pexpire', KEYS[1], window) return 0 end"
+                    + " local index = count + permits - limit - 1"
+                    + " local oldest = redis.call('zrange', KEYS[1], index, index, 'withscores')"
+                    + " return math.max(tonumber(oldest[2]) + window - now, 1)",
+            Long.class);
+
+    private RedisLockScripts() {
+    }
+}
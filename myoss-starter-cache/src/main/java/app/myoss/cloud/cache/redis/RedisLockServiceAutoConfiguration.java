@@ -20,17 +20,28 @@ package app.myoss.cloud.cache.redis;
 import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
 import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.StringRedisTemplate;
 
+import app.myoss.cloud.cache.constants.CacheConstants;
+import app.myoss.cloud.cache.lock.metrics.LockKeyPatternNormalizer;
+import app.myoss.cloud.cache.lock.metrics.LockMetrics;
+import app.myoss.cloud.cache.lock.metrics.PrometheusLockMetrics;
+import io.prometheus.client.CollectorRegistry;
+
 /**
  * Redis 缓存锁服务自动配置
  *
@@ -57,17 +68,152 @@ public class RedisLockServiceAutoConfiguration {
      * 初始化默认的Redis 缓存锁实现
      *
      * @param redisTemplate Spring StringRedisTemplate
+     * @param watchdog Redis 缓存锁的看门狗（可选）
+     * @param releaseNotifier Redis 缓存锁释放的通知器（可选）
+     * @param lockMetrics 缓存锁的监控指标记录器（可选）
      * @return 默认的Redis 缓存锁实现
      */
     @ConditionalOnBean(name = "redisTemplate")
     @ConditionalOnMissingBean
     @Bean
-    public RedisLockServiceImpl redisLockService(StringRedisTemplate redisTemplate) {
+    public RedisLockServiceImpl redisLockService(StringRedisTemplate redisTemplate,
+                                                 ObjectProvider<RedisLockWatchdog> watchdog,
+                                                 ObjectProvider<RedisLockReleaseNotifier> releaseNotifier,
+                                                 ObjectProvider<LockMetrics> lockMetrics) {
         // 在应用启动的时候提前初始化 redis 连接池，加快第一次使用的访问速度
         String key = this.getClass().getName() + ".test";
         redisTemplate.opsForValue().setIfAbsent(key, "init redis connection", Duration.ofSeconds(10));
 
         TimeUnit timeUnit = redisProperties.getLockTimeUnit();
-        return new RedisLockServiceImpl(redisTemplate, timeUnit);
+        RedisLockWatchdog lockWatchdog = watchdog.getIfAvailable();
+        RedisLockReleaseNotifier lockReleaseNotifier = releaseNotifier.getIfAvailable();
+        RedisLockServiceImpl lockService;
+        if (redisProperties.isLockOwnerToken() || lockWatchdog != null || lockReleaseNotifier != null) {
+            RedisTokenLockServiceImpl tokenLockService = new RedisTokenLockServiceImpl(redisTemplate, timeUnit);
+            tokenLockService.setWatchdog(lockWatchdog);
+            tokenLockService.setReleaseNotifier(lockReleaseNotifier);
+            tokenLockService.loadScripts();
+            lockService = tokenLockService;
+        } else {
+            lockService = new RedisLockServiceImpl(redisTemplate, timeUnit);
+        }
+        if (redisProperties.isLockLocalLock()) {
+            lockService.setLocalLocks(RedisLockServiceImpl.newLocalLocks());
+        }
+        lockService.setLockMetrics(lockMetrics.getIfAvailable(() -> LockMetrics.NONE));
+        lockService.setSlowHoldThresholdMillis(redisProperties.getLockSlowHoldThreshold());
+        return lockService;
+    }
+
+    /**
+     * 初始化 Redis 缓存锁的看门狗
+     *
+     * @param redisTemplate Spring StringRedisTemplate
+     * @return Redis 缓存锁的看门狗
+     */
+    @ConditionalOnProperty(prefix = CacheConstants.REDIS_CONFIG_PREFIX, value = "lock-watchdog", havingValue = "true")
+    @ConditionalOnBean(name = "redisTemplate")
+    @ConditionalOnMissingBean
+    @Bean
+    public RedisLockWatchdog redisLockWatchdog(StringRedisTemplate redisTemplate) {
+        return new RedisLockWatchdog(redisTemplate, redisProperties.getLockWatchdogTickMillis());
+    }
+
+    /**
+     * 初始化 Redis 缓存锁释放的通知器
+     *
+     * @param connectionFactory Redis 连接工厂
+     * @return Redis 缓存锁释放的通知器
+     */
+    @ConditionalOnProperty(prefix = CacheConstants.REDIS_CONFIG_PREFIX, value = "lock-release-notify", havingValue = "true")
+    @ConditionalOnBean(RedisConnectionFactory.class)
+    @ConditionalOnMissingBean
+    @Bean
+    public RedisLockReleaseNotifier redisLockReleaseNotifier(RedisConnectionFactory connectionFactory) {
+        return new RedisLockReleaseNotifier(connectionFactory, redisProperties.getLockReleaseChannelPrefix());
+    }
+
+    /**
+     * 初始化 Redis 分布式信号量
+     *
+     * @param redisTemplate Spring StringRedisTemplate
+     * @return Redis 分布式信号量
+     */
+    @ConditionalOnBean(name = "redisTemplate")
+    @ConditionalOnMissingBean
+    @Bean
+    public RedisDistributedSemaphore redisDistributedSemaphore(StringRedisTemplate redisTemplate) {
+        return new RedisDistributedSemaphore(redisTemplate, redisProperties.getSemaphoreLocalDenyMillis());
+    }
+
+    /**
+     * 初始化 Redis 分布式限流器
+     *
+     * @param redisTemplate Spring StringRedisTemplate
+     * @return Redis 分布式限流器
+     */
+    @ConditionalOnBean(name = "redisTemplate")
+    @ConditionalOnMissingBean
+    @Bean
+    public RedisDistributedRateLimiter redisDistributedRateLimiter(StringRedisTemplate redisTemplate) {
+        return new RedisDistributedRateLimiter(redisTemplate, redisProperties.getRateLimiterLocalDenyMillis(),
+                redisProperties.isRateLimiterFailOpen());
+    }
+
+    /**
+     * 非阻塞的 Redis 缓存锁服务自动配置，依赖 Project Reactor
+     */
+    @ConditionalOnClass(name = "reactor.core.publisher.Mono")
+    @Configuration
+    public static class ReactiveRedisLockServiceConfiguration {
+        /**
+         * 初始化非阻塞的 Redis 缓存锁实现
+         *
+         * @param connectionFactory Reactive Redis 连接工厂
+         * @param redisProperties Redis 缓存的配置
+         * @return 非阻塞的 Redis 缓存锁实现
+         */
+        @ConditionalOnBean(ReactiveRedisConnectionFactory.class)
+        @ConditionalOnMissingBean
+        @Bean
+        public ReactiveRedisLockServiceImpl reactiveRedisLockService(ReactiveRedisConnectionFactory connectionFactory,
+                                                                     RedisProperties redisProperties) {
+            ReactiveStringRedisTemplate redisTemplate = new ReactiveStringRedisTemplate(connectionFactory);
+            return new ReactiveRedisLockServiceImpl(redisTemplate, redisProperties.getLockTimeUnit());
+        }
+    }
+
+    /**
+     * 缓存锁的 Prometheus 监控指标自动配置，依赖 io.prometheus:simpleclient
+     */
+    @ConditionalOnProperty(prefix = CacheConstants.REDIS_CONFIG_PREFIX, value = "lock-metrics", havingValue = "true",
+            matchIfMissing = true)
+    @ConditionalOnClass(name = "io.prometheus.client.CollectorRegistry")
+    @Configuration
+    public static class PrometheusLockMetricsConfiguration {
+        /**
+         * 初始化缓存锁的 Prometheus 监控指标记录器
+         *
+         * @param collectorRegistry Prometheus 收集器，不存在的时候使用
+         *            {@link CollectorRegistry#defaultRegistry}
+         * @param watchdog Redis 缓存锁的看门狗（可选）
+         * @param redisProperties Redis 缓存的配置
+         * @return 缓存锁的 Prometheus 监控指标记录器
+         */
+        @ConditionalOnMissingBean(LockMetrics.class)
+        @Bean
+        public PrometheusLockMetrics prometheusLockMetrics(ObjectProvider<CollectorRegistry> collectorRegistry,
+                                                           ObjectProvider<RedisLockWatchdog> watchdog,
+                                                           RedisProperties redisProperties) {
+            CollectorRegistry registry = collectorRegistry.getIfAvailable(() -> CollectorRegistry.defaultRegistry);
+            PrometheusLockMetrics lockMetrics = new PrometheusLockMetrics(registry,
+                    new LockKeyPatternNormalizer(redisProperties.getLockMetricsMaxPatterns()));
+            RedisLockWatchdog lockWatchdog = watchdog.getIfAvailable();
+            if (lockWatchdog != null) {
+                // 和缓存锁的监控指标一起在 Spring 容器关闭的时候注销
+                lockMetrics.register(new RedisLockWatchdogCollector(lockWatchdog));
+            }
+            return lockMetrics;
+        }
     }
 }
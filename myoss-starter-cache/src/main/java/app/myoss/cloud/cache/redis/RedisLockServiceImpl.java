@@ -18,18 +18,33 @@
 package app.myoss.cloud.cache.redis;
 
 import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
 
+import org.slf4j.MDC;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.util.backoff.BackOffExecution;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
 
 import app.myoss.cloud.cache.lock.LockService;
+import app.myoss.cloud.cache.lock.MultiLockService;
+import app.myoss.cloud.cache.lock.functions.BaseLockFunction;
 import app.myoss.cloud.cache.lock.functions.LockFunction;
 import app.myoss.cloud.cache.lock.functions.LockFunctionGeneric;
 import app.myoss.cloud.cache.lock.functions.LockFunctionGenericWithArgs;
 import app.myoss.cloud.cache.lock.functions.LockFunctionWithArgs;
-import lombok.AllArgsConstructor;
+import app.myoss.cloud.cache.lock.metrics.LockMetrics;
 import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * Redis 缓存锁实现
@@ -37,9 +52,12 @@ import lombok.Data;
  * @author Jerry.Chen
  * @since 2018年5月21日 下午1:13:16
  */
+@Slf4j
 @Data
-@AllArgsConstructor
-public class RedisLockServiceImpl implements LockService {
+public class RedisLockServiceImpl implements MultiLockService {
+    private static final String TRACE_ID_NAME        = "traceId";
+    private static final String LEGACY_TRACE_ID_NAME = "X-B3-TraceId";
+
     /**
      * Redis data access Template
      */
@@ -48,6 +66,40 @@ public class RedisLockServiceImpl implements LockService {
      * 缓存锁的时间单位
      */
     private TimeUnit      timeUnit;
+    /**
+     * 本地锁（可选），使用 executeByLock 的时候，先获取锁的名字对应的本地锁，只有获取到本地锁的线程才会请求 Redis
+     * 获取锁，同一个 JVM 中竞争同一个锁的 N 个线程，对 Redis 的请求从 N 个线程降低为 1 个线程。每个锁的名字对应一个独立的本地锁，
+     * 不同名字的锁互不影响，参考 {@link #newLocalLocks()}
+     */
+    private LoadingCache<Serializable, Lock> localLocks;
+    /**
+     * 缓存锁的监控指标记录器
+     */
+    private LockMetrics                      lockMetrics             = LockMetrics.NONE;
+    /**
+     * 持有锁的时间超过此阈值的时候输出 WARN 日志，单位：毫秒，小于等于 0 的时候不检查
+     */
+    private long                             slowHoldThresholdMillis = 0L;
+
+    /**
+     * 初始化 Redis 缓存锁实现
+     *
+     * @param redisTemplate Redis data access Template
+     * @param timeUnit 缓存锁的时间单位
+     */
+    public RedisLockServiceImpl(RedisTemplate redisTemplate, TimeUnit timeUnit) {
+        this.redisTemplate = redisTemplate;
+        this.timeUnit = timeUnit;
+    }
+
+    /**
+     * 创建按照锁的名字区分的本地锁，使用弱引用保存，没有线程使用的本地锁会被垃圾回收
+     *
+     * @return 锁的名字对应的本地锁
+     */
+    public static LoadingCache<Serializable, Lock> newLocalLocks() {
+        return Caffeine.newBuilder().weakValues().build(key -> new ReentrantLock());
+    }
 
     @SuppressWarnings("unchecked")
     @Override
@@ -68,42 +120,245 @@ public class RedisLockServiceImpl implements LockService {
         return Objects.equals(delete, true);
     }
 
+    @Override
+    public boolean getLocks(Collection<? extends Serializable> keys, int expireTime, TimeUnit timeUnit) {
+        List<Serializable> sortedKeys = sortKeys(keys);
+        return acquireLocks(sortedKeys, Collections.nCopies(sortedKeys.size(), "1"), timeUnit.toMillis(expireTime));
+    }
+
+    @Override
+    public boolean getLocks(Collection<? extends Serializable> keys, int expireTime) {
+        return getLocks(keys, expireTime, timeUnit);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public boolean releaseLocks(Collection<? extends Serializable> keys) {
+        List<Serializable> sortedKeys = sortKeys(keys);
+        Long count = redisTemplate.delete(sortedKeys);
+        return Objects.equals(count, (long) sortedKeys.size());
+    }
+
+    /**
+     * 对锁的名字去重并排序，保证批量获取锁的时候顺序固定
+     *
+     * @param keys 锁的名字集合
+     * @return 排序之后的锁的名字
+     */
+    protected static List<Serializable> sortKeys(Collection<? extends Serializable> keys) {
+        if (keys == null || keys.isEmpty()) {
+            throw new IllegalArgumentException("lock keys must not be empty");
+        }
+        return keys.stream().distinct().sorted(Comparator.comparing(Object::toString)).collect(Collectors.toList());
+    }
+
+    /**
+     * 使用 Lua 脚本 {@link RedisLockScripts#GET_LOCKS} 在一次网络请求中原子性的批量获取锁
+     *
+     * @param sortedKeys 排序之后的锁的名字
+     * @param values 锁的名字对应的锁的值
+     * @param expireMillis 锁的过期时间，单位：毫秒
+     * @return true：获取到全部的锁，false：没有获取到锁
+     */
+    @SuppressWarnings("unchecked")
+    protected boolean acquireLocks(List<Serializable> sortedKeys, List<String> values, long expireMillis) {
+        Object[] args = new Object[values.size() + 1];
+        args[0] = String.valueOf(expireMillis);
+        for (int i = 0; i < values.size(); i++) {
+            args[i + 1] = values.get(i);
+        }
+        Long result = (Long) redisTemplate.execute(RedisLockScripts.GET_LOCKS, sortedKeys, args);
+        return Objects.equals(result, 1L);
+    }
+
+    /**
+     * 尝试获取锁，获取失败的时候按照 {@link BaseLockFunction#tryLockBackOff()} 的退避策略进行重试
+     * <p>
+     * 设置了 {@link #localLocks} 的时候，需要先获取到本地锁才会请求 Redis；没有获取到本地锁的线程只在本地等待，获取锁失败的时候会释放本地锁
+     *
+     * @param key 锁的名字
+     * @param expireTime 锁的过期时间
+     * @param callback 回调函数
+     * @param localLock 锁的名字对应的本地锁，没有设置 {@link #localLocks} 的时候为 null
+     * @return true：获取到锁，false：没有获取到锁
+     */
+    protected boolean tryGetLock(Serializable key, int expireTime, BaseLockFunction callback, Lock localLock) {
+        boolean isGetLocalLock = (localLock == null || localLock.tryLock());
+        boolean isGetLock = false;
+        int attempts = 0;
+        long start = System.nanoTime();
+        RetryWaiter retryWaiter = null;
+        try {
+            if (isGetLocalLock) {
+                attempts++;
+                isGetLock = getLock(key, expireTime);
+                if (isGetLock) {
+                    return true;
+                }
+            }
+            BackOffExecution backOffExecution = callback.tryLockBackOff().start();
+            long sleepTime = backOffExecution.nextBackOff();
+            while (sleepTime != BackOffExecution.STOP) {
+                if (isGetLocalLock) {
+                    if (retryWaiter == null) {
+                        retryWaiter = newRetryWaiter(key);
+                    }
+                    retryWaiter.await(sleepTime);
+                } else {
+                    // 本地锁被其它线程持有，只在本地等待，不请求 Redis
+                    isGetLocalLock = tryLocalLock(localLock, sleepTime);
+                }
+                if (Thread.currentThread().isInterrupted()) {
+                    // 线程被中断，放弃重试
+                    break;
+                }
+                if (isGetLocalLock) {
+                    attempts++;
+                    isGetLock = getLock(key, expireTime);
+                    if (isGetLock) {
+                        return true;
+                    }
+                }
+                sleepTime = backOffExecution.nextBackOff();
+            }
+            return false;
+        } finally {
+            if (retryWaiter != null) {
+                retryWaiter.close();
+            }
+            // 没有获取到 Redis 锁（包括发生异常），释放本地锁
+            if (!isGetLock && isGetLocalLock && localLock != null) {
+                localLock.unlock();
+            }
+            lockMetrics.recordAcquire(key, isGetLock, attempts, System.nanoTime() - start);
+        }
+    }
+
+    private static boolean tryLocalLock(Lock localLock, long waitTime) {
+        try {
+            return localLock.tryLock(waitTime, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * 获取锁失败之后，等待下一次重试
+     *
+     * @param key 锁的名字
+     * @param sleepTime 等待的时间，单位：毫秒
+     */
+    protected void waitForRetry(Serializable key, long sleepTime) {
+        LockService.sleep(sleepTime);
+    }
+
+    /**
+     * 第一次获取锁失败之后，创建这个锁在整个重试过程中使用的等待器，重试结束之后关闭，默认使用
+     * {@link #waitForRetry(Serializable, long)} 等待
+     *
+     * @param key 锁的名字
+     * @return 等待下一次重试的等待器
+     */
+    protected RetryWaiter newRetryWaiter(Serializable key) {
+        return sleepTime -> waitForRetry(key, sleepTime);
+    }
+
+    /**
+     * 执行完回调函数之后释放锁，如果执行的时间已经超过了锁的过期时间，锁可能已经被其它线程获取，则不释放锁
+     *
+     * @param key 锁的名字
+     * @param expireTime 锁的过期时间
+     * @param begin 获取到锁的时间
+     */
+    protected void releaseLockAfterExecute(Serializable key, int expireTime, long begin) {
+        long cost = System.currentTimeMillis() - begin;
+        long expireTimeToMills = timeUnit.toMillis(expireTime);
+        if (cost < expireTimeToMills) {
+            releaseLock(key);
+        }
+    }
+
+    /**
+     * 获取锁的名字对应的本地锁，调用方需要在释放本地锁之前一直持有返回的对象，避免被垃圾回收
+     *
+     * @param key 锁的名字
+     * @return 本地锁，没有设置 {@link #localLocks} 的时候返回 null
+     */
+    protected Lock getLocalLock(Serializable key) {
+        return (localLocks != null ? localLocks.get(key) : null);
+    }
+
+    private void afterExecute(Serializable key, int expireTime, long begin, Lock localLock) {
+        try {
+            recordHold(key, begin);
+            releaseLockAfterExecute(key, expireTime, begin);
+        } finally {
+            if (localLock != null) {
+                localLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 记录持有锁的时间，超过 {@link #slowHoldThresholdMillis} 的时候输出 WARN 日志
+     *
+     * @param key 锁的名字
+     * @param begin 获取到锁的时间
+     */
+    protected void recordHold(Serializable key, long begin) {
+        long holdTime = System.currentTimeMillis() - begin;
+        lockMetrics.recordHold(key, TimeUnit.MILLISECONDS.toNanos(holdTime));
+        warnSlowHold(key, holdTime);
+    }
+
+    /**
+     * 批量锁的每个锁都记录持有锁的时间，超过 {@link #slowHoldThresholdMillis} 的时候输出一条 WARN 日志
+     *
+     * @param sortedKeys 排序之后的锁的名字
+     * @param begin 获取到锁的时间
+     */
+    protected void recordHolds(List<Serializable> sortedKeys, long begin) {
+        long holdTime = System.currentTimeMillis() - begin;
+        long holdNanos = TimeUnit.MILLISECONDS.toNanos(holdTime);
+        for (Serializable key : sortedKeys) {
+            lockMetrics.recordHold(key, holdNanos);
+        }
+        warnSlowHold(sortedKeys, holdTime);
+    }
+
+    private void warnSlowHold(Object key, long holdTime) {
+        if (slowHoldThresholdMillis > 0 && holdTime >= slowHoldThresholdMillis) {
+            log.warn("lock held too long, key: {}, hold: {}ms, threshold: {}ms, traceId: {}", key, holdTime,
+                    slowHoldThresholdMillis, getTraceId());
+        }
+    }
+
+    /**
+     * 获取当前线程 {@link MDC} 中的 traceId，和 ApplicationEventTracer / Spring Cloud Sleuth 使用相同的 MDC 属性
+     *
+     * @return traceId，不存在的时候返回 null
+     */
+    private static String getTraceId() {
+        String traceId = MDC.get(TRACE_ID_NAME);
+        return (traceId != null ? traceId : MDC.get(LEGACY_TRACE_ID_NAME));
+    }
+
     @Override
     public boolean executeByLock(Serializable key, int expireTime, LockFunction callback) {
+        Lock localLock = getLocalLock(key);
+        boolean isGetLock = tryGetLock(key, expireTime, callback, localLock);
         long begin = System.currentTimeMillis();
-        boolean isGetLock = getLock(key, expireTime);
         try {
             if (isGetLock) {
                 callback.onLockSuccess();
             } else {
-                int tryLockTimes = callback.tryLockTimes();
-                if (tryLockTimes <= 1) {
-                    callback.onLockFailed();
-                } else {
-                    // 进行多次重试获取锁
-                    for (int i = 1; i < tryLockTimes; i++) {
-                        LockService.sleep(callback.tryLockSleepTime());
-                        begin = System.currentTimeMillis();
-                        isGetLock = getLock(key, expireTime);
-                        if (isGetLock) {
-                            break;
-                        }
-                    }
-                    if (isGetLock) {
-                        callback.onLockSuccess();
-                    } else {
-                        callback.onLockFailed();
-                    }
-                }
+                callback.onLockFailed();
             }
         } finally {
             // 如果已经获取到锁，才释放锁
             if (isGetLock) {
-                long cost = System.currentTimeMillis() - begin;
-                long expireTimeToMills = timeUnit.toMillis(expireTime);
-                if (cost < expireTimeToMills) {
-                    releaseLock(key);
-                }
+                afterExecute(key, expireTime, begin, localLock);
             }
         }
         return isGetLock;
@@ -111,40 +366,19 @@ public class RedisLockServiceImpl implements LockService {
 
     @Override
     public boolean executeByLock(Serializable key, int expireTime, LockFunctionWithArgs callback, Object... args) {
+        Lock localLock = getLocalLock(key);
+        boolean isGetLock = tryGetLock(key, expireTime, callback, localLock);
         long begin = System.currentTimeMillis();
-        boolean isGetLock = getLock(key, expireTime);
         try {
             if (isGetLock) {
                 callback.onLockSuccess(args);
             } else {
-                int tryLockTimes = callback.tryLockTimes();
-                if (tryLockTimes <= 1) {
-                    callback.onLockFailed(args);
-                } else {
-                    // 进行多次重试获取锁
-                    for (int i = 1; i < tryLockTimes; i++) {
-                        LockService.sleep(callback.tryLockSleepTime());
-                        begin = System.currentTimeMillis();
-                        isGetLock = getLock(key, expireTime);
-                        if (isGetLock) {
-                            break;
-                        }
-                    }
-                    if (isGetLock) {
-                        callback.onLockSuccess(args);
-                    } else {
-                        callback.onLockFailed(args);
-                    }
-                }
+                callback.onLockFailed(args);
             }
         } finally {
             // 如果已经获取到锁，才释放锁
             if (isGetLock) {
-                long cost = System.currentTimeMillis() - begin;
-                long expireTimeToMills = timeUnit.toMillis(expireTime);
-                if (cost < expireTimeToMills) {
-                    releaseLock(key);
-                }
+                afterExecute(key, expireTime, begin, localLock);
             }
         }
         return isGetLock;
@@ -152,82 +386,191 @@ public class RedisLockServiceImpl implements LockService {
 
     @Override
     public <T> T executeByLock(Serializable key, int expireTime, LockFunctionGeneric<T> callback) {
+        Lock localLock = getLocalLock(key);
+        boolean isGetLock = tryGetLock(key, expireTime, callback, localLock);
         long begin = System.currentTimeMillis();
-        boolean isGetLock = getLock(key, expireTime);
         try {
+            return (isGetLock ? callback.onLockSuccess() : callback.onLockFailed());
+        } finally {
+            // 如果已经获取到锁，才释放锁
             if (isGetLock) {
-                return callback.onLockSuccess();
-            } else {
-                int tryLockTimes = callback.tryLockTimes();
-                if (tryLockTimes <= 1) {
-                    return callback.onLockFailed();
-                } else {
-                    // 进行多次重试获取锁
-                    for (int i = 1; i < tryLockTimes; i++) {
-                        LockService.sleep(callback.tryLockSleepTime());
-                        begin = System.currentTimeMillis();
-                        isGetLock = getLock(key, expireTime);
-                        if (isGetLock) {
-                            break;
-                        }
-                    }
-                    if (isGetLock) {
-                        return callback.onLockSuccess();
-                    } else {
-                        return callback.onLockFailed();
-                    }
-                }
+                afterExecute(key, expireTime, begin, localLock);
             }
+        }
+    }
+
+    @Override
+    public <T> T executeByLock(Serializable key, int expireTime, LockFunctionGenericWithArgs<T> callback,
+                               Object... args) {
+        Lock localLock = getLocalLock(key);
+        boolean isGetLock = tryGetLock(key, expireTime, callback, localLock);
+        long begin = System.currentTimeMillis();
+        try {
+            return (isGetLock ? callback.onLockSuccess(args) : callback.onLockFailed(args));
         } finally {
             // 如果已经获取到锁，才释放锁
             if (isGetLock) {
-                long cost = System.currentTimeMillis() - begin;
-                long expireTimeToMills = timeUnit.toMillis(expireTime);
-                if (cost < expireTimeToMills) {
-                    releaseLock(key);
+                afterExecute(key, expireTime, begin, localLock);
+            }
+        }
+    }
+
+    /**
+     * 尝试批量获取锁，获取失败的时候按照 {@link BaseLockFunction#tryLockBackOff()} 的退避策略进行重试
+     *
+     * @param sortedKeys 排序之后的锁的名字
+     * @param expireTime 锁的过期时间
+     * @param callback 回调函数
+     * @return true：获取到全部的锁，false：没有获取到锁
+     */
+    protected boolean tryGetLocks(List<Serializable> sortedKeys, int expireTime, BaseLockFunction callback) {
+        Serializable firstKey = sortedKeys.get(0);
+        boolean isGetLock = false;
+        int attempts = 1;
+        long start = System.nanoTime();
+        RetryWaiter retryWaiter = null;
+        try {
+            isGetLock = getLocks(sortedKeys, expireTime);
+            if (isGetLock) {
+                return true;
+            }
+            BackOffExecution backOffExecution = callback.tryLockBackOff().start();
+            long sleepTime = backOffExecution.nextBackOff();
+            retryWaiter = newRetryWaiter(firstKey);
+            while (sleepTime != BackOffExecution.STOP) {
+                retryWaiter.await(sleepTime);
+                if (Thread.currentThread().isInterrupted()) {
+                    // 线程被中断，放弃重试
+                    break;
+                }
+                attempts++;
+                isGetLock = getLocks(sortedKeys, expireTime);
+                if (isGetLock) {
+                    return true;
                 }
+                sleepTime = backOffExecution.nextBackOff();
+            }
+            return false;
+        } finally {
+            if (retryWaiter != null) {
+                retryWaiter.close();
+            }
+            // 批量锁的每个锁都记录监控指标，锁是一起获取的，等待的时间和请求的次数相同
+            long waitNanos = System.nanoTime() - start;
+            for (Serializable key : sortedKeys) {
+                lockMetrics.recordAcquire(key, isGetLock, attempts, waitNanos);
             }
         }
     }
 
+    /**
+     * 执行完回调函数之后批量释放锁，如果执行的时间已经超过了锁的过期时间，锁可能已经被其它线程获取，则不释放锁
+     *
+     * @param sortedKeys 排序之后的锁的名字
+     * @param expireTime 锁的过期时间
+     * @param begin 获取到锁的时间
+     */
+    protected void releaseLocksAfterExecute(List<Serializable> sortedKeys, int expireTime, long begin) {
+        long cost = System.currentTimeMillis() - begin;
+        long expireTimeToMills = timeUnit.toMillis(expireTime);
+        if (cost < expireTimeToMills) {
+            releaseLocks(sortedKeys);
+        }
+    }
+
     @Override
-    public <T> T executeByLock(Serializable key, int expireTime, LockFunctionGenericWithArgs<T> callback,
-                               Object... args) {
+    public boolean executeByLocks(Collection<? extends Serializable> keys, int expireTime, LockFunction callback) {
+        List<Serializable> sortedKeys = sortKeys(keys);
+        boolean isGetLock = tryGetLocks(sortedKeys, expireTime, callback);
         long begin = System.currentTimeMillis();
-        boolean isGetLock = getLock(key, expireTime);
         try {
             if (isGetLock) {
-                return callback.onLockSuccess(args);
+                callback.onLockSuccess();
             } else {
-                int tryLockTimes = callback.tryLockTimes();
-                if (tryLockTimes <= 1) {
-                    return callback.onLockFailed(args);
-                } else {
-                    // 进行多次重试获取锁
-                    for (int i = 1; i < tryLockTimes; i++) {
-                        LockService.sleep(callback.tryLockSleepTime());
-                        begin = System.currentTimeMillis();
-                        isGetLock = getLock(key, expireTime);
-                        if (isGetLock) {
-                            break;
-                        }
-                    }
-                    if (isGetLock) {
-                        return callback.onLockSuccess(args);
-                    } else {
-                        return callback.onLockFailed(args);
-                    }
-                }
+                callback.onLockFailed();
             }
         } finally {
             // 如果已经获取到锁，才释放锁
             if (isGetLock) {
-                long cost = System.currentTimeMillis() - begin;
-                long expireTimeToMills = timeUnit.toMillis(expireTime);
-                if (cost < expireTimeToMills) {
-                    releaseLock(key);
-                }
+                recordHolds(sortedKeys, begin);
+                releaseLocksAfterExecute(sortedKeys, expireTime, begin);
             }
         }
+        return isGetLock;
+    }
+
+    @Override
+    public boolean executeByLocks(Collection<? extends Serializable> keys, int expireTime,
+                                  LockFunctionWithArgs callback, Object... args) {
+        List<Serializable> sortedKeys = sortKeys(keys);
+        boolean isGetLock = tryGetLocks(sortedKeys, expireTime, callback);
+        long begin = System.currentTimeMillis();
+        try {
+            if (isGetLock) {
+                callback.onLockSuccess(args);
+            } else {
+                callback.onLockFailed(args);
+            }
+        } finally {
+            // 如果已经获取到锁，才释放锁
+            if (isGetLock) {
+                recordHolds(sortedKeys, begin);
+                releaseLocksAfterExecute(sortedKeys, expireTime, begin);
+            }
+        }
+        return isGetLock;
+    }
+
+    @Override
+    public <T> T executeByLocks(Collection<? extends Serializable> keys, int expireTime,
+                                LockFunctionGeneric<T> callback) {
+        List<Serializable> sortedKeys = sortKeys(keys);
+        boolean isGetLock = tryGetLocks(sortedKeys, expireTime, callback);
+        long begin = System.currentTimeMillis();
+        try {
+            return (isGetLock ? callback.onLockSuccess() : callback.onLockFailed());
+        } finally {
+            // 如果已经获取到锁，才释放锁
+            if (isGetLock) {
+                recordHolds(sortedKeys, begin);
+                releaseLocksAfterExecute(sortedKeys, expireTime, begin);
+            }
+        }
+    }
+
+    @Override
+    public <T> T executeByLocks(Collection<? extends Serializable> keys, int expireTime,
+                                LockFunctionGenericWithArgs<T> callback, Object... args) {
+        List<Serializable> sortedKeys = sortKeys(keys);
+        boolean isGetLock = tryGetLocks(sortedKeys, expireTime, callback);
+        long begin = System.currentTimeMillis();
+        try {
+            return (isGetLock ? callback.onLockSuccess(args) : callback.onLockFailed(args));
+        } finally {
+            // 如果已经获取到锁，才释放锁
+            if (isGetLock) {
+                recordHolds(sortedKeys, begin);
+                releaseLocksAfterExecute(sortedKeys, expireTime, begin);
+            }
+        }
+    }
+
+    /**
+     * 获取锁失败之后等待下一次重试，一次获取锁的所有重试使用同一个等待器
+     */
+    protected interface RetryWaiter extends AutoCloseable {
+        /**
+         * 等待下一次重试
+         *
+         * @param sleepTime 最长的等待时间，单位：毫秒
+         */
+        void await(long sleepTime);
+
+        /**
+         * 不再重试获取锁，释放等待器占用的资源
+         */
+        @Override
+        default void close() {
+        }
     }
 }
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.redis;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import app.myoss.cloud.core.constants.MyossConstants;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Redis 缓存锁的看门狗，自动延长当前 JVM 持有的锁的过期时间
+ * <p>
+ * 所有的锁共用一个调度线程，每次调度把需要续期的锁合并到一次 pipeline 请求中，使用 Lua 脚本
+ * {@link RedisLockScripts#RENEW_LOCK} 比较持有者令牌之后再延长过期时间；锁持有的时间超过过期时间的 1/3 就会进行续期
+ * <p>
+ * 注意：调度的间隔时间需要小于锁过期时间的 1/3，否则锁可能在续期之前就已经过期
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午2:20:41
+ */
+@Slf4j
+public class RedisLockWatchdog implements AutoCloseable {
+    private final RedisTemplate              redisTemplate;
+    private final ScheduledExecutorService   scheduler;
+    private final Map<String, Lease>         leases          = new ConcurrentHashMap<>();
+    /**
+     * 续期成功的次数
+     */
+    private final LongAdder                  renewalCount    = new LongAdder();
+    /**
+     * 续期失败的次数（锁已经不属于当前持有者，或者请求 Redis 出现异常）
+     */
+    private final LongAdder                  renewalFailures = new LongAdder();
+
+    /**
+     * 创建 Redis 缓存锁的看门狗
+     *
+     * @param redisTemplate Redis data access Template
+     * @param tickMillis 调度的间隔时间，单位：毫秒
+     */
+    public RedisLockWatchdog(RedisTemplate redisTemplate, long tickMillis) {
+        this.redisTemplate = redisTemplate;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setDaemon(true)
+                .setNameFormat("MyOSSCloud-Cache-RedisLockWatchdog")
+                .build());
+        this.scheduler.scheduleWithFixedDelay(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 注册需要自动续期的锁
+     *
+     * @param key 锁的名字
+     * @param token 持有者令牌
+     * @param ttlMillis 锁的过期时间，单位：毫秒
+     */
+    public void register(Serializable key, String token, long ttlMillis) {
+        long renewIntervalNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis) / 3;
+        leases.put(token, new Lease(key, token, ttlMillis, renewIntervalNanos, System.nanoTime() + renewIntervalNanos));
+    }
+
+    /**
+     * 取消锁的自动续期
+     *
+     * @param token 持有者令牌
+     */
+    public void unregister(String token) {
+        leases.remove(token);
+    }
+
+    /**
+     * 获取续期成功的次数
+     *
+     * @return 续期成功的次数
+     */
+    public long getRenewalCount() {
+        return renewalCount.sum();
+    }
+
+    /**
+     * 获取续期失败的次数
+     *
+     * @return 续期失败的次数
+     */
+    public long getRenewalFailureCount() {
+        return renewalFailures.sum();
+    }
+
+    /**
+     * 获取正在自动续期的锁的数量
+     *
+     * @return 正在自动续期的锁的数量
+     */
+    public int getLeaseCount() {
+        return leases.size();
+    }
+
+    private void tick() {
+        try {
+            renewLeases();
+        } catch (Exception ex) {
+            // 不能抛出异常，否则后续的调度都会被取消
+            log.error("redis lock watchdog tick failed", ex);
+        }
+    }
+
+    /**
+     * 续期所有到期的锁，合并到一次 pipeline 请求中
+     */
+    @SuppressWarnings("unchecked")
+    protected void renewLeases() {
+        long now = System.nanoTime();
+        List<Lease> dueLeases = new ArrayList<>();
+        for (Lease lease : leases.values()) {
+            if (now - lease.nextRenewNanos >= 0) {
+                dueLeases.add(lease);
+            }
+        }
+        if (dueLeases.isEmpty()) {
+            return;
+        }
+        RedisSerializer keySerializer = redisTemplate.getKeySerializer();
+        RedisSerializer valueSerializer = redisTemplate.getValueSerializer();
+        String sha1 = RedisLockScripts.RENEW_LOCK.getSha1();
+        List<Object> results;
+        try {
+            results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (Lease lease : dueLeases) {
+                    connection.evalSha(sha1, ReturnType.INTEGER, 1, keySerializer.serialize(lease.key),
+                            valueSerializer.serialize(lease.token),
+                            String.valueOf(lease.ttlMillis).getBytes(MyossConstants.UTF_8));
+                }
+                return null;
+            }, null);
+        } catch (Exception ex) {
+            renewalFailures.add(dueLeases.size());
+            log.warn("renew redis lock failed, leases: " + dueLeases.size(), ex);
+            // 脚本可能因为 Redis 重启等原因已经不存在，重新加载脚本
+            loadScript();
+            return;
+        }
+        for (int i = 0; i < dueLeases.size(); i++) {
+            Lease lease = dueLeases.get(i);
+            if (Objects.equals(results.get(i), 1L)) {
+                renewalCount.increment();
+                lease.nextRenewNanos = now + lease.renewIntervalNanos;
+            } else {
+                // 锁已经不属于当前持有者，不再续期
+                renewalFailures.increment();
+                leases.remove(lease.token);
+                log.warn("renew redis lock failed, lock is not held by current owner, key: {}", lease.key);
+            }
+        }
+    }
+
+    private void loadScript() {
+        byte[] scriptBytes = RedisLockScripts.RENEW_LOCK.getScriptAsString().getBytes(MyossConstants.UTF_8);
+        try {
+            redisTemplate.execute((RedisCallback<String>) connection -> connection.scriptLoad(scriptBytes));
+        } catch (Exception ex) {
+            log.warn("load redis lock renew script failed", ex);
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        leases.clear();
+    }
+
+    @AllArgsConstructor
+    private static class Lease {
+        private final Serializable key;
+        private final String       token;
+        private final long         ttlMillis;
+        private final long         renewIntervalNanos;
+        private volatile long      nextRenewNanos;
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package app.myoss.cloud.cache.redis;
+
+import java.util.Arrays;
+import java.util.List;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.CounterMetricFamily;
+import io.prometheus.client.GaugeMetricFamily;
+
+/**
+ * 导出 {@link RedisLockWatchdog} 的续期次数、续期失败次数和正在续期的锁的数量到 Prometheus
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午4:30:18
+ */
+public class RedisLockWatchdogCollector extends Collector {
+    private final RedisLockWatchdog watchdog;
+
+    /**
+     * 创建 Redis 缓存锁看门狗的 Prometheus 收集器
+     *
+     * @param watchdog Redis 缓存锁的看门狗
+     */
+    public RedisLockWatchdogCollector(RedisLockWatchdog watchdog) {
+        this.watchdog = watchdog;
+    }
+
+    @Override
+    public List<MetricFamilySamples> collect() {
+        return Arrays.asList(
+                new CounterMetricFamily("myoss_cache_lock_watchdog_renewals_total",
+                        "Number of successful cache lock lease renewals.", watchdog.getRenewalCount()),
+                new CounterMetricFamily("myoss_cache_lock_watchdog_renewal_failures_total",
+                        "Number of failed cache lock lease renewals.", watchdog.getRenewalFailureCount()),
+                new GaugeMetricFamily("myoss_cache_lock_watchdog_leases",
+                        "Number of cache lock leases being renewed.", watchdog.getLeaseCount()));
+    }
+}
@@ -36,5 +36,79 @@ public class RedisProperties {
     /**
      * 缓存锁的时间单位，默认为: 秒
      */
-    private TimeUnit lockTimeUnit = TimeUnit.SECONDS;
+    private TimeUnit lockTimeUnit               = TimeUnit.SECONDS;
+    /**
+     * 是否开启缓存锁的持有者令牌模式，默认为: false
+     * <p>
+     * 开启之后每次获取锁都会生成唯一的持有者令牌，释放锁的时候使用 Lua 脚本比较令牌之后再删除锁
+     *
+     * @see RedisTokenLockServiceImpl
+     */
+    private boolean  lockOwnerToken             = false;
+    /**
+     * 是否开启缓存锁的看门狗，默认为: false
+     * <p>
+     * 开启之后 executeByLock 执行回调函数期间会自动延长锁的过期时间，开启看门狗的时候会自动开启持有者令牌模式
+     *
+     * @see RedisLockWatchdog
+     */
+    private boolean  lockWatchdog               = false;
+    /**
+     * 缓存锁看门狗的调度间隔时间，单位：毫秒，默认为: 100，需要小于锁过期时间的 1/3
+     */
+    private long     lockWatchdogTickMillis     = 100L;
+    /**
+     * 是否开启锁释放的消息通知，默认为: false
+     * <p>
+     * 开启之后等待锁的线程会订阅锁释放的消息，锁释放之后立即重试获取锁，不用等到下一次轮询；开启的时候会自动开启持有者令牌模式
+     *
+     * @see RedisLockReleaseNotifier
+     */
+    private boolean  lockReleaseNotify          = false;
+    /**
+     * 锁释放的消息通道前缀，默认为: myoss-cloud:cache:lock:release:
+     */
+    private String   lockReleaseChannelPrefix   = "myoss-cloud:cache:lock:release:";
+    /**
+     * 是否开启本地锁，默认为: false
+     * <p>
+     * 开启之后同一个 JVM 中竞争同一个锁的线程，只有获取到本地锁的线程才会请求 Redis，降低锁竞争激烈时 Redis 的请求量；每个锁的名字对应一个独立的本地锁
+     *
+     * @see RedisLockServiceImpl#getLocalLocks()
+     */
+    private boolean  lockLocalLock              = false;
+    /**
+     * 是否开启缓存锁的 Prometheus 监控指标，默认为: true，需要依赖 io.prometheus:simpleclient
+     *
+     * @see app.myoss.cloud.cache.lock.metrics.PrometheusLockMetrics
+     */
+    private boolean  lockMetrics                = true;
+    /**
+     * 缓存锁监控指标中锁的名字模式数量的上限，默认为: 100，超过之后归为 other
+     *
+     * @see app.myoss.cloud.cache.lock.metrics.LockKeyPatternNormalizer
+     */
+    private int      lockMetricsMaxPatterns     = 100;
+    /**
+     * 持有锁的时间超过此阈值的时候输出 WARN 日志（包含 traceId），单位：毫秒，默认为: 0（不检查）
+     */
+    private long     lockSlowHoldThreshold      = 0L;
+    /**
+     * 分布式信号量获取许可失败之后，本地直接拒绝的时间，单位：毫秒，默认为: 10，小于等于 0 的时候不开启本地预检查
+     *
+     * @see RedisDistributedSemaphore
+     */
+    private long     semaphoreLocalDenyMillis   = 10L;
+    /**
+     * 分布式限流器请求被限流之后，本地直接拒绝的最长时间，单位：毫秒，默认为: 1000，小于等于 0 的时候不开启本地预检查
+     *
+     * @see RedisDistributedRateLimiter
+     */
+    private long     rateLimiterLocalDenyMillis = 1000L;
+    /**
+     * 分布式限流器没有获取到 Lua 脚本的执行结果的时候是否放行请求，默认为: false（拒绝请求）
+     *
+     * @see RedisDistributedRateLimiter
+     */
+    private boolean  rateLimiterFailOpen        = false;
 }
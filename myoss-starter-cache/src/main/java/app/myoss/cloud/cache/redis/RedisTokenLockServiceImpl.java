@@ -0,0 +1,319 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.redis;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+
+import org.springframework.core.NamedThreadLocal;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import app.myoss.cloud.cache.lock.functions.BaseLockFunction;
+import app.myoss.cloud.core.constants.MyossConstants;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Redis 缓存锁实现，每次获取锁的时候生成唯一的持有者令牌作为锁的值
+ * <p>
+ * 释放锁的时候使用 Lua 脚本 {@link RedisLockScripts#RELEASE_LOCK}
+ * 原子性的比较令牌并删除锁，只需要一次网络请求，即使持有者因为 GC 停顿等原因导致锁已经过期，也不会误删其它持有者的锁
+ * <p>
+ * {@link #getLock(Serializable, int, TimeUnit)} 获取的令牌保存在当前线程中，必须在同一个线程中调用
+ * {@link #releaseLock(Serializable)}；跨线程使用的时候，请使用 {@link #tryLock(Serializable, int, TimeUnit)}
+ * 和 {@link #unlock(Serializable, String)}
+ * <p>
+ * 设置了 {@link #watchdog} 之后，使用 executeByLock 执行回调函数期间，锁会被自动续期，回调函数执行完成之后停止续期
+ * <p>
+ * 设置了 {@link #releaseNotifier} 之后，释放锁的时候会发布锁释放的消息，等待锁的线程收到消息之后立即重试获取锁
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 上午11:05:12
+ */
+@Slf4j
+public class RedisTokenLockServiceImpl extends RedisLockServiceImpl {
+    private static final ThreadLocal<Map<Serializable, String>> HOLD_TOKENS = new NamedThreadLocal<>(
+            "Redis lock owner tokens");
+
+    /**
+     * 当前实例的唯一标识，和 {@link #sequence} 组成持有者令牌
+     */
+    private final String                                        instanceId  = UUID.randomUUID().toString();
+    private final AtomicLong                                    sequence    = new AtomicLong();
+    /**
+     * 锁的看门狗，为空的时候不自动续期
+     */
+    @Setter
+    @Getter
+    private RedisLockWatchdog                                   watchdog;
+    /**
+     * 锁释放的通知器，为空的时候使用轮询的方式等待锁释放
+     */
+    @Setter
+    @Getter
+    private RedisLockReleaseNotifier                            releaseNotifier;
+
+    /**
+     * 初始化 Redis 缓存锁实现
+     *
+     * @param redisTemplate Redis data access Template
+     * @param timeUnit 缓存锁的时间单位
+     */
+    public RedisTokenLockServiceImpl(RedisTemplate redisTemplate, TimeUnit timeUnit) {
+        super(redisTemplate, timeUnit);
+    }
+
+    /**
+     * 预加载 Lua 脚本到 Redis 中，后续直接使用 EVALSHA 执行脚本
+     */
+    public void loadScripts() {
+        loadScript(RedisLockScripts.RELEASE_LOCK);
+        loadScript(RedisLockScripts.RELEASE_LOCK_AND_NOTIFY);
+        loadScript(RedisLockScripts.RENEW_LOCK);
+        loadScript(RedisLockScripts.GET_LOCKS);
+        loadScript(RedisLockScripts.RELEASE_LOCKS);
+    }
+
+    /**
+     * 预加载 Lua 脚本到 Redis 中
+     *
+     * @param script Lua 脚本
+     */
+    protected void loadScript(RedisScript<?> script) {
+        byte[] scriptBytes = script.getScriptAsString().getBytes(MyossConstants.UTF_8);
+        String sha1 = (String) getRedisTemplate()
+                .execute((RedisCallback<String>) connection -> connection.scriptLoad(scriptBytes));
+        log.debug("load redis lock script, sha1: {}", sha1);
+    }
+
+    /**
+     * 生成唯一的持有者令牌
+     *
+     * @return 持有者令牌
+     */
+    protected String nextToken() {
+        return instanceId + ":" + sequence.incrementAndGet();
+    }
+
+    /**
+     * 获取锁，不会在当前线程中保存持有者令牌
+     *
+     * @param key 锁的名字
+     * @param expireTime 锁的过期时间
+     * @param timeUnit 缓存锁的时间单位
+     * @return 获取到锁返回持有者令牌，没有获取到锁返回 null
+     */
+    @SuppressWarnings("unchecked")
+    public String tryLock(Serializable key, int expireTime, TimeUnit timeUnit) {
+        String token = nextToken();
+        Boolean result = getRedisTemplate().opsForValue().setIfAbsent(key, token, expireTime, timeUnit);
+        return (Objects.equals(result, true) ? token : null);
+    }
+
+    /**
+     * 使用持有者令牌释放锁
+     *
+     * @param key 锁的名字
+     * @param token 持有者令牌
+     * @return true：释放锁成功，false：锁已经不属于此持有者
+     */
+    @SuppressWarnings("unchecked")
+    public boolean unlock(Serializable key, String token) {
+        Long result;
+        if (releaseNotifier != null) {
+            result = (Long) getRedisTemplate().execute(RedisLockScripts.RELEASE_LOCK_AND_NOTIFY,
+                    Collections.singletonList(key), token, releaseNotifier.getChannel(key));
+        } else {
+            result = (Long) getRedisTemplate().execute(RedisLockScripts.RELEASE_LOCK,
+                    Collections.singletonList(key), token);
+        }
+        return Objects.equals(result, 1L);
+    }
+
+    @Override
+    public boolean getLock(Serializable key, int expireTime, TimeUnit timeUnit) {
+        String token = tryLock(key, expireTime, timeUnit);
+        if (token == null) {
+            return false;
+        }
+        Map<Serializable, String> tokens = HOLD_TOKENS.get();
+        if (tokens == null) {
+            tokens = new HashMap<>(4);
+            HOLD_TOKENS.set(tokens);
+        }
+        tokens.put(key, token);
+        return true;
+    }
+
+    @Override
+    public boolean releaseLock(Serializable key) {
+        Map<Serializable, String> tokens = HOLD_TOKENS.get();
+        String token = (tokens != null ? tokens.remove(key) : null);
+        if (token == null) {
+            // 当前线程没有持有这个锁
+            return false;
+        }
+        if (tokens.isEmpty()) {
+            HOLD_TOKENS.remove();
+        }
+        return unlock(key, token);
+    }
+
+    @Override
+    public boolean getLocks(Collection<? extends Serializable> keys, int expireTime, TimeUnit timeUnit) {
+        List<Serializable> sortedKeys = sortKeys(keys);
+        // 每个锁使用各自的持有者令牌，看门狗按照令牌续期
+        List<String> tokens = new ArrayList<>(sortedKeys.size());
+        for (int i = 0; i < sortedKeys.size(); i++) {
+            tokens.add(nextToken());
+        }
+        if (!acquireLocks(sortedKeys, tokens, timeUnit.toMillis(expireTime))) {
+            return false;
+        }
+        Map<Serializable, String> holdTokens = HOLD_TOKENS.get();
+        if (holdTokens == null) {
+            holdTokens = new HashMap<>(sortedKeys.size() * 2);
+            HOLD_TOKENS.set(holdTokens);
+        }
+        for (int i = 0; i < sortedKeys.size(); i++) {
+            holdTokens.put(sortedKeys.get(i), tokens.get(i));
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public boolean releaseLocks(Collection<? extends Serializable> keys) {
+        List<Serializable> sortedKeys = sortKeys(keys);
+        Map<Serializable, String> holdTokens = HOLD_TOKENS.get();
+        if (holdTokens == null) {
+            // 当前线程没有持有锁
+            return false;
+        }
+        List<Serializable> holdKeys = new ArrayList<>(sortedKeys.size());
+        List<Object> args = new ArrayList<>(sortedKeys.size() + 1);
+        args.add(releaseNotifier != null ? releaseNotifier.getChannel("") : "");
+        for (Serializable key : sortedKeys) {
+            String token = holdTokens.remove(key);
+            if (token != null) {
+                holdKeys.add(key);
+                args.add(token);
+            }
+        }
+        if (holdTokens.isEmpty()) {
+            HOLD_TOKENS.remove();
+        }
+        if (holdKeys.isEmpty()) {
+            return false;
+        }
+        Long count = (Long) getRedisTemplate().execute(RedisLockScripts.RELEASE_LOCKS, holdKeys, args.toArray());
+        // 只释放当前线程持有令牌的锁，其它的锁不在这次请求中
+        return Objects.equals(count, (long) holdKeys.size());
+    }
+
+    /**
+     * 获取当前线程持有的锁的令牌
+     *
+     * @param key 锁的名字
+     * @return 持有者令牌，当前线程没有持有这个锁返回 null
+     */
+    protected String getHoldToken(Serializable key) {
+        Map<Serializable, String> tokens = HOLD_TOKENS.get();
+        return (tokens != null ? tokens.get(key) : null);
+    }
+
+    @Override
+    protected boolean tryGetLock(Serializable key, int expireTime, BaseLockFunction callback, Lock localLock) {
+        boolean isGetLock = super.tryGetLock(key, expireTime, callback, localLock);
+        if (isGetLock && watchdog != null) {
+            // 回调函数执行的时间可能超过锁的过期时间，由看门狗自动续期
+            watchdog.register(key, getHoldToken(key), getTimeUnit().toMillis(expireTime));
+        }
+        return isGetLock;
+    }
+
+    @Override
+    protected boolean tryGetLocks(List<Serializable> sortedKeys, int expireTime, BaseLockFunction callback) {
+        boolean isGetLock = super.tryGetLocks(sortedKeys, expireTime, callback);
+        if (isGetLock && watchdog != null) {
+            long ttlMillis = getTimeUnit().toMillis(expireTime);
+            for (Serializable key : sortedKeys) {
+                watchdog.register(key, getHoldToken(key), ttlMillis);
+            }
+        }
+        return isGetLock;
+    }
+
+    @Override
+    protected RetryWaiter newRetryWaiter(Serializable key) {
+        if (releaseNotifier == null) {
+            return super.newRetryWaiter(key);
+        }
+        // 整个重试过程只订阅一次，锁释放之后立即被唤醒，每次最长等待 sleepTime
+        RedisLockReleaseNotifier.Subscription subscription = releaseNotifier.subscribe(key);
+        return new RetryWaiter() {
+            @Override
+            public void await(long sleepTime) {
+                subscription.await(sleepTime);
+            }
+
+            @Override
+            public void close() {
+                subscription.close();
+            }
+        };
+    }
+
+    @Override
+    protected void releaseLockAfterExecute(Serializable key, int expireTime, long begin) {
+        if (watchdog != null) {
+            String token = getHoldToken(key);
+            if (token != null) {
+                watchdog.unregister(token);
+            }
+        }
+        // 比较令牌之后再删除锁，即使执行时间超过了锁的过期时间，也可以安全的释放锁
+        releaseLock(key);
+    }
+
+    @Override
+    protected void releaseLocksAfterExecute(List<Serializable> sortedKeys, int expireTime, long begin) {
+        if (watchdog != null) {
+            for (Serializable key : sortedKeys) {
+                String token = getHoldToken(key);
+                if (token != null) {
+                    watchdog.unregister(token);
+                }
+            }
+        }
+        releaseLocks(sortedKeys);
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.lock;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import app.myoss.cloud.cache.lock.functions.LockFunctionGeneric;
+import app.myoss.cloud.cache.redis.RedisLockServiceImpl;
+
+/**
+ * {@link LockService} 性能基准测试，不是单元测试，需要手动运行 {@link #main(String[])}
+ * <p>
+ * 同一个 JVM 中的多个线程竞争同一个锁，比较只使用 Redis 锁和先获取本地锁再请求 Redis 的两级锁的吞吐量，以及每秒对 Redis 的请求次数
+ * （redisRequests）。Redis 使用内存模拟，每次请求休眠 redisLatencyMicros 微秒模拟网络往返
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午9:48:15
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class LockServiceBenchmark {
+    private static final String                     HOT_KEY  = "hot-key";
+    private static final ThreadLocal<RedisCounters> COUNTERS = new ThreadLocal<>();
+    @Param({ "100" })
+    long                                            redisLatencyMicros;
+    private RedisLockServiceImpl                    redisLockService;
+    private RedisLockServiceImpl                    localLockService;
+    private LockFunctionGeneric<Boolean>            callback;
+
+    @Setup
+    public void setup() {
+        redisLockService = newLockService();
+        localLockService = newLockService();
+        localLockService.setLocalLocks(RedisLockServiceImpl.newLocalLocks());
+        callback = new LockFunctionGeneric<Boolean>() {
+            @Override
+            public Boolean onLockSuccess() {
+                // 模拟持有锁执行的业务
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(50));
+                return true;
+            }
+
+            @Override
+            public Boolean onLockFailed() {
+                return false;
+            }
+
+            @Override
+            public int tryLockTimes() {
+                return 10000;
+            }
+
+            @Override
+            public long tryLockSleepTime() {
+                return 1L;
+            }
+        };
+    }
+
+    private RedisLockServiceImpl newLockService() {
+        long latencyNanos = TimeUnit.MICROSECONDS.toNanos(redisLatencyMicros);
+        // 模拟 Redis 的 setIfAbsent 和 delete
+        Map<Serializable, String> redis = new ConcurrentHashMap<>();
+        return new RedisLockServiceImpl(null, TimeUnit.SECONDS) {
+            @Override
+            public boolean getLock(Serializable key, int expireTime, TimeUnit timeUnit) {
+                COUNTERS.get().redisRequests++;
+                LockSupport.parkNanos(latencyNanos);
+                return redis.putIfAbsent(key, "1") == null;
+            }
+
+            @Override
+            public boolean releaseLock(Serializable key) {
+                COUNTERS.get().redisRequests++;
+                LockSupport.parkNanos(latencyNanos);
+                return redis.remove(key) != null;
+            }
+        };
+    }
+
+    @Benchmark
+    public Boolean redisLock(RedisCounters counters) {
+        return redisLockService.executeByLock(HOT_KEY, 10, callback);
+    }
+
+    @Benchmark
+    public Boolean localAndRedisLock(RedisCounters counters) {
+        return localLockService.executeByLock(HOT_KEY, 10, callback);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(LockServiceBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+
+    /**
+     * 每个线程对 Redis 的请求次数，JMH 汇总之后输出每秒的请求次数
+     */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class RedisCounters {
+        public long redisRequests;
+
+        @Setup(Level.Iteration)
+        public void setup() {
+            redisRequests = 0;
+            COUNTERS.set(this);
+        }
+    }
+}
@@ -0,0 +1,394 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.lock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Serializable;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+
+import org.junit.Test;
+import org.springframework.util.backoff.BackOff;
+import org.springframework.util.backoff.BackOffExecution;
+import org.springframework.util.backoff.FixedBackOff;
+
+import com.github.benmanes.caffeine.cache.LoadingCache;
+
+import app.myoss.cloud.cache.lock.backoff.DeadlineBackOff;
+import app.myoss.cloud.cache.lock.backoff.ExponentialJitterBackOff;
+import app.myoss.cloud.cache.lock.functions.LockFunction;
+import app.myoss.cloud.cache.lock.functions.LockFunctionGeneric;
+import app.myoss.cloud.cache.lock.functions.LockFunctionGenericWithArgs;
+import app.myoss.cloud.cache.lock.metrics.LockMetrics;
+import app.myoss.cloud.cache.redis.RedisLockServiceImpl;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link LockService} 重试获取锁的测试类
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 上午10:12:30
+ */
+@Slf4j
+public class LockServiceTests {
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+    @Test
+    public void sleepShouldNotBusySpinTest() {
+        long sleepTime = 200L;
+        long cpuStart = threadMXBean.getCurrentThreadCpuTime();
+        long start = System.nanoTime();
+        LockService.sleep(sleepTime);
+        long cost = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        long cpuCost = TimeUnit.NANOSECONDS.toMillis(threadMXBean.getCurrentThreadCpuTime() - cpuStart);
+        log.info("sleep cost: {}ms, cpu cost: {}ms", cost, cpuCost);
+        assertThat(cost).isGreaterThanOrEqualTo(sleepTime);
+        // 忙等待会把整个等待时间都花在 CPU 上
+        assertThat(cpuCost).isLessThan(sleepTime / 4);
+    }
+
+    @Test
+    public void contentionCpuTimePerFailedAcquisitionTest() {
+        int tryLockTimes = 11;
+        AtomicInteger attempts = new AtomicInteger();
+        // 模拟锁一直被其它节点持有
+        RedisLockServiceImpl lockService = new RedisLockServiceImpl(null, TimeUnit.SECONDS) {
+            @Override
+            public boolean getLock(Serializable key, int expireTime, TimeUnit timeUnit) {
+                attempts.incrementAndGet();
+                return false;
+            }
+        };
+        long cpuStart = threadMXBean.getCurrentThreadCpuTime();
+        long start = System.nanoTime();
+        Boolean result = lockService.executeByLock("hot-key", 10, new LockFunctionGeneric<Boolean>() {
+            @Override
+            public Boolean onLockSuccess() {
+                return true;
+            }
+
+            @Override
+            public Boolean onLockFailed() {
+                return false;
+            }
+
+            @Override
+            public int tryLockTimes() {
+                return tryLockTimes;
+            }
+
+            @Override
+            public long tryLockSleepTime() {
+                return 20L;
+            }
+        });
+        long cost = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        long cpuCost = TimeUnit.NANOSECONDS.toMillis(threadMXBean.getCurrentThreadCpuTime() - cpuStart);
+        log.info("failed acquisitions: {}, cost: {}ms, cpu cost: {}ms, cpu cost per failed acquisition: {}ms",
+                attempts.get(), cost, cpuCost, (double) cpuCost / attempts.get());
+        assertThat(result).isFalse();
+        assertThat(attempts.get()).isEqualTo(tryLockTimes);
+        assertThat(cost).isGreaterThanOrEqualTo(200L);
+        assertThat(cpuCost).isLessThan(cost / 4);
+    }
+
+    @Test
+    public void localLockReduceRedisRequestsTest() throws Exception {
+        int threads = 8;
+        int withLocalLocks = countRedisRequests(threads, RedisLockServiceImpl.newLocalLocks());
+        // 只有获取到本地锁的线程才会请求 Redis，锁释放之后下一个线程一次就能获取到锁；和只使用 Redis 锁的性能对比参考
+        // LockServiceBenchmark
+        assertThat(withLocalLocks).isEqualTo(threads);
+    }
+
+    @Test
+    public void localLockShouldNotBlockOtherKeysTest() throws Exception {
+        Map<Serializable, AtomicInteger> attempts = new ConcurrentHashMap<>();
+        // 模拟 Redis 的 setIfAbsent 和 delete
+        Map<Serializable, String> redis = new ConcurrentHashMap<>();
+        RedisLockServiceImpl lockService = new RedisLockServiceImpl(null, TimeUnit.SECONDS) {
+            @Override
+            public boolean getLock(Serializable key, int expireTime, TimeUnit timeUnit) {
+                attempts.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+                return redis.putIfAbsent(key, "1") == null;
+            }
+
+            @Override
+            public boolean releaseLock(Serializable key) {
+                return redis.remove(key) != null;
+            }
+        };
+        lockService.setLocalLocks(RedisLockServiceImpl.newLocalLocks());
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        executorService.execute(() -> lockService.executeByLock("sku:1", 10, new LockFunction() {
+            @Override
+            public void onLockSuccess() {
+                holding.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public void onLockFailed() {
+            }
+        }));
+        try {
+            assertThat(holding.await(10, TimeUnit.SECONDS)).isTrue();
+            // 分段锁只有一个段的时候 sku:1 和 sku:2 会落在同一个段上，本地锁按照锁的名字区分之后互不影响
+            Boolean other = lockService.executeByLock("sku:2", 10, newLockCallback());
+            assertThat(other).isTrue();
+            assertThat(attempts.get("sku:2").get()).isEqualTo(1);
+            // 同一个锁的名字依然只在本地等待，不请求 Redis
+            Boolean same = lockService.executeByLock("sku:1", 10, newLockCallback());
+            assertThat(same).isFalse();
+            assertThat(attempts.get("sku:1").get()).isEqualTo(1);
+        } finally {
+            release.countDown();
+            executorService.shutdown();
+        }
+        assertThat(executorService.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(redis).isEmpty();
+    }
+
+    private static LockFunctionGeneric<Boolean> newLockCallback() {
+        return new LockFunctionGeneric<Boolean>() {
+            @Override
+            public Boolean onLockSuccess() {
+                return true;
+            }
+
+            @Override
+            public Boolean onLockFailed() {
+                return false;
+            }
+        };
+    }
+
+    private int countRedisRequests(int threads, LoadingCache<Serializable, Lock> localLocks) throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicInteger success = new AtomicInteger();
+        // 模拟 Redis 的 setIfAbsent 和 delete
+        Map<Serializable, String> redis = new ConcurrentHashMap<>();
+        RedisLockServiceImpl lockService = new RedisLockServiceImpl(null, TimeUnit.SECONDS) {
+            @Override
+            public boolean getLock(Serializable key, int expireTime, TimeUnit timeUnit) {
+                attempts.incrementAndGet();
+                return redis.putIfAbsent(key, "1") == null;
+            }
+
+            @Override
+            public boolean releaseLock(Serializable key) {
+                return redis.remove(key) != null;
+            }
+        };
+        lockService.setLocalLocks(localLocks);
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            executorService.execute(() -> lockService.executeByLock("hot-key", 10, new LockFunction() {
+                @Override
+                public void onLockSuccess() {
+                    LockService.sleep(20L);
+                    success.incrementAndGet();
+                }
+
+                @Override
+                public void onLockFailed() {
+                }
+
+                @Override
+                public int tryLockTimes() {
+                    return 200;
+                }
+
+                @Override
+                public long tryLockSleepTime() {
+                    return 5L;
+                }
+            }));
+        }
+        executorService.shutdown();
+        assertThat(executorService.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(success.get()).isEqualTo(threads);
+        return attempts.get();
+    }
+
+    @Test
+    public void executeByLocksSortedKeysTest() {
+        List<List<Serializable>> acquired = new ArrayList<>();
+        List<Collection<? extends Serializable>> released = new ArrayList<>();
+        RedisLockServiceImpl lockService = new RedisLockServiceImpl(null, TimeUnit.SECONDS) {
+            @Override
+            protected boolean acquireLocks(List<Serializable> sortedKeys, List<String> values, long expireMillis) {
+                acquired.add(sortedKeys);
+                return true;
+            }
+
+            @Override
+            public boolean releaseLocks(Collection<? extends Serializable> keys) {
+                released.add(keys);
+                return true;
+            }
+        };
+        Boolean result = lockService.executeByLocks(Arrays.asList("sku:3", "sku:1", "sku:2", "sku:1"), 10,
+                new LockFunctionGeneric<Boolean>() {
+                    @Override
+                    public Boolean onLockSuccess() {
+                        return true;
+                    }
+
+                    @Override
+                    public Boolean onLockFailed() {
+                        return false;
+                    }
+                });
+        assertThat(result).isTrue();
+        // 去重并按照固定的顺序获取锁，一次请求获取全部的锁，一次请求释放全部的锁
+        assertThat(acquired).containsExactly(Arrays.asList("sku:1", "sku:2", "sku:3"));
+        assertThat(released).containsExactly(Arrays.asList("sku:1", "sku:2", "sku:3"));
+    }
+
+    @Test
+    public void executeByLocksWithArgsTest() {
+        List<List<Serializable>> acquired = new ArrayList<>();
+        MultiLockService lockService = new RedisLockServiceImpl(null, TimeUnit.SECONDS) {
+            @Override
+            protected boolean acquireLocks(List<Serializable> sortedKeys, List<String> values, long expireMillis) {
+                acquired.add(sortedKeys);
+                return true;
+            }
+
+            @Override
+            public boolean releaseLocks(Collection<? extends Serializable> keys) {
+                return true;
+            }
+        };
+        String result = lockService.executeByLocks(Arrays.asList("sku:2", "sku:1"), 10,
+                new LockFunctionGenericWithArgs<String>() {
+                    @Override
+                    public String onLockSuccess(Object... args) {
+                        return "success:" + args[0];
+                    }
+
+                    @Override
+                    public String onLockFailed(Object... args) {
+                        return "failed:" + args[0];
+                    }
+                }, "order:1");
+        assertThat(result).isEqualTo("success:order:1");
+        // 批量获取锁的回调函数和 executeByLock 一样支持传入参数
+        assertThat(acquired).containsExactly(Arrays.asList("sku:1", "sku:2"));
+    }
+
+    @Test
+    public void executeByLocksRecordMetricsPerKeyTest() {
+        List<Serializable> acquireKeys = new ArrayList<>();
+        List<Serializable> holdKeys = new ArrayList<>();
+        RedisLockServiceImpl lockService = new RedisLockServiceImpl(null, TimeUnit.SECONDS) {
+            @Override
+            protected boolean acquireLocks(List<Serializable> sortedKeys, List<String> values, long expireMillis) {
+                return true;
+            }
+
+            @Override
+            public boolean releaseLocks(Collection<? extends Serializable> keys) {
+                return true;
+            }
+        };
+        lockService.setLockMetrics(new LockMetrics() {
+            @Override
+            public void recordAcquire(Serializable key, boolean success, int attempts, long waitNanos) {
+                acquireKeys.add(key);
+            }
+
+            @Override
+            public void recordHold(Serializable key, long holdNanos) {
+                holdKeys.add(key);
+            }
+        });
+        assertThat(lockService.executeByLocks(Arrays.asList("sku:2", "sku:1"), 10, newLockCallback())).isTrue();
+        // 批量锁的每个锁都记录获取锁和持有锁的监控指标，不只是排序之后的第一个锁
+        assertThat(acquireKeys).containsExactly("sku:1", "sku:2");
+        assertThat(holdKeys).containsExactly("sku:1", "sku:2");
+    }
+
+    @Test
+    public void defaultBackOffTest() {
+        LockFunctionGeneric<Boolean> callback = new LockFunctionGeneric<Boolean>() {
+            @Override
+            public Boolean onLockSuccess() {
+                return true;
+            }
+
+            @Override
+            public Boolean onLockFailed() {
+                return false;
+            }
+
+            @Override
+            public int tryLockTimes() {
+                return 3;
+            }
+        };
+        BackOff backOff = callback.tryLockBackOff();
+        assertThat(backOff).isInstanceOf(FixedBackOff.class);
+        BackOffExecution execution = backOff.start();
+        assertThat(execution.nextBackOff()).isEqualTo(10L);
+        assertThat(execution.nextBackOff()).isEqualTo(10L);
+        assertThat(execution.nextBackOff()).isEqualTo(BackOffExecution.STOP);
+    }
+
+    @Test
+    public void exponentialJitterBackOffTest() {
+        BackOffExecution execution = new ExponentialJitterBackOff(10, 2, 50, 5).start();
+        assertThat(execution.nextBackOff()).isBetween(5L, 10L);
+        assertThat(execution.nextBackOff()).isBetween(10L, 20L);
+        assertThat(execution.nextBackOff()).isBetween(20L, 40L);
+        assertThat(execution.nextBackOff()).isBetween(25L, 50L);
+        assertThat(execution.nextBackOff()).isBetween(25L, 50L);
+        assertThat(execution.nextBackOff()).isEqualTo(BackOffExecution.STOP);
+    }
+
+    @Test
+    public void deadlineBackOffTest() {
+        BackOffExecution execution = new DeadlineBackOff(new FixedBackOff(30L, FixedBackOff.UNLIMITED_ATTEMPTS), 50L)
+                .start();
+        assertThat(execution.nextBackOff()).isEqualTo(30L);
+        LockService.sleep(30L);
+        assertThat(execution.nextBackOff()).isLessThanOrEqualTo(20L);
+        LockService.sleep(30L);
+        assertThat(execution.nextBackOff()).isEqualTo(BackOffExecution.STOP);
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package app.myoss.cloud.cache.lock.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import app.myoss.cloud.cache.lock.LockService;
+import app.myoss.cloud.cache.lock.functions.LockFunctionGeneric;
+import app.myoss.cloud.cache.redis.RedisLockServiceImpl;
+import io.prometheus.client.CollectorRegistry;
+
+/**
+ * 缓存锁监控指标的测试类
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午4:30:18
+ */
+public class LockMetricsTests {
+    @Test
+    public void normalizeKeyPatternTest() {
+        LockKeyPatternNormalizer normalizer = new LockKeyPatternNormalizer(2);
+        assertThat(normalizer.normalize("order:lock:10086")).isEqualTo("order:lock:*");
+        assertThat(normalizer.normalize("order:lock:10010")).isEqualTo("order:lock:*");
+        assertThat(normalizer.normalize("user:3f2504e0-4f89-11d3-9a0c-0305e82c3301")).isEqualTo("user:*");
+        // 超过模式数量的上限
+        assertThat(normalizer.normalize("sku:lock:1")).isEqualTo(LockKeyPatternNormalizer.OTHER_PATTERN);
+        assertThat(normalizer.normalize("user:1")).isEqualTo("user:*");
+    }
+
+    @Test
+    public void recordAcquireAndHoldTest() {
+        CollectorRegistry registry = new CollectorRegistry();
+        AtomicInteger attempts = new AtomicInteger();
+        RedisLockServiceImpl lockService = new RedisLockServiceImpl(null, TimeUnit.SECONDS) {
+            @Override
+            public boolean getLock(Serializable key, int expireTime, TimeUnit timeUnit) {
+                // 第三次才获取到锁
+                return attempts.incrementAndGet() >= 3;
+            }
+
+            @Override
+            public boolean releaseLock(Serializable key) {
+                return true;
+            }
+        };
+        lockService.setLockMetrics(new PrometheusLockMetrics(registry, new LockKeyPatternNormalizer(10)));
+        Boolean result = lockService.executeByLock("order:lock:10086", 10, new LockFunctionGeneric<Boolean>() {
+            @Override
+            public Boolean onLockSuccess() {
+                LockService.sleep(10L);
+                return true;
+            }
+
+            @Override
+            public Boolean onLockFailed() {
+                return false;
+            }
+
+            @Override
+            public int tryLockTimes() {
+                return 5;
+            }
+
+            @Override
+            public long tryLockSleepTime() {
+                return 5L;
+            }
+        });
+        assertThat(result).isTrue();
+        String[] acquireLabels = { "pattern", "result" };
+        assertThat(registry.getSampleValue("myoss_cache_lock_acquire_seconds_count", acquireLabels,
+                new String[] { "order:lock:*", "success" })).isEqualTo(1.0);
+        assertThat(registry.getSampleValue("myoss_cache_lock_retries_total", new String[] { "pattern" },
+                new String[] { "order:lock:*" })).isEqualTo(2.0);
+        assertThat(registry.getSampleValue("myoss_cache_lock_hold_seconds_sum", new String[] { "pattern" },
+                new String[] { "order:lock:*" })).isGreaterThan(0.0);
+    }
+
+    @Test
+    public void registerTwiceInSameRegistryTest() {
+        CollectorRegistry registry = new CollectorRegistry();
+        String[] labelNames = { "pattern" };
+        String[] labelValues = { "order:lock:*" };
+        PrometheusLockMetrics first = new PrometheusLockMetrics(registry, new LockKeyPatternNormalizer(10));
+        // 模拟另外一个 Spring 容器使用同一个收集器，不会因为指标已经注册而失败
+        PrometheusLockMetrics second = new PrometheusLockMetrics(registry, new LockKeyPatternNormalizer(10));
+        first.recordHold("order:lock:1", TimeUnit.MILLISECONDS.toNanos(10));
+        second.recordHold("order:lock:2", TimeUnit.MILLISECONDS.toNanos(10));
+        assertThat(registry.getSampleValue("myoss_cache_lock_hold_seconds_count", labelNames, labelValues))
+                .isEqualTo(1.0);
+
+        // 注销之后，可以重新注册
+        first.close();
+        assertThat(registry.getSampleValue("myoss_cache_lock_hold_seconds_count", labelNames, labelValues)).isNull();
+        second.close();
+        PrometheusLockMetrics third = new PrometheusLockMetrics(registry, new LockKeyPatternNormalizer(10));
+        third.recordHold("order:lock:3", TimeUnit.MILLISECONDS.toNanos(10));
+        assertThat(registry.getSampleValue("myoss_cache_lock_hold_seconds_count", labelNames, labelValues))
+                .isEqualTo(1.0);
+        third.close();
+    }
+}
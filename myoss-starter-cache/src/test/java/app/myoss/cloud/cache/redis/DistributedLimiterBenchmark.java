@@ -0,0 +1,124 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package app.myoss.cloud.cache.redis;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * {@link RedisDistributedSemaphore}、{@link RedisDistributedRateLimiter} 性能基准测试，不是单元测试，需要手动运行
+ * {@link #main(String[])}
+ * <p>
+ * Redis 一直拒绝请求（信号量没有可用的许可、令牌桶的令牌不足、滑动窗口的请求数达到上限），比较开启本地预检查（*LocalDeny）和每次都请求
+ * Redis（*RedisOnly）的吞吐量。Redis 使用 {@link StubRedisTemplate} 模拟，每次执行 Lua 脚本休眠 redisLatencyMicros
+ * 微秒模拟网络往返
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午10:10:51
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class DistributedLimiterBenchmark {
+    private static final String         KEY        = "api:order";
+    private static final String         WINDOW_KEY = "api:order:window";
+    @Param({ "100" })
+    long                                redisLatencyMicros;
+    private RedisDistributedSemaphore   localDenySemaphore;
+    private RedisDistributedSemaphore   redisOnlySemaphore;
+    private RedisDistributedRateLimiter localDenyRateLimiter;
+    private RedisDistributedRateLimiter redisOnlyRateLimiter;
+
+    @Setup
+    public void setup() {
+        long latencyNanos = TimeUnit.MICROSECONDS.toNanos(redisLatencyMicros);
+        StubRedisTemplate redisTemplate = new StubRedisTemplate();
+        redisTemplate.registerScript(RedisLockScripts.ACQUIRE_PERMIT, (keys, args) -> {
+            LockSupport.parkNanos(latencyNanos);
+            return 0L;
+        });
+        // 令牌桶和滑动窗口都需要再等待 1 分钟，本地预检查在整个测试期间都会拒绝请求
+        redisTemplate.registerScript(RedisLockScripts.TOKEN_BUCKET, (keys, args) -> {
+            LockSupport.parkNanos(latencyNanos);
+            return TimeUnit.MINUTES.toMillis(1);
+        });
+        redisTemplate.registerScript(RedisLockScripts.SLIDING_WINDOW, (keys, args) -> {
+            LockSupport.parkNanos(latencyNanos);
+            return TimeUnit.MINUTES.toMillis(1);
+        });
+        localDenySemaphore = new RedisDistributedSemaphore(redisTemplate, TimeUnit.MINUTES.toMillis(1));
+        redisOnlySemaphore = new RedisDistributedSemaphore(redisTemplate, 0L);
+        localDenyRateLimiter = new RedisDistributedRateLimiter(redisTemplate, TimeUnit.MINUTES.toMillis(1));
+        redisOnlyRateLimiter = new RedisDistributedRateLimiter(redisTemplate, 0L);
+    }
+
+    @Benchmark
+    public String semaphoreLocalDeny() {
+        return localDenySemaphore.tryAcquire(KEY, 10, 1, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public String semaphoreRedisOnly() {
+        return redisOnlySemaphore.tryAcquire(KEY, 10, 1, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public boolean tokenBucketLocalDeny() {
+        return localDenyRateLimiter.tryAcquire(KEY, 10, 10);
+    }
+
+    @Benchmark
+    public boolean tokenBucketRedisOnly() {
+        return redisOnlyRateLimiter.tryAcquire(KEY, 10, 10);
+    }
+
+    @Benchmark
+    public boolean slidingWindowLocalDeny() {
+        return localDenyRateLimiter.tryAcquire(WINDOW_KEY, 10, 1, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public boolean slidingWindowRedisOnly() {
+        return redisOnlyRateLimiter.tryAcquire(WINDOW_KEY, 10, 1, TimeUnit.SECONDS);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(DistributedLimiterBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+}
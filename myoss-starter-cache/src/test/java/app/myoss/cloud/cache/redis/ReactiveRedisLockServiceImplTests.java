@@ -0,0 +1,170 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package app.myoss.cloud.cache.redis;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import org.springframework.util.backoff.FixedBackOff;
+
+import app.myoss.cloud.cache.lock.functions.LockFunctionGeneric;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link ReactiveRedisLockServiceImpl} 释放锁的测试类，使用 Mockito 模拟 {@link ReactiveStringRedisTemplate}
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午8:55:47
+ */
+public class ReactiveRedisLockServiceImplTests {
+    private final Map<String, String>    values   = new ConcurrentHashMap<>();
+    private final AtomicInteger          releases = new AtomicInteger();
+    private ReactiveRedisLockServiceImpl lockService;
+
+    @SuppressWarnings("unchecked")
+    @Before
+    public void setUp() {
+        ReactiveValueOperations<String, String> operations = Mockito.mock(ReactiveValueOperations.class);
+        Mockito.when(operations.setIfAbsent(ArgumentMatchers.anyString(), ArgumentMatchers.anyString(),
+                ArgumentMatchers.any(Duration.class))).thenAnswer(invocation -> Mono.fromCallable(
+                        () -> values.putIfAbsent(invocation.getArgument(0), invocation.getArgument(1)) == null));
+        ReactiveStringRedisTemplate redisTemplate = Mockito.mock(ReactiveStringRedisTemplate.class);
+        Mockito.when(redisTemplate.opsForValue()).thenReturn(operations);
+        Mockito.when(redisTemplate.execute(ArgumentMatchers.eq(RedisLockScripts.RELEASE_LOCK),
+                ArgumentMatchers.anyList(), ArgumentMatchers.anyList())).thenAnswer(invocation -> Flux.defer(() -> {
+                    List<String> keys = invocation.getArgument(1);
+                    List<?> args = invocation.getArgument(2);
+                    releases.incrementAndGet();
+                    return Flux.just(values.remove(keys.get(0), args.get(0)) ? 1L : 0L);
+                }));
+        lockService = new ReactiveRedisLockServiceImpl(redisTemplate, TimeUnit.SECONDS);
+    }
+
+    private Mono<String> executeByLock(Mono<String> onLockSuccess) {
+        return lockService.executeByLock("order:1", 10, new FixedBackOff(10L, 2L), () -> onLockSuccess,
+                () -> Mono.just("failed"));
+    }
+
+    @Test
+    public void successTest() {
+        assertThat(executeByLock(Mono.fromCallable(() -> {
+            assertThat(values).containsKey("order:1");
+            return "success";
+        })).block()).isEqualTo("success");
+        assertThat(values).isEmpty();
+        assertThat(releases.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void errorTest() {
+        assertThatThrownBy(() -> executeByLock(Mono.error(new IllegalStateException("error"))).block())
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(values).isEmpty();
+        assertThat(releases.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void emptyTest() {
+        assertThat(executeByLock(Mono.empty()).block()).isNull();
+        assertThat(values).isEmpty();
+        assertThat(releases.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void cancelTest() {
+        Disposable disposable = executeByLock(Mono.never()).subscribe();
+        assertThat(values).containsKey("order:1");
+
+        disposable.dispose();
+        assertThat(values).isEmpty();
+        assertThat(releases.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void timeoutTest() {
+        assertThat(executeByLock(Mono.never()).timeout(Duration.ofMillis(50L))
+                .onErrorReturn(TimeoutException.class, "timeout")
+                .block()).isEqualTo("timeout");
+        assertThat(values).isEmpty();
+        assertThat(releases.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void lockFailedTest() {
+        values.put("order:1", "other-instance:1");
+        assertThat(executeByLock(Mono.just("success")).block()).isEqualTo("failed");
+        assertThat(values).containsEntry("order:1", "other-instance:1");
+        assertThat(releases.get()).isZero();
+    }
+
+    @Test
+    public void completableFutureTest() throws Exception {
+        CompletableFuture<String> future = lockService.executeByLockAsync("order:1", 10,
+                new LockFunctionGeneric<String>() {
+                    @Override
+                    public String onLockSuccess() {
+                        return "success";
+                    }
+
+                    @Override
+                    public String onLockFailed() {
+                        return "failed";
+                    }
+                });
+        assertThat(future.get(1, TimeUnit.SECONDS)).isEqualTo("success");
+        assertThat(values).isEmpty();
+        assertThat(releases.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void completableFutureErrorTest() {
+        CompletableFuture<String> future = lockService.executeByLockAsync("order:1", 10,
+                new LockFunctionGeneric<String>() {
+                    @Override
+                    public String onLockSuccess() {
+                        throw new IllegalStateException("error");
+                    }
+
+                    @Override
+                    public String onLockFailed() {
+                        return "failed";
+                    }
+                });
+        assertThatThrownBy(() -> future.get(1, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(values).isEmpty();
+        assertThat(releases.get()).isEqualTo(1);
+    }
+}
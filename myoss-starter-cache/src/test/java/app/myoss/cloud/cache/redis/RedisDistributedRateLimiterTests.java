@@ -0,0 +1,136 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package app.myoss.cloud.cache.redis;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import app.myoss.cloud.cache.lock.LockService;
+
+/**
+ * {@link RedisDistributedRateLimiter} 本地预检查和滑动窗口的测试类
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午5:12:40
+ */
+public class RedisDistributedRateLimiterTests {
+    @Test
+    public void localDenyShouldSkipRedisTest() {
+        AtomicInteger redisRequests = new AtomicInteger();
+        RedisDistributedRateLimiter rateLimiter = new RedisDistributedRateLimiter(null, 1000L) {
+            @Override
+            protected long acquireTokens(Serializable key, long capacity, double permitsPerSecond, int permits) {
+                // 第一次获取到令牌，之后令牌不足，需要等待 50ms
+                return (redisRequests.incrementAndGet() == 1 ? 0L : 50L);
+            }
+        };
+        assertThat(rateLimiter.tryAcquire("api:order", 1, 20)).isTrue();
+        for (int i = 0; i < 100; i++) {
+            assertThat(rateLimiter.tryAcquire("api:order", 1, 20)).isFalse();
+        }
+        // 被限流之后，等待时间内直接在本地拒绝
+        assertThat(redisRequests.get()).isEqualTo(2);
+        // 其它的令牌桶不受影响
+        rateLimiter.tryAcquire("api:user", 1, 20);
+        assertThat(redisRequests.get()).isEqualTo(3);
+
+        LockService.sleep(60L);
+        rateLimiter.tryAcquire("api:order", 1, 20);
+        assertThat(redisRequests.get()).isEqualTo(4);
+    }
+
+    @Test
+    public void disableLocalDenyTest() {
+        AtomicInteger redisRequests = new AtomicInteger();
+        RedisDistributedRateLimiter rateLimiter = new RedisDistributedRateLimiter(null, 0L) {
+            @Override
+            protected long acquireTokens(Serializable key, long capacity, double permitsPerSecond, int permits) {
+                redisRequests.incrementAndGet();
+                return 50L;
+            }
+        };
+        for (int i = 0; i < 10; i++) {
+            assertThat(rateLimiter.tryAcquire("api:order", 1, 20)).isFalse();
+        }
+        assertThat(redisRequests.get()).isEqualTo(10);
+    }
+
+    @Test
+    public void noResultFailClosedTest() {
+        RedisDistributedRateLimiter rateLimiter = new RedisDistributedRateLimiter(null, 1000L) {
+            @Override
+            protected long acquireTokens(Serializable key, long capacity, double permitsPerSecond, int permits) {
+                return NO_RESULT;
+            }
+        };
+        // 默认拒绝请求
+        assertThat(rateLimiter.tryAcquire("api:order", 1, 20)).isFalse();
+    }
+
+    @Test
+    public void noResultFailOpenTest() {
+        AtomicInteger redisRequests = new AtomicInteger();
+        RedisDistributedRateLimiter rateLimiter = new RedisDistributedRateLimiter(null, 1000L, true) {
+            @Override
+            protected long acquireTokens(Serializable key, long capacity, double permitsPerSecond, int permits) {
+                redisRequests.incrementAndGet();
+                return NO_RESULT;
+            }
+        };
+        assertThat(rateLimiter.tryAcquire("api:order", 1, 20)).isTrue();
+        // 没有获取到结果的时候不会在本地拒绝
+        assertThat(rateLimiter.tryAcquire("api:order", 1, 20)).isTrue();
+        assertThat(redisRequests.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void slidingWindowLocalDenyTest() {
+        AtomicInteger redisRequests = new AtomicInteger();
+        RedisDistributedRateLimiter rateLimiter = new RedisDistributedRateLimiter(null, 1000L) {
+            @Override
+            protected long acquireWindow(Serializable key, long limit, long windowMillis, int permits) {
+                assertThat(windowMillis).isEqualTo(1000L);
+                // 第一次获取到配额，之后窗口内的请求数达到上限，需要等待 50ms
+                return (redisRequests.incrementAndGet() == 1 ? 0L : 50L);
+            }
+        };
+        assertThat(rateLimiter.tryAcquire("api:order", 1, 1, TimeUnit.SECONDS)).isTrue();
+        for (int i = 0; i < 100; i++) {
+            assertThat(rateLimiter.tryAcquire("api:order", 1, 1, TimeUnit.SECONDS)).isFalse();
+        }
+        // 被限流之后，等待时间内直接在本地拒绝
+        assertThat(redisRequests.get()).isEqualTo(2);
+
+        LockService.sleep(60L);
+        rateLimiter.tryAcquire("api:order", 1, 1, TimeUnit.SECONDS);
+        assertThat(redisRequests.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void slidingWindowPermitsExceedLimitTest() {
+        RedisDistributedRateLimiter rateLimiter = new RedisDistributedRateLimiter(null, 1000L);
+        // 配额超过窗口内的上限，永远不可能获取成功
+        assertThatThrownBy(() -> rateLimiter.tryAcquire("api:order", 2, 1, TimeUnit.SECONDS, 3))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.redis;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * {@link RedisDistributedSemaphore} 测试类，使用 {@link StubRedisTemplate} 模拟 Redis，许可的过期时间使用模拟的 Redis
+ * 服务端时间计算
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午9:01:19
+ */
+public class RedisDistributedSemaphoreTests {
+    private final AtomicLong                           redisTime     = new AtomicLong(1_000_000L);
+    private final Map<Serializable, Map<Object, Long>> permits       = new ConcurrentHashMap<>();
+    private final StubRedisTemplate                    redisTemplate = new StubRedisTemplate();
+
+    @Before
+    public void setUp() {
+        // 模拟 Lua 脚本，ARGV 中不再包含客户端的时间
+        redisTemplate.registerScript(RedisLockScripts.ACQUIRE_PERMIT, (keys, args) -> {
+            assertThat(args).hasSize(3);
+            long now = redisTime.get();
+            Map<Object, Long> holders = permits.computeIfAbsent(keys.get(0), key -> new ConcurrentHashMap<>());
+            holders.values().removeIf(expireAt -> expireAt <= now);
+            if (holders.size() < Integer.parseInt((String) args[0])) {
+                holders.put(args[2], now + Long.parseLong((String) args[1]));
+                return 1L;
+            }
+            return 0L;
+        });
+        redisTemplate.registerScript(RedisLockScripts.RELEASE_PERMIT, (keys, args) -> {
+            Map<Object, Long> holders = permits.get(keys.get(0));
+            return (holders != null && holders.remove(args[0]) != null ? 1L : 0L);
+        });
+    }
+
+    @Test
+    public void acquireAndReleaseTest() {
+        RedisDistributedSemaphore semaphore = new RedisDistributedSemaphore(redisTemplate, 0L);
+        String first = semaphore.tryAcquire("report", 2, 10, TimeUnit.SECONDS);
+        String second = semaphore.tryAcquire("report", 2, 10, TimeUnit.SECONDS);
+        assertThat(first).isNotNull();
+        assertThat(second).isNotNull().isNotEqualTo(first);
+        assertThat(semaphore.tryAcquire("report", 2, 10, TimeUnit.SECONDS)).isNull();
+        // 其它的信号量不受影响
+        assertThat(semaphore.tryAcquire("export", 2, 10, TimeUnit.SECONDS)).isNotNull();
+
+        assertThat(semaphore.release("report", first)).isTrue();
+        assertThat(semaphore.release("report", first)).isFalse();
+        assertThat(semaphore.tryAcquire("report", 2, 10, TimeUnit.SECONDS)).isNotNull();
+    }
+
+    @Test
+    public void expiredPermitTest() {
+        RedisDistributedSemaphore semaphore = new RedisDistributedSemaphore(redisTemplate, 0L);
+        String permitId = semaphore.tryAcquire("report", 1, 100, TimeUnit.MILLISECONDS);
+        assertThat(permitId).isNotNull();
+        redisTime.addAndGet(99L);
+        assertThat(semaphore.tryAcquire("report", 1, 100, TimeUnit.MILLISECONDS)).isNull();
+
+        // 超过租期之后许可自动失效，按照 Redis 服务端的时间判断
+        redisTime.addAndGet(1L);
+        assertThat(semaphore.tryAcquire("report", 1, 100, TimeUnit.MILLISECONDS)).isNotNull();
+        assertThat(semaphore.release("report", permitId)).isFalse();
+    }
+
+    @Test
+    public void localDenyShouldSkipRedisTest() {
+        RedisDistributedSemaphore semaphore = new RedisDistributedSemaphore(redisTemplate, 1000L);
+        String permitId = semaphore.tryAcquire("report", 1, 10, TimeUnit.SECONDS);
+        assertThat(permitId).isNotNull();
+        assertThat(semaphore.tryAcquire("report", 1, 10, TimeUnit.SECONDS)).isNull();
+        int requests = redisTemplate.getRequests().get();
+        for (int i = 0; i < 100; i++) {
+            assertThat(semaphore.tryAcquire("report", 1, 10, TimeUnit.SECONDS)).isNull();
+        }
+        // 获取许可失败之后，本地直接拒绝
+        assertThat(redisTemplate.getRequests().get()).isEqualTo(requests);
+
+        // 当前 JVM 释放许可之后清除本地的拒绝标记
+        assertThat(semaphore.release("report", permitId)).isTrue();
+        assertThat(semaphore.tryAcquire("report", 1, 10, TimeUnit.SECONDS)).isNotNull();
+        assertThat(redisTemplate.getRequests().get()).isEqualTo(requests + 2);
+    }
+
+    @Test
+    public void executeByPermitTest() {
+        RedisDistributedSemaphore semaphore = new RedisDistributedSemaphore(redisTemplate, 0L);
+        String result = semaphore.executeByPermit("report", 1, 10, TimeUnit.SECONDS, () -> {
+            // 许可已经被外层持有
+            String inner = semaphore.executeByPermit("report", 1, 10, TimeUnit.SECONDS, () -> "acquired",
+                    () -> "rejected");
+            return "acquired, " + inner;
+        }, () -> "rejected");
+        assertThat(result).isEqualTo("acquired, rejected");
+        // 执行完成之后释放许可
+        assertThat(permits.get("report")).isEmpty();
+    }
+}
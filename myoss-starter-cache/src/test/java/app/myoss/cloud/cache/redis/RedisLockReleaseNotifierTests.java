@@ -0,0 +1,321 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package app.myoss.cloud.cache.redis;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.listener.Topic;
+import org.springframework.util.backoff.BackOff;
+import org.springframework.util.backoff.FixedBackOff;
+
+import app.myoss.cloud.cache.lock.functions.LockFunctionGeneric;
+import app.myoss.cloud.core.constants.MyossConstants;
+
+/**
+ * {@link RedisLockReleaseNotifier} 和 {@link RedisTokenLockServiceImpl#newRetryWaiter(Serializable)} 测试类，使用
+ * {@link StubRedisTemplate} 模拟 Redis，Lua 脚本发布的消息直接交给通知器处理
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午9:18:48
+ */
+public class RedisLockReleaseNotifierTests {
+    private static final String       CHANNEL_PREFIX = "lock-released:";
+
+    /**
+     * Lua 脚本发布消息的通道
+     */
+    private final List<String>        published      = new CopyOnWriteArrayList<>();
+    /**
+     * 订阅锁释放的通知的次数
+     */
+    private final AtomicInteger       subscribes     = new AtomicInteger();
+    private final CountDownLatch      awaiting       = new CountDownLatch(1);
+    private final StubRedisTemplate   redisTemplate  = new StubRedisTemplate();
+    private RedisLockReleaseNotifier  notifier;
+    private RedisTokenLockServiceImpl lockService;
+
+    private static Message message(String key) {
+        return new DefaultMessage((CHANNEL_PREFIX + key).getBytes(MyossConstants.UTF_8),
+                key.getBytes(MyossConstants.UTF_8));
+    }
+
+    private void publish(String channel, Serializable key) {
+        published.add(channel);
+        notifier.onMessage(new DefaultMessage(channel.getBytes(MyossConstants.UTF_8),
+                String.valueOf(key).getBytes(MyossConstants.UTF_8)), null);
+    }
+
+    @Before
+    public void setUp() {
+        notifier = new RedisLockReleaseNotifier(CHANNEL_PREFIX, null) {
+            @Override
+            public Subscription subscribe(Serializable key) {
+                Subscription subscription = super.subscribe(key);
+                subscribes.incrementAndGet();
+                awaiting.countDown();
+                return subscription;
+            }
+        };
+        redisTemplate.registerScript(RedisLockScripts.RELEASE_LOCK_AND_NOTIFY, (keys, args) -> {
+            assertThat(args).hasSize(2);
+            if (!redisTemplate.getValues().remove(keys.get(0), args[0])) {
+                return 0L;
+            }
+            publish((String) args[1], keys.get(0));
+            return 1L;
+        });
+        redisTemplate.registerScript(RedisLockScripts.GET_LOCKS, (keys, args) -> {
+            if (keys.stream().anyMatch(redisTemplate.getValues()::containsKey)) {
+                return 0L;
+            }
+            for (int i = 0; i < keys.size(); i++) {
+                redisTemplate.getValues().put(keys.get(i), args[i + 1]);
+            }
+            return 1L;
+        });
+        redisTemplate.registerScript(RedisLockScripts.RELEASE_LOCKS, (keys, args) -> {
+            assertThat(args[0]).isEqualTo(CHANNEL_PREFIX);
+            long count = 0;
+            for (int i = 0; i < keys.size(); i++) {
+                if (redisTemplate.getValues().remove(keys.get(i), args[i + 1])) {
+                    count++;
+                    if (!Objects.equals(args[0], "")) {
+                        publish(args[0] + String.valueOf(keys.get(i)), keys.get(i));
+                    }
+                }
+            }
+            return count;
+        });
+        lockService = new RedisTokenLockServiceImpl(redisTemplate, TimeUnit.MILLISECONDS);
+        lockService.setReleaseNotifier(notifier);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        notifier.close();
+    }
+
+    private Boolean executeByLock(String key, BackOff backOff) {
+        return lockService.executeByLock(key, 1000, new LockFunctionGeneric<Boolean>() {
+            @Override
+            public BackOff tryLockBackOff() {
+                return backOff;
+            }
+
+            @Override
+            public Boolean onLockSuccess() {
+                return true;
+            }
+
+            @Override
+            public Boolean onLockFailed() {
+                return false;
+            }
+        });
+    }
+
+    @Test
+    public void onMessageWakeAwaitTest() throws Exception {
+        long start = System.nanoTime();
+        CompletableFuture<Boolean> waiter = CompletableFuture
+                .supplyAsync(() -> notifier.await("order:1", TimeUnit.SECONDS.toMillis(10)));
+        // 等待者开始等待之前发布的消息会丢失，重复发布直到等待者被唤醒
+        while (!waiter.isDone()) {
+            notifier.onMessage(message("order:1"), null);
+            Thread.sleep(5);
+        }
+        assertThat(waiter.get()).isTrue();
+        assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(5));
+    }
+
+    @Test
+    public void awaitTimeoutTest() {
+        long start = System.nanoTime();
+        // 没有收到通知，等待超时之后退化为轮询
+        assertThat(notifier.await("order:2", 50)).isFalse();
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+        // 其它锁的消息不会唤醒等待者
+        notifier.onMessage(message("order:1"), null);
+        assertThat(notifier.await("order:2", 10)).isFalse();
+    }
+
+    @Test
+    public void wakeWaiterOnReleaseTest() throws Exception {
+        String token = lockService.tryLock("order:3", 1000, TimeUnit.MILLISECONDS);
+        long start = System.nanoTime();
+        // 重试的休眠时间为 10 秒，锁释放之后等待者立即被唤醒
+        CompletableFuture<Boolean> waiter = CompletableFuture
+                .supplyAsync(() -> executeByLock("order:3", new FixedBackOff(TimeUnit.SECONDS.toMillis(10), 1)));
+        assertThat(awaiting.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(50);
+        assertThat(lockService.unlock("order:3", token)).isTrue();
+
+        assertThat(waiter.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(5));
+        assertThat(published).containsExactly(notifier.getChannel("order:3"), notifier.getChannel("order:3"));
+    }
+
+    @Test
+    public void pollingWithoutMessageTest() throws Exception {
+        redisTemplate.getValues().put("order:4", "other-instance:1");
+        CompletableFuture<Boolean> waiter = CompletableFuture
+                .supplyAsync(() -> executeByLock("order:4", new FixedBackOff(100, 50)));
+        assertThat(awaiting.await(5, TimeUnit.SECONDS)).isTrue();
+        // 模拟锁过期自动删除，不会发布锁释放的消息
+        redisTemplate.getValues().remove("order:4");
+
+        assertThat(waiter.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(published).containsExactly(notifier.getChannel("order:4"));
+        // 多次重试只订阅一次
+        assertThat(subscribes.get()).isEqualTo(1);
+        assertThat(notifier.getSubscribedCount()).isZero();
+    }
+
+    @Test
+    public void releaseLocksPublishTest() {
+        List<String> keys = Arrays.asList("order:5", "order:6");
+        assertThat(lockService.getLocks(keys, 1000)).isTrue();
+        assertThat(lockService.releaseLocks(keys)).isTrue();
+        // 通道前缀作为 ARGV[1] 传给 Lua 脚本，每个锁发布到各自的通道
+        assertThat(published).containsExactly(notifier.getChannel("order:5"), notifier.getChannel("order:6"));
+        assertThat(redisTemplate.getValues()).isEmpty();
+    }
+
+    @Test
+    public void releaseLocksIgnoreNotHeldKeysTest() {
+        assertThat(lockService.getLocks(Arrays.asList("order:9", "order:10"), 1000)).isTrue();
+        // order:11 没有被当前线程持有，不影响持有的锁的释放结果
+        assertThat(lockService.releaseLocks(Arrays.asList("order:9", "order:10", "order:11"))).isTrue();
+        assertThat(redisTemplate.getValues()).isEmpty();
+    }
+
+    @Test
+    public void subscribePerKeyWhileWaitingTest() throws Exception {
+        List<String> subscribed = new CopyOnWriteArrayList<>();
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer() {
+            @Override
+            public void addMessageListener(MessageListener listener, Topic topic) {
+                subscribed.add(topic.getTopic());
+            }
+
+            @Override
+            public void removeMessageListener(MessageListener listener, Topic topic) {
+                assertThat(subscribed.remove(topic.getTopic())).isTrue();
+            }
+        };
+        RedisLockReleaseNotifier perKeyNotifier = new RedisLockReleaseNotifier(CHANNEL_PREFIX, container);
+        CompletableFuture<Boolean> waiter1 = CompletableFuture
+                .supplyAsync(() -> perKeyNotifier.await("order:7", TimeUnit.SECONDS.toMillis(10)));
+        CompletableFuture<Boolean> waiter2 = CompletableFuture
+                .supplyAsync(() -> perKeyNotifier.await("order:7", TimeUnit.SECONDS.toMillis(10)));
+        while (subscribed.isEmpty()) {
+            Thread.sleep(5);
+        }
+        // 同一个锁的多个等待者共用一个订阅，不会订阅其它锁的通道
+        assertThat(subscribed).containsExactly(CHANNEL_PREFIX + "order:7");
+        while (!waiter1.isDone() || !waiter2.isDone()) {
+            perKeyNotifier.onMessage(message("order:7"), null);
+            Thread.sleep(5);
+        }
+        assertThat(waiter1.get()).isTrue();
+        assertThat(waiter2.get()).isTrue();
+
+        // 最后一个等待的线程离开之后取消订阅
+        assertThat(subscribed).isEmpty();
+        assertThat(perKeyNotifier.getSubscribedCount()).isZero();
+        perKeyNotifier.close();
+    }
+
+    @Test
+    public void unsubscribeAfterTimeoutTest() throws Exception {
+        RedisMessageListenerContainer container = mock(RedisMessageListenerContainer.class);
+        RedisLockReleaseNotifier perKeyNotifier = new RedisLockReleaseNotifier(CHANNEL_PREFIX, container);
+        String channel = CHANNEL_PREFIX + "order:8";
+        assertThat(perKeyNotifier.await("order:8", 10)).isFalse();
+        assertThat(perKeyNotifier.await("order:8", 10)).isFalse();
+
+        // 每次等待超时之后都取消订阅，不会一直订阅没有等待者的通道
+        verify(container, times(2)).addMessageListener(eq(perKeyNotifier),
+                argThat((Topic topic) -> channel.equals(topic.getTopic())));
+        verify(container, times(2)).removeMessageListener(eq(perKeyNotifier),
+                argThat((Topic topic) -> channel.equals(topic.getTopic())));
+        assertThat(perKeyNotifier.getSubscribedCount()).isZero();
+        perKeyNotifier.close();
+    }
+
+    @Test
+    public void subscribeOncePerLockWaitTest() throws Exception {
+        AtomicInteger subscribed = new AtomicInteger();
+        AtomicInteger unsubscribed = new AtomicInteger();
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer() {
+            @Override
+            public void addMessageListener(MessageListener listener, Topic topic) {
+                subscribed.incrementAndGet();
+            }
+
+            @Override
+            public void removeMessageListener(MessageListener listener, Topic topic) {
+                unsubscribed.incrementAndGet();
+            }
+        };
+        RedisLockReleaseNotifier perKeyNotifier = new RedisLockReleaseNotifier(CHANNEL_PREFIX, container);
+        lockService.setReleaseNotifier(perKeyNotifier);
+        redisTemplate.getValues().put("order:12", "other-instance:1");
+
+        // 重试 5 次都没有获取到锁，整个等待过程只订阅、取消订阅一次
+        assertThat(executeByLock("order:12", new FixedBackOff(1, 5))).isFalse();
+        assertThat(subscribed.get()).isEqualTo(1);
+        assertThat(unsubscribed.get()).isEqualTo(1);
+        assertThat(perKeyNotifier.getSubscribedCount()).isZero();
+        perKeyNotifier.close();
+    }
+
+    @Test
+    public void keepMessageBetweenRetriesTest() {
+        try (RedisLockReleaseNotifier.Subscription subscription = notifier.subscribe("order:13")) {
+            // 两次等待之间收到的通知不会丢失，下一次等待立即返回
+            notifier.onMessage(message("order:13"), null);
+            notifier.onMessage(message("order:13"), null);
+            assertThat(subscription.await(TimeUnit.SECONDS.toMillis(10))).isTrue();
+            // 多次通知只唤醒一次
+            assertThat(subscription.await(10)).isFalse();
+        }
+        assertThat(notifier.getSubscribedCount()).isZero();
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package app.myoss.cloud.cache.redis;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import app.myoss.cloud.cache.lock.functions.LockFunctionGeneric;
+
+/**
+ * {@link RedisLockWatchdog} 测试类，使用 {@link StubRedisTemplate} 模拟 Redis，调度的间隔时间足够长，测试中直接调用
+ * {@link RedisLockWatchdog#renewLeases()}
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午9:17:52
+ */
+public class RedisLockWatchdogTests {
+    private static final long               TTL_MILLIS    = 300L;
+
+    /**
+     * 模拟 Redis 中锁被续期之后的过期时间，单位：毫秒
+     */
+    private final Map<Serializable, Long>   renewedTtls   = new ConcurrentHashMap<>();
+    private final StubRedisTemplate         redisTemplate = new StubRedisTemplate();
+    private final RedisTokenLockServiceImpl lockService   = new RedisTokenLockServiceImpl(redisTemplate,
+            TimeUnit.MILLISECONDS);
+    private RedisLockWatchdog               watchdog;
+
+    @Before
+    public void setUp() {
+        redisTemplate.registerScript(RedisLockScripts.RENEW_LOCK, (keys, args) -> {
+            if (!Objects.equals(redisTemplate.getValues().get(keys.get(0)), args[0])) {
+                return 0L;
+            }
+            renewedTtls.put(keys.get(0), Long.parseLong((String) args[1]));
+            return 1L;
+        });
+        watchdog = new RedisLockWatchdog(redisTemplate, TimeUnit.HOURS.toMillis(1));
+        lockService.setWatchdog(watchdog);
+        lockService.loadScripts();
+    }
+
+    @After
+    public void tearDown() {
+        watchdog.close();
+    }
+
+    /**
+     * 等待超过锁过期时间的 1/3，锁需要续期
+     */
+    private static void waitForRenew() throws InterruptedException {
+        Thread.sleep(TTL_MILLIS / 3 + 5);
+    }
+
+    @Test
+    public void renewExtendsTtlTest() throws Exception {
+        String token = lockService.tryLock("order:1", (int) TTL_MILLIS, TimeUnit.MILLISECONDS);
+        watchdog.register("order:1", token, TTL_MILLIS);
+        // 还没有到续期的时间，不会请求 Redis
+        int requests = redisTemplate.getRequests().get();
+        watchdog.renewLeases();
+        assertThat(redisTemplate.getRequests().get()).isEqualTo(requests);
+
+        waitForRenew();
+        watchdog.renewLeases();
+        assertThat(renewedTtls).containsEntry("order:1", TTL_MILLIS);
+        assertThat(watchdog.getRenewalCount()).isEqualTo(1);
+        assertThat(watchdog.getRenewalFailureCount()).isZero();
+        assertThat(watchdog.getLeaseCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void foreignTokenDropLeaseTest() throws Exception {
+        String token1 = lockService.tryLock("order:2", (int) TTL_MILLIS, TimeUnit.MILLISECONDS);
+        String token2 = lockService.tryLock("order:3", (int) TTL_MILLIS, TimeUnit.MILLISECONDS);
+        watchdog.register("order:2", token1, TTL_MILLIS);
+        watchdog.register("order:3", token2, TTL_MILLIS);
+        // 模拟锁已经过期，并且被其它节点获取
+        redisTemplate.getValues().put("order:2", "other-instance:1");
+
+        waitForRenew();
+        watchdog.renewLeases();
+        // pipeline 的返回值和锁一一对应，只有不属于当前持有者的锁停止续期
+        assertThat(renewedTtls).containsOnlyKeys("order:3");
+        assertThat(watchdog.getRenewalCount()).isEqualTo(1);
+        assertThat(watchdog.getRenewalFailureCount()).isEqualTo(1);
+        assertThat(watchdog.getLeaseCount()).isEqualTo(1);
+
+        waitForRenew();
+        watchdog.renewLeases();
+        assertThat(watchdog.getRenewalCount()).isEqualTo(2);
+        assertThat(watchdog.getRenewalFailureCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void noScriptReloadTest() throws Exception {
+        String token = lockService.tryLock("order:4", (int) TTL_MILLIS, TimeUnit.MILLISECONDS);
+        watchdog.register("order:4", token, TTL_MILLIS);
+        // 模拟 Redis 重启之后脚本丢失
+        redisTemplate.getLoadedScripts().clear();
+
+        waitForRenew();
+        watchdog.renewLeases();
+        assertThat(renewedTtls).isEmpty();
+        assertThat(watchdog.getRenewalFailureCount()).isEqualTo(1);
+        // 请求 Redis 失败不会停止续期，并且重新加载了脚本
+        assertThat(watchdog.getLeaseCount()).isEqualTo(1);
+        assertThat(redisTemplate.getLoadedScripts()).containsExactly(RedisLockScripts.RENEW_LOCK.getSha1());
+
+        watchdog.renewLeases();
+        assertThat(renewedTtls).containsEntry("order:4", TTL_MILLIS);
+        assertThat(watchdog.getRenewalCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void unregisterAfterCallbackTest() {
+        Integer renewals = lockService.executeByLock("order:5", (int) TTL_MILLIS,
+                new LockFunctionGeneric<Integer>() {
+                    @Override
+                    public Integer onLockSuccess() {
+                        assertThat(watchdog.getLeaseCount()).isEqualTo(1);
+                        try {
+                            waitForRenew();
+                        } catch (InterruptedException ex) {
+                            throw new IllegalStateException(ex);
+                        }
+                        watchdog.renewLeases();
+                        return (int) watchdog.getRenewalCount();
+                    }
+
+                    @Override
+                    public Integer onLockFailed() {
+                        return -1;
+                    }
+                });
+        assertThat(renewals).isEqualTo(1);
+        // 回调函数执行完成之后停止续期，并且释放锁
+        assertThat(watchdog.getLeaseCount()).isZero();
+        assertThat(redisTemplate.getValues()).doesNotContainKey("order:5");
+
+        int requests = redisTemplate.getRequests().get();
+        watchdog.renewLeases();
+        assertThat(redisTemplate.getRequests().get()).isEqualTo(requests);
+        assertThat(watchdog.getRenewalCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package app.myoss.cloud.cache.redis;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * {@link RedisTokenLockServiceImpl} 持有者令牌的测试类，使用 {@link StubRedisTemplate} 模拟 Redis
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午8:54:33
+ */
+public class RedisTokenLockServiceImplTests {
+    private final StubRedisTemplate         redisTemplate = new StubRedisTemplate();
+    private final RedisTokenLockServiceImpl lockService   = new RedisTokenLockServiceImpl(redisTemplate,
+            TimeUnit.SECONDS);
+
+    @Test
+    public void acquireAndReleaseTest() throws Exception {
+        assertThat(lockService.getLock("order:1", 10)).isTrue();
+        String token = (String) redisTemplate.getValues().get("order:1");
+        assertThat(token).isNotEqualTo("1");
+        // 锁已经被持有，其它线程获取锁失败，也不能释放当前线程持有的锁
+        assertThat(CompletableFuture.supplyAsync(() -> lockService.getLock("order:1", 10)).get()).isFalse();
+        assertThat(CompletableFuture.supplyAsync(() -> lockService.releaseLock("order:1")).get()).isFalse();
+        assertThat(redisTemplate.getValues()).containsEntry("order:1", token);
+
+        assertThat(lockService.releaseLock("order:1")).isTrue();
+        assertThat(redisTemplate.getValues()).doesNotContainKey("order:1");
+        // 令牌已经被使用，重复释放不会请求 Redis
+        int requests = redisTemplate.getRequests().get();
+        assertThat(lockService.releaseLock("order:1")).isFalse();
+        assertThat(redisTemplate.getRequests().get()).isEqualTo(requests);
+    }
+
+    @Test
+    public void compareAndDeleteTest() {
+        String token1 = lockService.tryLock("order:2", 10, TimeUnit.SECONDS);
+        assertThat(token1).isNotNull();
+        assertThat(lockService.tryLock("order:2", 10, TimeUnit.SECONDS)).isNull();
+
+        assertThat(lockService.unlock("order:2", token1)).isTrue();
+        assertThat(lockService.unlock("order:2", token1)).isFalse();
+        String token2 = lockService.tryLock("order:2", 10, TimeUnit.SECONDS);
+        assertThat(token2).isNotNull().isNotEqualTo(token1);
+    }
+
+    @Test
+    public void foreignTokenReleaseRefusedTest() {
+        String token = lockService.tryLock("order:3", 10, TimeUnit.SECONDS);
+        assertThat(token).isNotNull();
+        // 模拟锁已经过期，并且被其它节点获取
+        redisTemplate.getValues().put("order:3", "other-instance:1");
+
+        assertThat(lockService.unlock("order:3", token)).isFalse();
+        assertThat(redisTemplate.getValues()).containsEntry("order:3", "other-instance:1");
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package app.myoss.cloud.cache.redis;
+
+import java.io.Serializable;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import app.myoss.cloud.core.constants.MyossConstants;
+
+import lombok.Getter;
+
+/**
+ * 使用内存模拟 Redis 的 {@link RedisTemplate}，只支持缓存锁使用到的命令，Lua 脚本使用 Java 代码模拟，不支持过期时间
+ * <p>
+ * {@link #execute(RedisCallback)}、{@link #executePipelined(RedisCallback, RedisSerializer)} 只支持 SCRIPT LOAD 和
+ * EVALSHA 命令，EVALSHA 执行没有加载过的脚本的时候抛出 NOSCRIPT 异常；锁的名字和值使用字符串序列化
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午8:54:33
+ */
+public class StubRedisTemplate extends RedisTemplate<Serializable, Object> {
+    /**
+     * 模拟 Redis 中保存的数据
+     */
+    @Getter
+    private final Map<Object, Object>                   values          = new ConcurrentHashMap<>();
+    /**
+     * 请求 Redis 的次数
+     */
+    @Getter
+    private final AtomicInteger                         requests        = new AtomicInteger();
+    /**
+     * 已经使用 SCRIPT LOAD 加载的脚本的 SHA1
+     */
+    @Getter
+    private final Set<String>                           loadedScripts   = ConcurrentHashMap.newKeySet();
+    private final Map<RedisScript<?>, ScriptFunction>   scripts         = new ConcurrentHashMap<>();
+    private final ValueOperations<Serializable, Object> valueOperations = mockValueOperations();
+
+    /**
+     * 创建模拟 Redis 的 {@link RedisTemplate}，默认支持释放锁的 Lua 脚本
+     */
+    public StubRedisTemplate() {
+        ScriptFunction releaseLock = (keys, args) -> (values.remove(keys.get(0), args[0]) ? 1L : 0L);
+        scripts.put(RedisLockScripts.RELEASE_LOCK, releaseLock);
+        scripts.put(RedisLockScripts.RELEASE_LOCK_AND_NOTIFY, releaseLock);
+        setKeySerializer(RedisSerializer.string());
+        setValueSerializer(RedisSerializer.string());
+    }
+
+    @SuppressWarnings("unchecked")
+    private ValueOperations<Serializable, Object> mockValueOperations() {
+        ValueOperations<Serializable, Object> operations = Mockito.mock(ValueOperations.class);
+        Mockito.when(operations.setIfAbsent(ArgumentMatchers.any(), ArgumentMatchers.any(),
+                ArgumentMatchers.anyLong(), ArgumentMatchers.any(TimeUnit.class))).thenAnswer(invocation -> {
+                    requests.incrementAndGet();
+                    return values.putIfAbsent(invocation.getArgument(0), invocation.getArgument(1)) == null;
+                });
+        return operations;
+    }
+
+    /**
+     * 注册 Lua 脚本的模拟实现
+     *
+     * @param script Lua 脚本
+     * @param function 模拟实现，参数为：KEYS、ARGV
+     */
+    public void registerScript(RedisScript<?> script, ScriptFunction function) {
+        scripts.put(script, function);
+    }
+
+    @Override
+    public ValueOperations<Serializable, Object> opsForValue() {
+        return valueOperations;
+    }
+
+    @Override
+    public Boolean delete(Serializable key) {
+        requests.incrementAndGet();
+        return values.remove(key) != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T execute(RedisScript<T> script, List<Serializable> keys, Object... args) {
+        requests.incrementAndGet();
+        ScriptFunction function = scripts.get(script);
+        if (function == null) {
+            throw new UnsupportedOperationException("unsupported script: " + script.getScriptAsString());
+        }
+        return (T) function.apply(keys, args);
+    }
+
+    @Override
+    public <T> T execute(RedisCallback<T> action) {
+        requests.incrementAndGet();
+        return action.doInRedis(newConnection(null));
+    }
+
+    @Override
+    public List<Object> executePipelined(RedisCallback<?> action, RedisSerializer<?> resultSerializer) {
+        requests.incrementAndGet();
+        List<Object> results = new ArrayList<>();
+        action.doInRedis(newConnection(results));
+        return results;
+    }
+
+    /**
+     * 创建模拟的 Redis 连接
+     *
+     * @param pipelineResults pipeline 模式下命令的返回值，不是 pipeline 模式的时候为 null
+     * @return 模拟的 Redis 连接
+     */
+    private RedisConnection newConnection(List<Object> pipelineResults) {
+        return (RedisConnection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { RedisConnection.class }, (proxy, method, args) -> {
+                    Object result;
+                    if ("scriptLoad".equals(method.getName())) {
+                        String sha1 = new DefaultRedisScript<>(new String((byte[]) args[0], MyossConstants.UTF_8))
+                                .getSha1();
+                        loadedScripts.add(sha1);
+                        result = sha1;
+                    } else if ("evalSha".equals(method.getName()) && args[0] instanceof String) {
+                        result = evalSha((String) args[0], (Integer) args[2], (byte[][]) args[3]);
+                    } else {
+                        throw new UnsupportedOperationException("unsupported command: " + method.getName());
+                    }
+                    if (pipelineResults == null) {
+                        return result;
+                    }
+                    pipelineResults.add(result);
+                    return null;
+                });
+    }
+
+    private Object evalSha(String sha1, int numKeys, byte[][] keysAndArgs) {
+        if (!loadedScripts.contains(sha1)) {
+            throw new RedisSystemException("NOSCRIPT No matching script. Please use EVAL.", null);
+        }
+        ScriptFunction function = scripts.entrySet()
+                .stream()
+                .filter(entry -> entry.getKey().getSha1().equals(sha1))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElseThrow(() -> new UnsupportedOperationException("unsupported script: " + sha1));
+        List<Serializable> keys = new ArrayList<>(numKeys);
+        Object[] args = new Object[keysAndArgs.length - numKeys];
+        for (int i = 0; i < keysAndArgs.length; i++) {
+            String value = new String(keysAndArgs[i], MyossConstants.UTF_8);
+            if (i < numKeys) {
+                keys.add(value);
+            } else {
+                args[i - numKeys] = value;
+            }
+        }
+        return function.apply(keys, args);
+    }
+
+    /**
+     * Lua 脚本的模拟实现
+     */
+    @FunctionalInterface
+    public interface ScriptFunction {
+        /**
+         * 执行 Lua 脚本
+         *
+         * @param keys KEYS
+         * @param args ARGV
+         * @return 脚本的返回值
+         */
+        Object apply(List<Serializable> keys, Object[] args);
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package app.myoss.cloud.core.lang.concurrent;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 根据任务的排队等待时间自动调整线程池的核心线程数
+ * <p>
+ * {@link ThreadPoolExecutor} 使用有界队列的时候，只有队列满了才会创建超过核心线程数的线程，在这之前任务只能排队等待。控制器定时采样
+ * {@link ExecutorEngineStatistics}：
+ * <ul>
+ * <li>根据 Little's law 估算需要的并发数：任务的到达速率 × 平均执行时间</li>
+ * <li>队列中有任务并且等待时间超过目标值的时候，按照等待时间和目标值的比例增加线程（每次最多翻倍），至少增加到估算的并发数；等待时间取已经开始执行的任务的平均等待时间和排空队列需要的时间中较大的值</li>
+ * <li>队列为空并且有空闲线程的时候，每次减少一半的空闲线程，避免来回抖动</li>
+ * </ul>
+ * 调整的结果在 [minPoolSize, maxPoolSize] 之间，超过核心线程数的空闲线程在 keepAliveTime 之后回收
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午8:34:39
+ * @see ExecutorEngine#buildAdaptiveThreadPoolExecutor(int, int, long, TimeUnit)
+ */
+@Slf4j
+public class AdaptivePoolSizeController implements Runnable {
+    private final ThreadPoolExecutor       executor;
+    private final ExecutorEngineStatistics statistics;
+    private final int                      minPoolSize;
+    private final int                      maxPoolSize;
+    private final long                     targetQueueWaitNanos;
+    private final LongSupplier             nanoClock;
+    private long                           lastTime;
+    private long                           lastSubmitted;
+    private long                           lastStarted;
+    private long                           lastCompleted;
+    private long                           lastQueueWaitNanos;
+    private long                           lastRunNanos;
+    private double                         averageRunNanos;
+    private volatile ScheduledFuture<?>    scheduledFuture;
+
+    /**
+     * 创建自动调整线程数的控制器
+     *
+     * @param executor 需要调整的线程池
+     * @param statistics 线程池所在执行框架的运行统计
+     * @param minPoolSize 最小的核心线程数
+     * @param maxPoolSize 最大的核心线程数，不能超过线程池的 maximumPoolSize
+     * @param targetQueueWait 任务在队列中的目标等待时间
+     * @param timeUnit 目标等待时间的单位
+     */
+    public AdaptivePoolSizeController(ThreadPoolExecutor executor, ExecutorEngineStatistics statistics,
+                                      int minPoolSize, int maxPoolSize, long targetQueueWait, TimeUnit timeUnit) {
+        this(executor, statistics, minPoolSize, maxPoolSize, targetQueueWait, timeUnit, System::nanoTime);
+    }
+
+    /**
+     * 创建自动调整线程数的控制器，使用指定的时钟计算采样的间隔，用于测试的时候模拟任务的到达速率
+     *
+     * @param executor 需要调整的线程池
+     * @param statistics 线程池所在执行框架的运行统计
+     * @param minPoolSize 最小的核心线程数
+     * @param maxPoolSize 最大的核心线程数，不能超过线程池的 maximumPoolSize
+     * @param targetQueueWait 任务在队列中的目标等待时间
+     * @param timeUnit 目标等待时间的单位
+     * @param nanoClock 纳秒时钟
+     */
+    AdaptivePoolSizeController(ThreadPoolExecutor executor, ExecutorEngineStatistics statistics, int minPoolSize,
+                               int maxPoolSize, long targetQueueWait, TimeUnit timeUnit, LongSupplier nanoClock) {
+        if (minPoolSize <= 0 || maxPoolSize < minPoolSize || maxPoolSize > executor.getMaximumPoolSize()) {
+            throw new IllegalArgumentException("minPoolSize: " + minPoolSize + ", maxPoolSize: " + maxPoolSize);
+        }
+        this.executor = executor;
+        this.statistics = statistics;
+        this.minPoolSize = minPoolSize;
+        this.maxPoolSize = maxPoolSize;
+        this.targetQueueWaitNanos = timeUnit.toNanos(targetQueueWait);
+        this.nanoClock = nanoClock;
+        this.lastTime = nanoClock.getAsLong();
+    }
+
+    /**
+     * 使用定时器周期性的调整线程数，调用 {@link #stop()} 或者线程池关闭之后停止
+     *
+     * @param scheduler 定时器
+     * @param period 调整的周期
+     * @param timeUnit 调整周期的单位
+     */
+    public void start(ScheduledExecutorService scheduler, long period, TimeUnit timeUnit) {
+        this.scheduledFuture = scheduler.scheduleWithFixedDelay(this, period, period, timeUnit);
+    }
+
+    /**
+     * 停止周期性的调整线程数，{@link ExecutorEngine#close()} 的时候调用，定时器是多个执行框架共用的，不会被关闭
+     */
+    public void stop() {
+        ScheduledFuture<?> future = this.scheduledFuture;
+        if (future != null) {
+            future.cancel(false);
+        }
+    }
+
+    /**
+     * 是否已经停止调整线程数
+     *
+     * @return true：已经停止，或者还没有启动
+     */
+    public boolean isStopped() {
+        ScheduledFuture<?> future = this.scheduledFuture;
+        return (future == null || future.isCancelled());
+    }
+
+    @Override
+    public synchronized void run() {
+        if (executor.isShutdown()) {
+            // 直接关闭了线程池，没有通过 ExecutorEngine 关闭
+            stop();
+            return;
+        }
+        try {
+            adjust();
+        } catch (RuntimeException ex) {
+            // 不能抛出异常，否则定时器不会再次执行
+            log.error("adjust pool size failed", ex);
+        }
+    }
+
+    private void adjust() {
+        long now = nanoClock.getAsLong();
+        long submitted = statistics.getSubmittedCount() - statistics.getRejectedCount();
+        long started = statistics.getStartedCount();
+        long completed = statistics.getCompletedCount();
+        long queueWaitNanos = statistics.getTotalQueueWaitTime(TimeUnit.NANOSECONDS);
+        long runNanos = statistics.getTotalRunTime(TimeUnit.NANOSECONDS);
+        long elapsedNanos = Math.max(1, now - lastTime);
+        long deltaSubmitted = submitted - lastSubmitted;
+        long deltaStarted = started - lastStarted;
+        long deltaCompleted = completed - lastCompleted;
+        long deltaQueueWaitNanos = queueWaitNanos - lastQueueWaitNanos;
+        if (deltaCompleted > 0) {
+            averageRunNanos = (double) (runNanos - lastRunNanos) / deltaCompleted;
+        }
+        lastTime = now;
+        lastSubmitted = submitted;
+        lastStarted = started;
+        lastCompleted = completed;
+        lastQueueWaitNanos = queueWaitNanos;
+        lastRunNanos = runNanos;
+
+        // Little's law：需要的并发数 = 到达速率 × 平均执行时间
+        int required = (int) Math.ceil((double) deltaSubmitted / elapsedNanos * averageRunNanos);
+        int current = executor.getCorePoolSize();
+        long queueSize = statistics.getQueueSize();
+        long activeCount = statistics.getActiveCount();
+        int poolSize = current;
+        if (queueSize > 0) {
+            // 已经开始执行的任务的平均等待时间，和按照当前的执行速率排空队列需要的时间，取较大的值
+            double averageWaitNanos = (deltaStarted > 0 ? (double) deltaQueueWaitNanos / deltaStarted : 0);
+            double drainNanos = (double) queueSize * elapsedNanos / Math.max(1, deltaStarted);
+            double waitRatio = Math.max(averageWaitNanos, drainNanos) / targetQueueWaitNanos;
+            if (waitRatio > 1) {
+                poolSize = Math.max(required, (int) Math.ceil(current * Math.min(waitRatio, 2)));
+                poolSize = Math.max(poolSize, current + 1);
+            }
+        } else if (activeCount < current) {
+            int floor = (int) Math.max(required, activeCount);
+            if (floor < current) {
+                poolSize = current - Math.max(1, (current - floor) / 2);
+            }
+        }
+        poolSize = Math.max(minPoolSize, Math.min(maxPoolSize, poolSize));
+        if (poolSize != current) {
+            log.debug("adjust core pool size from {} to {}, queueSize: {}, activeCount: {}, required: {}", current,
+                    poolSize, queueSize, activeCount, required);
+            executor.setCorePoolSize(poolSize);
+        }
+    }
+}
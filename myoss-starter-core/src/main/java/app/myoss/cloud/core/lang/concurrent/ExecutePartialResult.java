@@ -0,0 +1,107 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package app.myoss.cloud.core.lang.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Getter;
+
+/**
+ * 多线程执行任务的部分结果，包含执行成功的结果、执行失败的输入参数、执行超时的输入参数，顺序和输入参数的顺序一致
+ *
+ * @param <I> 入参类型
+ * @param <O> 出参类型
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午7:40:26
+ */
+@Getter
+public class ExecutePartialResult<I, O> {
+    /**
+     * 执行成功的输入参数
+     */
+    private final List<I>         successInputs;
+    /**
+     * 执行成功的结果，和 {@link #successInputs} 一一对应
+     */
+    private final List<O>         results;
+    /**
+     * 执行失败的输入参数
+     */
+    private final List<I>         failedInputs;
+    /**
+     * 执行失败的异常信息，和 {@link #failedInputs} 一一对应
+     */
+    private final List<Throwable> failures;
+    /**
+     * 执行超时（包括超过单个执行单元的超时时间、超过整体的截止时间）的输入参数
+     */
+    private final List<I>         timeoutInputs;
+
+    /**
+     * 创建多线程执行任务的部分结果
+     *
+     * @param size 输入参数的数量
+     */
+    public ExecutePartialResult(int size) {
+        this.successInputs = new ArrayList<>(size);
+        this.results = new ArrayList<>(size);
+        this.failedInputs = new ArrayList<>(0);
+        this.failures = new ArrayList<>(0);
+        this.timeoutInputs = new ArrayList<>(0);
+    }
+
+    /**
+     * 添加执行成功的结果
+     *
+     * @param input 输入参数
+     * @param result 执行结果
+     */
+    public void addSuccess(I input, O result) {
+        successInputs.add(input);
+        results.add(result);
+    }
+
+    /**
+     * 添加执行失败的输入参数
+     *
+     * @param input 输入参数
+     * @param failure 异常信息
+     */
+    public void addFailure(I input, Throwable failure) {
+        failedInputs.add(input);
+        failures.add(failure);
+    }
+
+    /**
+     * 添加执行超时的输入参数
+     *
+     * @param input 输入参数
+     */
+    public void addTimeout(I input) {
+        timeoutInputs.add(input);
+    }
+
+    /**
+     * 是否全部执行成功
+     *
+     * @return true：全部执行成功
+     */
+    public boolean isComplete() {
+        return failedInputs.isEmpty() && timeoutInputs.isEmpty();
+    }
+}
@@ -0,0 +1,284 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package app.myoss.cloud.core.lang.concurrent;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.MDC;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 结构化并发的执行范围，范围内提交的子任务共用一个截止时间，并且不会超出范围的生命周期
+ * <ul>
+ * <li>有一个子任务失败的时候，取消并中断其它还没有完成的子任务</li>
+ * <li>超过截止时间的时候，取消并中断所有还没有完成的子任务</li>
+ * <li>关闭范围的时候，取消并中断所有还没有完成的子任务，并且等待正在执行的子任务真正结束，忽略中断的子任务最多等待到截止时间（已经超过截止时间的时候最多等待
+ * {@link #DEFAULT_CLOSE_GRACE_MILLIS}），仍然没有结束的子任务输出警告日志</li>
+ * <li>子任务执行的时候，使用创建范围时的 MDC 上下文（traceId 等）</li>
+ * </ul>
+ *
+ * <pre>
+ * try (ExecutionScope scope = executorEngine.openScope(500, TimeUnit.MILLISECONDS)) {
+ *     ListenableFuture&lt;User&gt; user = scope.fork(userId, userService::getUser);
+ *     ListenableFuture&lt;List&lt;Order&gt;&gt; orders = scope.fork(userId, orderService::getOrders);
+ *     scope.join();
+ *     return new UserOrders(Futures.getDone(user), Futures.getDone(orders));
+ * }
+ * </pre>
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午8:37:19
+ * @see ExecutorEngine#openScope(long, TimeUnit)
+ */
+@Slf4j
+public class ExecutionScope implements AutoCloseable {
+    /**
+     * 已经超过截止时间的时候，关闭范围最多等待正在执行的子任务结束的时间，单位：毫秒
+     */
+    public static final long                DEFAULT_CLOSE_GRACE_MILLIS = 100L;
+    private final ExecutorEngine            executorEngine;
+    private final long                      deadlineNanos;
+    private final Map<String, String>       contextMap;
+    private final List<ListenableFuture<?>> futures                    = new ArrayList<>();
+    /**
+     * 正在执行子任务的线程，子任务被取消之后，线程可能还没有响应中断
+     */
+    private final Set<Thread>               runningThreads             = new HashSet<>();
+    private final ScheduledFuture<?>        deadlineTimer;
+    private volatile Throwable              failure;
+    private volatile boolean                timedOut;
+    private volatile boolean                closed;
+
+    ExecutionScope(ExecutorEngine executorEngine, ScheduledExecutorService scheduler, long timeout,
+                   TimeUnit timeUnit) {
+        this.executorEngine = executorEngine;
+        this.deadlineNanos = System.nanoTime() + timeUnit.toNanos(timeout);
+        this.contextMap = MDC.getCopyOfContextMap();
+        this.deadlineTimer = scheduler.schedule(() -> {
+            timedOut = true;
+            cancelAll();
+        }, timeout, timeUnit);
+    }
+
+    /**
+     * 在范围内提交子任务
+     *
+     * @param input 输入参数
+     * @param executeUnit 执行单元
+     * @param <I> 入参类型
+     * @param <O> 出参类型
+     * @return 子任务的执行结果
+     */
+    public <I, O> ListenableFuture<O> fork(final I input, final ExecuteUnit<I, O> executeUnit) {
+        return fork(() -> executeUnit.execute(input));
+    }
+
+    /**
+     * 在范围内提交子任务
+     *
+     * @param task 子任务
+     * @param <O> 出参类型
+     * @return 子任务的执行结果
+     * @throws IllegalStateException 范围已经关闭
+     */
+    @SuppressWarnings("unchecked")
+    public <O> ListenableFuture<O> fork(final Callable<O> task) {
+        ListenableFuture<O> future;
+        synchronized (futures) {
+            if (closed) {
+                throw new IllegalStateException("ExecutionScope is closed");
+            }
+            future = (ListenableFuture<O>) executorEngine.getExecutorService().submit(() -> call(task));
+            futures.add(future);
+        }
+        Futures.addCallback(future, new FutureCallback<O>() {
+            @Override
+            public void onSuccess(O result) {
+            }
+
+            @Override
+            public void onFailure(Throwable thrown) {
+                if (thrown instanceof CancellationException || failure != null) {
+                    return;
+                }
+                failure = thrown;
+                cancelAll();
+            }
+        }, MoreExecutors.directExecutor());
+        if (failure != null || System.nanoTime() - deadlineNanos >= 0) {
+            // 其它子任务已经失败，或者已经超过截止时间
+            future.cancel(true);
+        }
+        return future;
+    }
+
+    private <O> O call(Callable<O> task) throws Exception {
+        Thread thread = Thread.currentThread();
+        synchronized (runningThreads) {
+            runningThreads.add(thread);
+        }
+        Map<String, String> previous = MDC.getCopyOfContextMap();
+        setContextMap(contextMap);
+        try {
+            return task.call();
+        } finally {
+            setContextMap(previous);
+            synchronized (runningThreads) {
+                runningThreads.remove(thread);
+                runningThreads.notifyAll();
+            }
+        }
+    }
+
+    private static void setContextMap(Map<String, String> contextMap) {
+        if (contextMap != null) {
+            MDC.setContextMap(contextMap);
+        } else {
+            MDC.clear();
+        }
+    }
+
+    /**
+     * 等待所有的子任务执行完成，最多等待到截止时间
+     *
+     * @throws ExecuteException 有子任务执行失败，或者当前线程被中断
+     * @throws ExecuteTimeoutException 超过截止时间还有子任务没有完成
+     */
+    public void join() {
+        List<ListenableFuture<?>> snapshot;
+        synchronized (futures) {
+            snapshot = new ArrayList<>(futures);
+        }
+        try {
+            long remainingNanos = deadlineNanos - System.nanoTime();
+            Futures.successfulAsList(snapshot).get(Math.max(0, remainingNanos), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            cancelAll();
+            throw new ExecuteException("execute task throw exception", ex);
+        } catch (ExecutionException ex) {
+            // successfulAsList 不会失败
+            throw new ExecuteException("execute task throw exception", ex);
+        } catch (TimeoutException ex) {
+            cancelAll();
+            throw new ExecuteTimeoutException("execute task throw times out exception", ex);
+        }
+        Throwable thrown = failure;
+        if (thrown != null) {
+            throw new ExecuteException("execute task throw exception", thrown);
+        }
+        if (timedOut) {
+            // 截止时间的定时器已经取消了还没有完成的子任务
+            throw new ExecuteTimeoutException("execute task throw times out exception", new TimeoutException());
+        }
+    }
+
+    private void cancelAll() {
+        List<ListenableFuture<?>> snapshot;
+        synchronized (futures) {
+            snapshot = new ArrayList<>(futures);
+        }
+        for (ListenableFuture<?> future : snapshot) {
+            future.cancel(true);
+        }
+    }
+
+    /**
+     * 等待正在执行的子任务结束，被取消的子任务需要响应中断之后才会结束
+     *
+     * @param timeout 最长的等待时间
+     * @param timeUnit 等待时间的单位
+     * @return true：没有正在执行的子任务，false：等待超时或者当前线程被中断
+     */
+    public boolean awaitTermination(long timeout, TimeUnit timeUnit) {
+        long deadline = System.nanoTime() + timeUnit.toNanos(timeout);
+        synchronized (runningThreads) {
+            while (!runningThreads.isEmpty()) {
+                long remainingNanos = deadline - System.nanoTime();
+                if (remainingNanos <= 0) {
+                    return false;
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(runningThreads, remainingNanos);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 关闭范围，取消并中断所有还没有完成的子任务，关闭之后不能再提交子任务；等待正在执行的子任务结束，最多等待到截止时间，已经超过截止时间的时候最多等待
+     * {@link #DEFAULT_CLOSE_GRACE_MILLIS}
+     */
+    @Override
+    public void close() {
+        long remainingNanos = deadlineNanos - System.nanoTime();
+        close(Math.max(remainingNanos, TimeUnit.MILLISECONDS.toNanos(DEFAULT_CLOSE_GRACE_MILLIS)),
+                TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 关闭范围，取消并中断所有还没有完成的子任务，关闭之后不能再提交子任务；等待正在执行的子任务结束，超过等待时间还没有结束的子任务输出警告日志
+     *
+     * @param timeout 最长的等待时间
+     * @param timeUnit 等待时间的单位
+     * @return true：所有的子任务都已经结束，false：还有忽略中断的子任务在执行
+     */
+    public boolean close(long timeout, TimeUnit timeUnit) {
+        synchronized (futures) {
+            closed = true;
+        }
+        deadlineTimer.cancel(false);
+        cancelAll();
+        if (awaitTermination(timeout, timeUnit)) {
+            return true;
+        }
+        List<String> threadNames = new ArrayList<>();
+        synchronized (runningThreads) {
+            for (Thread thread : runningThreads) {
+                threadNames.add(thread.getName());
+            }
+        }
+        if (threadNames.isEmpty()) {
+            // 等待超时之后子任务刚好结束
+            return true;
+        }
+        log.warn("ExecutionScope closed, {} cancelled tasks ignore interruption and are still running in threads: {}",
+                threadNames.size(), threadNames);
+        return false;
+    }
+}
@@ -17,24 +17,46 @@
 
 package app.myoss.cloud.core.lang.concurrent;
 
+import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinPool.ForkJoinWorkerThreadFactory;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import lombok.Getter;
@@ -52,24 +74,116 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public class ExecutorEngine implements AutoCloseable {
-    private static final ThreadPoolExecutor SHUTDOWN_EXECUTOR = new ThreadPoolExecutor(0, 1, 0, TimeUnit.MILLISECONDS,
-            new LinkedBlockingQueue<>(10),
+    /**
+     * 关闭执行框架的时候，等待已经提交的任务执行完成的默认超时时间（秒）
+     */
+    public static final long                      DEFAULT_SHUTDOWN_TIMEOUT = 60;
+    /**
+     * 在后台等待执行框架关闭，使用无界队列，同时关闭很多个执行框架的时候不会被拒绝
+     */
+    private static final ThreadPoolExecutor       SHUTDOWN_EXECUTOR        = new ThreadPoolExecutor(0, 1,
+            0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
             new ThreadFactoryBuilder().setDaemon(true)
                     .setNameFormat("MyOSSCloud-Core-ExecutorEngineCloseTimer")
                     .build());
+    /**
+     * JDK 21+ 的 {@code Executors.newThreadPerTaskExecutor(ThreadFactory)}，为 null 的时候表示不支持虚拟线程
+     */
+    private static final Method                   THREAD_PER_TASK_EXECUTOR = findThreadPerTaskExecutor();
+    /**
+     * 单个执行单元超时、对冲请求、自动调整线程数、执行范围的截止时间使用的定时器
+     */
+    private static final ScheduledExecutorService TIMEOUT_SCHEDULER        = Executors
+            .newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setDaemon(true)
+                    .setNameFormat("MyOSSCloud-Core-ExecutorEngineTimer")
+                    .build());
+    /**
+     * 没有指定名字的时候，自动生成名字的序号
+     */
+    private static final AtomicInteger            ENGINE_SEQUENCE          = new AtomicInteger();
+    /**
+     * 已经创建、还没有关闭的执行框架，使用强引用，保证 JVM 退出的时候可以等待没有被引用、但是还有任务在执行的执行框架；执行框架关闭
+     * （{@link #close()}、{@link #shutdown(long, TimeUnit)}）并且等待任务执行完成之后移除
+     */
+    private static final Set<ExecutorEngine>      ENGINES                  = Collections
+            .synchronizedSet(new LinkedHashSet<>());
+
+    static {
+        // 所有的执行框架共用一个关闭的钩子，JVM 退出的时候等待 executorService 中的任务执行完成
+        try {
+            Runtime.getRuntime()
+                    .addShutdownHook(new Thread(() -> shutdownAll(DEFAULT_SHUTDOWN_TIMEOUT, TimeUnit.SECONDS),
+                            "MyOSSCloud-Core-ExecutorEngineShutdownHook"));
+        } catch (IllegalStateException ex) {
+            // JVM 已经在关闭中
+            log.warn("add ExecutorEngine shutdown hook failed", ex);
+        }
+    }
 
+    /**
+     * 执行框架的名字，用于区分监控指标
+     */
+    @Getter
+    private final String                          name;
+    /**
+     * 是否指定了名字，没有指定名字的执行框架在监控指标中合并统计，避免动态创建的执行框架导致监控标签无限增长
+     */
     @Getter
-    private final ExecutorService           executorService;
+    private final boolean                         named;
+    /**
+     * 执行框架的运行统计
+     */
+    @Getter
+    private final ExecutorEngineStatistics        statistics;
+    @Getter
+    private final ExecutorService                 executorService;
+    /**
+     * 使用 ForkJoinPool 创建的时候，用于执行 {@link RecursiveExecuteUnit}
+     */
+    private final ForkJoinPool                    forkJoinPool;
+    /**
+     * 自动调整线程数的控制器，关闭执行框架的时候停止
+     */
+    private volatile AdaptivePoolSizeController   poolSizeController;
 
     /**
-     * 创建多线程执行框架
+     * 创建多线程执行框架，名字为 "ExecutorEngine-序号"，只用于日志；监控指标中和其它没有指定名字的执行框架合并统计
      *
      * @param delegate an instance of {@link ExecutorService}
      */
     public ExecutorEngine(ExecutorService delegate) {
-        this.executorService = MoreExecutors.listeningDecorator(delegate);
-        // 添加一个关闭的钩子来等待 executorService 中的线程完成
-        MoreExecutors.addDelayedShutdownHook(this.executorService, 60, TimeUnit.SECONDS);
+        this("ExecutorEngine-" + ENGINE_SEQUENCE.getAndIncrement(), false, delegate);
+    }
+
+    /**
+     * 创建多线程执行框架，需要单独导出监控指标的执行框架使用固定的名字，名字相同的执行框架在监控指标中合并统计
+     *
+     * @param name 执行框架的名字，用于区分监控指标
+     * @param delegate an instance of {@link ExecutorService}
+     */
+    public ExecutorEngine(String name, ExecutorService delegate) {
+        this(name, true, delegate);
+    }
+
+    private ExecutorEngine(String name, boolean named, ExecutorService delegate) {
+        this.name = name;
+        this.named = named;
+        this.statistics = new ExecutorEngineStatistics();
+        this.executorService = MoreExecutors
+                .listeningDecorator(new InstrumentedExecutorService(delegate, this.statistics));
+        this.forkJoinPool = (delegate instanceof ForkJoinPool ? (ForkJoinPool) delegate : null);
+        ENGINES.add(this);
+    }
+
+    /**
+     * 获取已经创建、还没有关闭的执行框架，用于导出监控指标
+     *
+     * @return 执行框架的快照
+     */
+    public static List<ExecutorEngine> getEngines() {
+        synchronized (ENGINES) {
+            return new ArrayList<>(ENGINES);
+        }
     }
 
     /**
@@ -94,18 +208,222 @@ public class ExecutorEngine implements AutoCloseable {
         return new ExecutorEngine(poolExecutor);
     }
 
+    /**
+     * 创建自动调整线程数的 ThreadPoolExecutor 多线程池，最小线程数为：5，最大线程数为：200，队列中任务的目标等待时间为：10 毫秒
+     *
+     * @return 自动调整线程数的多线程池执行框架
+     * @see #buildAdaptiveThreadPoolExecutor(int, int, long, TimeUnit)
+     */
+    public static ExecutorEngine buildAdaptiveThreadPoolExecutor() {
+        return buildAdaptiveThreadPoolExecutor(5, 200, 10, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 创建自动调整线程数的 ThreadPoolExecutor 多线程池，每 100 毫秒根据任务在队列中的等待时间调整核心线程数，不需要等到队列满了才增加线程
+     *
+     * @param minPoolSize 最小线程数
+     * @param maxPoolSize 最大线程数
+     * @param targetQueueWait 任务在队列中的目标等待时间
+     * @param timeUnit 目标等待时间的单位
+     * @return 自动调整线程数的多线程池执行框架
+     * @see AdaptivePoolSizeController
+     */
+    public static ExecutorEngine buildAdaptiveThreadPoolExecutor(int minPoolSize, int maxPoolSize,
+                                                                 long targetQueueWait, TimeUnit timeUnit) {
+        ThreadFactory threadFactory = new ThreadFactoryBuilder().setDaemon(true)
+                .setNameFormat("ExecutorEngineAdaptiveThreadPool-%d")
+                .build();
+        ThreadPoolExecutor poolExecutor = new ThreadPoolExecutor(minPoolSize, maxPoolSize, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(1024), threadFactory);
+        ExecutorEngine executorEngine = new ExecutorEngine(poolExecutor);
+        AdaptivePoolSizeController controller = new AdaptivePoolSizeController(poolExecutor,
+                executorEngine.getStatistics(), minPoolSize, maxPoolSize, targetQueueWait, timeUnit);
+        executorEngine.poolSizeController = controller;
+        controller.start(TIMEOUT_SCHEDULER, 100, TimeUnit.MILLISECONDS);
+        return executorEngine;
+    }
+
+    /**
+     * 创建 ForkJoinPool 执行框架，线程数为 CPU 的核数，适合纯 CPU 计算的执行单元和 {@link RecursiveExecuteUnit}
+     * <p>
+     * 每个线程都有自己的任务队列，空闲的线程会从其它线程窃取任务，子任务不需要经过共享队列的交接；不适合阻塞的 IO 请求
+     *
+     * @return ForkJoinPool 执行框架
+     */
+    public static ExecutorEngine buildForkJoinExecutor() {
+        return buildForkJoinExecutor(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * 创建 ForkJoinPool 执行框架
+     *
+     * @param parallelism 并行的线程数
+     * @return ForkJoinPool 执行框架
+     * @see #buildForkJoinExecutor()
+     */
+    public static ExecutorEngine buildForkJoinExecutor(int parallelism) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ForkJoinWorkerThreadFactory threadFactory = pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("ExecutorEngineForkJoinPool-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return new ExecutorEngine(new ForkJoinPool(parallelism, threadFactory, null, false));
+    }
+
+    /**
+     * 创建虚拟线程执行框架，每个执行单元都在一个新的虚拟线程中执行，适合大量阻塞的 HTTP、DB 请求（需要 JDK 21+）；如果当前的
+     * JDK 不支持虚拟线程，则使用 {@link #buildTreadPoolExecutor()} 创建的线程池
+     *
+     * @return 虚拟线程执行框架
+     */
+    public static ExecutorEngine buildVirtualThreadExecutor() {
+        ExecutorService executorService = newVirtualThreadPerTaskExecutor("ExecutorEngineVirtualThread-");
+        return (executorService != null ? new ExecutorEngine(executorService) : buildTreadPoolExecutor());
+    }
+
+    /**
+     * 当前的 JDK 是否支持虚拟线程
+     *
+     * @return true：支持虚拟线程
+     */
+    public static boolean isVirtualThreadSupported() {
+        return THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    /**
+     * 使用反射调用 JDK 21+ 的 {@code Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(namePrefix, 0).factory())}
+     * 创建虚拟线程池，兼容低版本 JDK 编译和运行
+     *
+     * @param namePrefix 虚拟线程的名字前缀
+     * @return 虚拟线程池，当前的 JDK 不支持虚拟线程的时候返回 null
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor(String namePrefix) {
+        if (THREAD_PER_TASK_EXECUTOR == null) {
+            return null;
+        }
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+            ThreadFactory threadFactory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            return (ExecutorService) THREAD_PER_TASK_EXECUTOR.invoke(null, threadFactory);
+        } catch (ReflectiveOperationException ex) {
+            log.warn("create virtual thread executor failed, use platform thread pool", ex);
+            return null;
+        }
+    }
+
+    private static Method findThreadPerTaskExecutor() {
+        try {
+            return Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+        } catch (NoSuchMethodException ex) {
+            // JDK 21 以下的版本不支持虚拟线程
+            return null;
+        }
+    }
+
+    /**
+     * 关闭执行框架，立即拒绝新的任务，在后台等待已经提交的任务执行完成，超过 {@link #DEFAULT_SHUTDOWN_TIMEOUT} 秒之后中断还没有完成的任务
+     */
     @Override
     public void close() {
-        SHUTDOWN_EXECUTOR.execute(() -> {
-            try {
-                executorService.shutdown();
-                while (!executorService.awaitTermination(5, TimeUnit.SECONDS)) {
-                    executorService.shutdownNow();
-                }
-            } catch (final InterruptedException ex) {
-                log.error("ExecutorEngine can not been terminated", ex);
+        shutdownExecutor();
+        long deadlineNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(DEFAULT_SHUTDOWN_TIMEOUT);
+        SHUTDOWN_EXECUTOR.execute(() -> awaitTermination(deadlineNanos));
+    }
+
+    /**
+     * 执行框架是否已经关闭，关闭之后提交的任务会被拒绝
+     *
+     * @return true：已经关闭
+     */
+    public boolean isShutdown() {
+        return executorService.isShutdown();
+    }
+
+    /**
+     * 优雅的关闭执行框架，立即拒绝新的任务，在超时时间内等待已经提交的任务执行完成；超过超时时间之后，丢弃队列中还没有开始执行的任务，并中断正在执行的任务
+     *
+     * @param timeout 等待的超时时间
+     * @param timeUnit 超时时间的单位
+     * @return 没有执行完成的任务数，包括丢弃的任务和被中断的任务
+     */
+    public int shutdown(long timeout, TimeUnit timeUnit) {
+        shutdownExecutor();
+        return awaitTermination(System.nanoTime() + timeUnit.toNanos(timeout));
+    }
+
+    /**
+     * 优雅的关闭所有的执行框架，所有的执行框架共用一个超时时间
+     *
+     * @param timeout 等待的超时时间
+     * @param timeUnit 超时时间的单位
+     * @return 没有执行完成的任务数，包括丢弃的任务和被中断的任务
+     * @see #shutdown(long, TimeUnit)
+     */
+    public static int shutdownAll(long timeout, TimeUnit timeUnit) {
+        return shutdownAll(getEngines(), timeout, timeUnit);
+    }
+
+    /**
+     * 优雅的关闭指定的执行框架，所有的执行框架共用一个超时时间
+     *
+     * @param engines 需要关闭的执行框架
+     * @param timeout 等待的超时时间
+     * @param timeUnit 超时时间的单位
+     * @return 没有执行完成的任务数，包括丢弃的任务和被中断的任务
+     * @see #shutdown(long, TimeUnit)
+     */
+    public static int shutdownAll(Collection<ExecutorEngine> engines, long timeout, TimeUnit timeUnit) {
+        long deadlineNanos = System.nanoTime() + timeUnit.toNanos(timeout);
+        for (ExecutorEngine engine : engines) {
+            engine.shutdownExecutor();
+        }
+        int undrained = 0;
+        for (ExecutorEngine engine : engines) {
+            undrained += engine.awaitTermination(deadlineNanos);
+        }
+        return undrained;
+    }
+
+    /**
+     * 获取自动调整线程数的控制器
+     *
+     * @return 控制器，不是使用 {@link #buildAdaptiveThreadPoolExecutor(int, int, long, TimeUnit)} 创建的时候返回 null
+     */
+    AdaptivePoolSizeController getPoolSizeController() {
+        return poolSizeController;
+    }
+
+    /**
+     * 拒绝新的任务，并停止自动调整线程数的控制器
+     */
+    private void shutdownExecutor() {
+        AdaptivePoolSizeController controller = poolSizeController;
+        if (controller != null) {
+            controller.stop();
+        }
+        executorService.shutdown();
+    }
+
+    private int awaitTermination(long deadlineNanos) {
+        try {
+            long remainingNanos = deadlineNanos - System.nanoTime();
+            if (executorService.awaitTermination(Math.max(0, remainingNanos), TimeUnit.NANOSECONDS)) {
+                return 0;
             }
-        });
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            ENGINES.remove(this);
+        }
+        long activeCount = statistics.getActiveCount();
+        int queuedCount = executorService.shutdownNow().size();
+        log.warn("ExecutorEngine [{}] can not been drained in time, dropped {} queued tasks, interrupted {} running"
+                + " tasks", name, queuedCount, activeCount);
+        return (int) (queuedCount + activeCount);
     }
 
     /**
@@ -127,11 +445,29 @@ public class ExecutorEngine implements AutoCloseable {
      *            {@link TimeUnit#MILLISECONDS}）
      * @param <I> 入参类型
      * @param <O> 出参类型
-     * @return 执行结果
+     * @return 执行结果，和输入参数的顺序一致
      */
     @SuppressWarnings("unchecked")
     public <I, O> List<O> execute(final I input, final Collection<ExecuteUnit<I, O>> executeUnits, Long timeout,
                                   TimeUnit timeUnit) {
+        return execute(input, executeUnits, timeout, timeUnit, false);
+    }
+
+    /**
+     * 多线程执行任务. 多个执行单元，使用相同的输入参数，进行多线程请求
+     *
+     * @param input 输入参数
+     * @param executeUnits 多个执行单元
+     * @param timeout 执行超时时间（可选参数），因为是并发去执行，线程足够多的时候，全部执行下来，只需要花费单个执行的时间（无限接近）
+     * @param timeUnit 执行超时时间单位（可选参数，如果设置了 timeout，没有设置 timeUnit，则默认使用
+     *            {@link TimeUnit#MILLISECONDS}）
+     * @param cancelOnFailure true：执行超时或者有一个执行单元失败的时候，取消并中断其它还没有完成的执行单元，立即释放线程
+     * @param <I> 入参类型
+     * @param <O> 出参类型
+     * @return 执行结果，和输入参数的顺序一致
+     */
+    public <I, O> List<O> execute(final I input, final Collection<ExecuteUnit<I, O>> executeUnits, Long timeout,
+                                  TimeUnit timeUnit, boolean cancelOnFailure) {
         if (executeUnits.size() == 1) {
             try {
                 return Lists.newArrayList(executeUnits.iterator().next().execute(input));
@@ -139,9 +475,9 @@ public class ExecutorEngine implements AutoCloseable {
                 throw new ExecuteException("execute task throw exception", ex);
             }
         }
-        ListenableFuture<List<O>> futures = submitFutures(input, executeUnits);
+        ListenableFuture<List<O>> futures = submitFutures(input, executeUnits, cancelOnFailure);
         addCallback(futures);
-        return getFutureResults(futures, timeout, timeUnit);
+        return getFutureResults(futures, timeout, timeUnit, cancelOnFailure);
     }
 
     /**
@@ -154,11 +490,29 @@ public class ExecutorEngine implements AutoCloseable {
      *            {@link TimeUnit#MILLISECONDS}）
      * @param <I> 入参类型
      * @param <O> 出参类型
-     * @return 执行结果
+     * @return 执行结果，和输入参数的顺序一致
      */
     @SuppressWarnings("unchecked")
     public <I, O> List<O> execute(final Collection<I> inputs, final ExecuteUnit<I, O> executeUnit, Long timeout,
                                   TimeUnit timeUnit) {
+        return execute(inputs, executeUnit, timeout, timeUnit, false);
+    }
+
+    /**
+     * 多线程执行任务.
+     *
+     * @param inputs 输入参数
+     * @param executeUnit 执行单元
+     * @param timeout 执行超时时间（可选参数），因为是并发去执行，线程足够多的时候，全部执行下来，只需要花费单个执行的时间（无限接近）
+     * @param timeUnit 执行超时时间单位（可选参数，如果设置了 timeout，没有设置 timeUnit，则默认使用
+     *            {@link TimeUnit#MILLISECONDS}）
+     * @param cancelOnFailure true：执行超时或者有一个执行单元失败的时候，取消并中断其它还没有完成的执行单元，立即释放线程
+     * @param <I> 入参类型
+     * @param <O> 出参类型
+     * @return 执行结果，和输入参数的顺序一致
+     */
+    public <I, O> List<O> execute(final Collection<I> inputs, final ExecuteUnit<I, O> executeUnit, Long timeout,
+                                  TimeUnit timeUnit, boolean cancelOnFailure) {
         if (inputs.size() == 1) {
             try {
                 return Lists.newArrayList(executeUnit.execute(inputs.iterator().next()));
@@ -166,9 +520,9 @@ public class ExecutorEngine implements AutoCloseable {
                 throw new ExecuteException("execute task throw exception", ex);
             }
         }
-        ListenableFuture<List<O>> futures = submitFutures(inputs, executeUnit);
+        ListenableFuture<List<O>> futures = submitFutures(inputs, executeUnit, cancelOnFailure);
         addCallback(futures);
-        return getFutureResults(futures, timeout, timeUnit);
+        return getFutureResults(futures, timeout, timeUnit, cancelOnFailure);
     }
 
     /**
@@ -178,7 +532,7 @@ public class ExecutorEngine implements AutoCloseable {
      * @param executeUnit 执行单元
      * @param <I> 入参类型
      * @param <O> 出参类型
-     * @return 执行结果
+     * @return 执行结果，和输入参数的顺序一致
      */
     @SuppressWarnings("unchecked")
     public <I, O> List<O> execute(final Collection<I> inputs, final ExecuteUnit<I, O> executeUnit) {
@@ -194,11 +548,28 @@ public class ExecutorEngine implements AutoCloseable {
      * @param timeUnit 执行超时时间单位（可选参数，如果设置了 timeout，没有设置 timeUnit，则默认使用
      *            {@link TimeUnit#MILLISECONDS}）
      * @param <O> 出参类型
-     * @return 执行结果
+     * @return 执行结果，和输入参数的顺序一致
      */
     @SuppressWarnings("unchecked")
     public <O> List<O> execute(final int size, final ExecuteUnit<Integer, O> executeUnit, Long timeout,
                                TimeUnit timeUnit) {
+        return execute(size, executeUnit, timeout, timeUnit, false);
+    }
+
+    /**
+     * 多线程执行任务.
+     *
+     * @param size 最多执行几次
+     * @param executeUnit 执行单元
+     * @param timeout 执行超时时间（可选参数），因为是并发去执行，线程足够多的时候，全部执行下来，只需要花费单个执行的时间（无限接近）
+     * @param timeUnit 执行超时时间单位（可选参数，如果设置了 timeout，没有设置 timeUnit，则默认使用
+     *            {@link TimeUnit#MILLISECONDS}）
+     * @param cancelOnFailure true：执行超时或者有一个执行单元失败的时候，取消并中断其它还没有完成的执行单元，立即释放线程
+     * @param <O> 出参类型
+     * @return 执行结果，和输入参数的顺序一致
+     */
+    public <O> List<O> execute(final int size, final ExecuteUnit<Integer, O> executeUnit, Long timeout,
+                               TimeUnit timeUnit, boolean cancelOnFailure) {
         if (size == 1) {
             try {
                 return Lists.newArrayList(executeUnit.execute(0));
@@ -210,9 +581,9 @@ public class ExecutorEngine implements AutoCloseable {
         for (int i = 0; i < size; i++) {
             inputs.add(i);
         }
-        ListenableFuture<List<O>> futures = submitFutures(inputs, executeUnit);
+        ListenableFuture<List<O>> futures = submitFutures(inputs, executeUnit, cancelOnFailure);
         addCallback(futures);
-        return getFutureResults(futures, timeout, timeUnit);
+        return getFutureResults(futures, timeout, timeUnit, cancelOnFailure);
     }
 
     /**
@@ -221,7 +592,7 @@ public class ExecutorEngine implements AutoCloseable {
      * @param size 最多执行几次
      * @param executeUnit 执行单元
      * @param <O> 出参类型
-     * @return 执行结果
+     * @return 执行结果，和输入参数的顺序一致
      */
     @SuppressWarnings("unchecked")
     public <O> List<O> execute(final int size, final ExecuteUnit<Integer, O> executeUnit) {
@@ -264,7 +635,332 @@ public class ExecutorEngine implements AutoCloseable {
     }
 
     /**
-     * 提交多线程任务.
+     * 多线程执行任务并增量合并结果，按照执行单元完成的顺序在调用方线程中合并，合并和还没有完成的执行单元同时进行
+     * <p>
+     * 有执行单元失败或者执行超时的时候，取消其它还没有完成的执行单元
+     *
+     * @param inputs 执行入参
+     * @param executeUnit 执行单元
+     * @param mergeUnit 增量合并结果单元
+     * @param timeout 执行超时时间（可选参数），因为是并发去执行，线程足够多的时候，全部执行下来，只需要花费单个执行的时间（无限接近）
+     * @param timeUnit 执行超时时间单位（可选参数，如果设置了 timeout，没有设置 timeUnit，则默认使用
+     *            {@link TimeUnit#MILLISECONDS}）
+     * @param <I> 入参类型
+     * @param <M> 中间结果类型
+     * @param <O> 最终结果类型
+     * @return 执行结果
+     * @see ReduceMergeUnit#incremental()
+     */
+    public <I, M, O> O execute(final Collection<I> inputs, final ExecuteUnit<I, M> executeUnit,
+                               final IncrementalMergeUnit<M, O> mergeUnit, Long timeout, TimeUnit timeUnit) {
+        List<ListenableFuture<M>> futures = new ArrayList<>(inputs.size());
+        long deadline = (timeout != null
+                ? System.nanoTime() + (timeUnit != null ? timeUnit : TimeUnit.MILLISECONDS).toNanos(timeout) : 0L);
+        boolean isSuccess = false;
+        try {
+            for (I each : inputs) {
+                futures.add(submit(each, executeUnit));
+            }
+            for (ListenableFuture<M> future : Futures.inCompletionOrder(futures)) {
+                M result = (timeout != null ? future.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)
+                        : future.get());
+                mergeUnit.accept(result);
+            }
+            isSuccess = true;
+            return mergeUnit.getResult();
+        } catch (final InterruptedException | ExecutionException | RejectedExecutionException ex) {
+            // 其它异常信息，使用自定义异常进行包装；线程池拒绝的时候，取消已经提交的执行单元
+            throw new ExecuteException("execute task throw exception", ex);
+        } catch (TimeoutException ex) {
+            throw new ExecuteTimeoutException("execute task throw times out exception", ex);
+        } finally {
+            if (!isSuccess) {
+                for (ListenableFuture<M> future : futures) {
+                    future.cancel(true);
+                }
+            }
+        }
+    }
+
+    /**
+     * 流式多线程执行任务并增量合并结果，同时执行的执行单元最多 {@code maxConcurrency} 个，一个执行单元完成之后才会从
+     * {@code inputs} 中读取下一个输入参数；执行结果按照完成的顺序合并，不会保存全部的执行结果，任意数量的输入参数都只占用固定的内存
+     * <p>
+     * 有执行单元失败、执行超时或者被线程池拒绝的时候，取消其它还没有完成的执行单元
+     *
+     * @param inputs 输入参数
+     * @param executeUnit 执行单元
+     * @param mergeUnit 增量合并结果单元
+     * @param maxConcurrency 同时执行的执行单元的最大数量，不能超过线程池的最大线程数 + 队列的容量，超过的时候执行单元会被拒绝，抛出
+     *            {@link ExecuteException}
+     * @param timeout 执行超时时间（可选参数），整体的超时时间
+     * @param timeUnit 执行超时时间单位（可选参数，如果设置了 timeout，没有设置 timeUnit，则默认使用
+     *            {@link TimeUnit#MILLISECONDS}）
+     * @param <I> 入参类型
+     * @param <M> 中间结果类型
+     * @param <O> 最终结果类型
+     * @return 执行结果
+     */
+    public <I, M, O> O executeStream(final Iterator<I> inputs, final ExecuteUnit<I, M> executeUnit,
+                                     final IncrementalMergeUnit<M, O> mergeUnit, int maxConcurrency, Long timeout,
+                                     TimeUnit timeUnit) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency must be greater than 0");
+        }
+        long deadline = (timeout != null
+                ? System.nanoTime() + (timeUnit != null ? timeUnit : TimeUnit.MILLISECONDS).toNanos(timeout) : 0L);
+        CompletionService<M> completionService = new ExecutorCompletionService<>(executorService);
+        Set<Future<M>> running = new HashSet<>(maxConcurrency * 2);
+        try {
+            while (!running.isEmpty() || inputs.hasNext()) {
+                while (running.size() < maxConcurrency && inputs.hasNext()) {
+                    final I each = inputs.next();
+                    running.add(completionService.submit(() -> executeUnit.execute(each)));
+                }
+                Future<M> done;
+                if (timeout != null) {
+                    done = completionService.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (done == null) {
+                        throw new ExecuteTimeoutException("execute task throw times out exception",
+                                new TimeoutException());
+                    }
+                } else {
+                    done = completionService.take();
+                }
+                running.remove(done);
+                mergeUnit.accept(done.get());
+            }
+            return mergeUnit.getResult();
+        } catch (final InterruptedException | ExecutionException | RejectedExecutionException ex) {
+            // 其它异常信息，使用自定义异常进行包装；线程池拒绝的时候，在 finally 中取消已经提交的执行单元
+            throw new ExecuteException("execute task throw exception", ex);
+        } finally {
+            for (Future<M> future : running) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * 流式多线程执行任务并增量合并结果，执行完成之后关闭 {@code inputs}
+     *
+     * @param inputs 输入参数，执行完成或者失败之后都会被关闭
+     * @param executeUnit 执行单元
+     * @param mergeUnit 增量合并结果单元
+     * @param maxConcurrency 同时执行的执行单元的最大数量
+     * @param <I> 入参类型
+     * @param <M> 中间结果类型
+     * @param <O> 最终结果类型
+     * @return 执行结果
+     * @see #executeStream(Iterator, ExecuteUnit, IncrementalMergeUnit, int, Long, TimeUnit)
+     */
+    public <I, M, O> O executeStream(final Stream<I> inputs, final ExecuteUnit<I, M> executeUnit,
+                                     final IncrementalMergeUnit<M, O> mergeUnit, int maxConcurrency) {
+        try (Stream<I> stream = inputs) {
+            return executeStream(stream.iterator(), executeUnit, mergeUnit, maxConcurrency, null, null);
+        }
+    }
+
+    /**
+     * 打开一个结构化并发的执行范围，范围内提交的子任务共用一个截止时间，有一个子任务失败的时候取消其它的子任务，关闭范围的时候取消所有还没有完成的子任务，
+     * 并且等待正在执行的子任务结束
+     *
+     * @param timeout 截止时间，从现在开始计算
+     * @param timeUnit 截止时间的单位
+     * @return 执行范围，使用 try-with-resources 关闭
+     */
+    public ExecutionScope openScope(long timeout, TimeUnit timeUnit) {
+        return new ExecutionScope(this, TIMEOUT_SCHEDULER, timeout, timeUnit);
+    }
+
+    /**
+     * 使用 ForkJoinPool 递归拆分执行任务，等待执行完成之后返回合并后的结果
+     * <p>
+     * 使用 {@link #buildForkJoinExecutor()} 创建的时候使用当前的线程池，否则使用 {@link ForkJoinPool#commonPool()}；拆分的子任务直接在
+     * ForkJoinPool 中调度，不计入 {@link #getStatistics()}
+     *
+     * @param input 输入参数
+     * @param executeUnit 可以递归拆分的执行单元
+     * @param <I> 入参类型
+     * @param <O> 出参类型
+     * @return 执行结果
+     */
+    public <I, O> O invoke(final I input, final RecursiveExecuteUnit<I, O> executeUnit) {
+        ForkJoinPool pool = (forkJoinPool != null ? forkJoinPool : ForkJoinPool.commonPool());
+        return pool.invoke(new RecursiveExecuteTask<>(input, executeUnit));
+    }
+
+    /**
+     * 多线程执行任务，在截止时间内尽可能多的返回执行结果，不会因为部分执行单元失败、超时或者被线程池拒绝而抛出异常；超过截止时间还没有完成的执行单元会被取消
+     *
+     * @param inputs 输入参数
+     * @param executeUnit 执行单元
+     * @param deadline 整体的截止时间，从调用的时候开始计算
+     * @param timeUnit 时间单位
+     * @param <I> 入参类型
+     * @param <O> 出参类型
+     * @return 执行的部分结果
+     */
+    public <I, O> ExecutePartialResult<I, O> executePartial(final Collection<I> inputs,
+                                                            final ExecuteUnit<I, O> executeUnit, long deadline,
+                                                            TimeUnit timeUnit) {
+        return executePartial(inputs, executeUnit, null, null, deadline, timeUnit);
+    }
+
+    /**
+     * 多线程执行任务，在截止时间内尽可能多的返回执行结果，不会因为部分执行单元失败、超时或者被线程池拒绝而抛出异常
+     * <ul>
+     * <li>unitTimeout：单个执行单元的超时时间，从提交执行单元的时候开始计算，超时之后取消并中断这个执行单元
+     * <li>hedgeDelay：对冲请求的延迟时间，执行单元超过这个时间还没有完成的时候，使用相同的输入参数再提交一次，使用先成功的结果，
+     * 另一个会被取消，所有已经发出的请求都失败的时候才失败；适合慢请求是偶发的、可以重复执行的执行单元（例如：查询）
+     * <li>deadline：整体的截止时间，超过截止时间还没有完成的执行单元会被取消，作为超时的输入参数返回
+     * </ul>
+     *
+     * @param inputs 输入参数
+     * @param executeUnit 执行单元
+     * @param unitTimeout 单个执行单元的超时时间（可选参数）
+     * @param hedgeDelay 对冲请求的延迟时间（可选参数）
+     * @param deadline 整体的截止时间，从调用的时候开始计算
+     * @param timeUnit 时间单位
+     * @param <I> 入参类型
+     * @param <O> 出参类型
+     * @return 执行的部分结果
+     */
+    public <I, O> ExecutePartialResult<I, O> executePartial(final Collection<I> inputs,
+                                                            final ExecuteUnit<I, O> executeUnit, Long unitTimeout,
+                                                            Long hedgeDelay, long deadline, TimeUnit timeUnit) {
+        List<I> inputList = new ArrayList<>(inputs);
+        List<ListenableFuture<O>> futures = new ArrayList<>(inputList.size());
+        for (I each : inputList) {
+            ListenableFuture<O> future;
+            try {
+                future = (hedgeDelay != null ? submitHedged(each, executeUnit, hedgeDelay, timeUnit)
+                        : submit(each, executeUnit));
+            } catch (RejectedExecutionException ex) {
+                // 线程池已经饱和或者已经关闭，作为失败的执行单元返回，不抛出异常
+                future = Futures.immediateFailedFuture(ex);
+            }
+            if (unitTimeout != null) {
+                future = Futures.withTimeout(future, unitTimeout, timeUnit, TIMEOUT_SCHEDULER);
+            }
+            futures.add(future);
+        }
+        try {
+            Futures.successfulAsList(futures).get(deadline, timeUnit);
+        } catch (TimeoutException ex) {
+            log.debug("execute partial task reach the deadline: {} {}", deadline, timeUnit);
+        } catch (ExecutionException ex) {
+            // successfulAsList 不会因为执行单元失败而失败
+            log.warn("execute partial task throw exception", ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+
+        ExecutePartialResult<I, O> partialResult = new ExecutePartialResult<>(inputList.size());
+        for (int i = 0; i < inputList.size(); i++) {
+            I input = inputList.get(i);
+            ListenableFuture<O> future = futures.get(i);
+            if (!future.isDone()) {
+                future.cancel(true);
+                partialResult.addTimeout(input);
+                continue;
+            }
+            try {
+                partialResult.addSuccess(input, Futures.getDone(future));
+            } catch (ExecutionException ex) {
+                if (ex.getCause() instanceof TimeoutException) {
+                    partialResult.addTimeout(input);
+                } else {
+                    partialResult.addFailure(input, ex.getCause());
+                }
+            } catch (CancellationException ex) {
+                partialResult.addTimeout(input);
+            }
+        }
+        return partialResult;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <I, O> ListenableFuture<O> submit(final I input, final ExecuteUnit<I, O> executeUnit) {
+        return (ListenableFuture<O>) executorService.submit(() -> executeUnit.execute(input));
+    }
+
+    private <I, O> ListenableFuture<O> submitHedged(final I input, final ExecuteUnit<I, O> executeUnit,
+                                                    long hedgeDelay, TimeUnit timeUnit) {
+        // 先提交第一次请求，被线程池拒绝的时候直接抛出异常，不会发出对冲请求
+        ListenableFuture<O> primary = submit(input, executeUnit);
+        SettableFuture<O> result = SettableFuture.create();
+        List<ListenableFuture<O>> attempts = new CopyOnWriteArrayList<>();
+        attempts.add(primary);
+        // 还没有结束的请求数量，对冲请求发出之前也占用一个名额，所有已经发出的请求都失败之后才失败
+        AtomicInteger pending = new AtomicInteger(2);
+        AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+        Consumer<Throwable> onAttemptFailed = thrown -> {
+            if (thrown != null) {
+                firstFailure.compareAndSet(null, thrown);
+            }
+            if (pending.decrementAndGet() == 0) {
+                result.setException(firstFailure.get());
+            }
+        };
+        ScheduledFuture<?> hedgeTimer = TIMEOUT_SCHEDULER.schedule(() -> {
+            if (result.isDone()) {
+                onAttemptFailed.accept(null);
+                return;
+            }
+            ListenableFuture<O> backup;
+            try {
+                backup = submit(input, executeUnit);
+            } catch (RejectedExecutionException ex) {
+                onAttemptFailed.accept(ex);
+                return;
+            }
+            attempts.add(backup);
+            Futures.addCallback(backup, newHedgedCallback(result, onAttemptFailed), MoreExecutors.directExecutor());
+            if (result.isDone()) {
+                backup.cancel(true);
+            }
+        }, hedgeDelay, timeUnit);
+        Futures.addCallback(primary, newHedgedCallback(result, thrown -> {
+            // 对冲请求还没有发出的时候，不再发出对冲请求，已经发出的请求（只有第一次请求）都失败了
+            if (hedgeTimer.cancel(false)) {
+                onAttemptFailed.accept(null);
+            }
+            onAttemptFailed.accept(thrown);
+        }), MoreExecutors.directExecutor());
+        result.addListener(() -> {
+            hedgeTimer.cancel(false);
+            for (ListenableFuture<O> attempt : attempts) {
+                attempt.cancel(true);
+            }
+        }, MoreExecutors.directExecutor());
+        return result;
+    }
+
+    /**
+     * 对冲请求的回调函数：第一个成功的请求作为最终的结果，请求失败的时候交给 {@code onFailure} 处理
+     *
+     * @param result 最终的结果
+     * @param onFailure 请求失败的处理
+     * @param <O> 出参类型
+     * @return 回调函数
+     */
+    private static <O> FutureCallback<O> newHedgedCallback(SettableFuture<O> result, Consumer<Throwable> onFailure) {
+        return new FutureCallback<O>() {
+            @Override
+            public void onSuccess(O value) {
+                result.set(value);
+            }
+
+            @Override
+            public void onFailure(Throwable thrown) {
+                onFailure.accept(thrown);
+            }
+        };
+    }
+
+    /**
+     * 提交多线程任务，执行结果的顺序和 {@code inputs} 的顺序一致.
      *
      * @param inputs 执行入参
      * @param executeUnit 执行单元
@@ -274,15 +970,31 @@ public class ExecutorEngine implements AutoCloseable {
      */
     public <I, O> ListenableFuture<List<O>> submitFutures(final Collection<I> inputs,
                                                           final ExecuteUnit<I, O> executeUnit) {
-        Set<ListenableFuture<O>> result = new HashSet<>(inputs.size());
+        return submitFutures(inputs, executeUnit, false);
+    }
+
+    /**
+     * 提交多线程任务，执行结果的顺序和 {@code inputs} 的顺序一致.
+     *
+     * @param inputs 执行入参
+     * @param executeUnit 执行单元
+     * @param cancelOnFailure true：有一个执行单元失败，或者返回的结果被取消的时候，取消并中断其它还没有完成的执行单元
+     * @param <I> 入参类型
+     * @param <O> 最终结果类型
+     * @return 执行结果
+     */
+    public <I, O> ListenableFuture<List<O>> submitFutures(final Collection<I> inputs,
+                                                          final ExecuteUnit<I, O> executeUnit,
+                                                          boolean cancelOnFailure) {
+        List<ListenableFuture<O>> result = new ArrayList<>(inputs.size());
         for (final I each : inputs) {
             result.add((ListenableFuture<O>) executorService.submit(() -> executeUnit.execute(each)));
         }
-        return Futures.allAsList(result);
+        return allAsList(result, cancelOnFailure);
     }
 
     /**
-     * 提交多线程任务.
+     * 提交多线程任务，执行结果的顺序和 {@code executeUnits} 的顺序一致.
      *
      * @param input 执行入参
      * @param executeUnits 多个执行单元
@@ -292,15 +1004,45 @@ public class ExecutorEngine implements AutoCloseable {
      */
     public <I, O> ListenableFuture<List<O>> submitFutures(final I input,
                                                           final Collection<ExecuteUnit<I, O>> executeUnits) {
-        Set<ListenableFuture<O>> result = new HashSet<>(executeUnits.size());
+        return submitFutures(input, executeUnits, false);
+    }
+
+    /**
+     * 提交多线程任务，执行结果的顺序和 {@code executeUnits} 的顺序一致.
+     *
+     * @param input 执行入参
+     * @param executeUnits 多个执行单元
+     * @param cancelOnFailure true：有一个执行单元失败，或者返回的结果被取消的时候，取消并中断其它还没有完成的执行单元
+     * @param <I> 入参类型
+     * @param <O> 最终结果类型
+     * @return 执行结果
+     */
+    public <I, O> ListenableFuture<List<O>> submitFutures(final I input,
+                                                          final Collection<ExecuteUnit<I, O>> executeUnits,
+                                                          boolean cancelOnFailure) {
+        List<ListenableFuture<O>> result = new ArrayList<>(executeUnits.size());
         for (ExecuteUnit<I, O> each : executeUnits) {
             result.add((ListenableFuture<O>) executorService.submit(() -> each.execute(input)));
         }
-        return Futures.allAsList(result);
+        return allAsList(result, cancelOnFailure);
+    }
+
+    private static <O> ListenableFuture<List<O>> allAsList(List<ListenableFuture<O>> futures,
+                                                           boolean cancelOnFailure) {
+        ListenableFuture<List<O>> allFutures = Futures.allAsList(futures);
+        if (cancelOnFailure) {
+            // allAsList 在第一个执行单元失败的时候就会完成，但是不会取消其它的执行单元；全部成功的时候 cancel 不会有任何影响
+            allFutures.addListener(() -> {
+                for (ListenableFuture<O> future : futures) {
+                    future.cancel(true);
+                }
+            }, MoreExecutors.directExecutor());
+        }
+        return allFutures;
     }
 
     /**
-     * 为多线程任务添加回调监控
+     * 为多线程任务添加回调监控，回调只打印日志，直接在完成任务的线程中执行，不占用线程池，也不计入 {@link #getStatistics()}
      *
      * @param allFutures 多线程任务
      * @param <O> 最终结果类型
@@ -316,7 +1058,7 @@ public class ExecutorEngine implements AutoCloseable {
             public void onFailure(Throwable thrown) {
                 log.warn("Concurrent execute result failure", thrown);
             }
-        }, executorService);
+        }, MoreExecutors.directExecutor());
     }
 
     /**
@@ -330,6 +1072,22 @@ public class ExecutorEngine implements AutoCloseable {
      * @return 执行结果
      */
     public <O> O getFutureResults(final ListenableFuture<O> allFutures, Long timeout, TimeUnit timeUnit) {
+        return getFutureResults(allFutures, timeout, timeUnit, false);
+    }
+
+    /**
+     * 获取多线程任务执行的最终结果
+     *
+     * @param allFutures 多线程任务
+     * @param timeout 执行超时时间（可选参数），因为是并发去执行，线程足够多的时候，全部执行下来，只需要花费单个执行的时间（无限接近）
+     * @param timeUnit 执行超时时间单位（可选参数，如果设置了 timeout，没有设置 timeUnit，则默认使用
+     *            {@link TimeUnit#MILLISECONDS}）
+     * @param cancelOnFailure true：执行超时、执行失败或者当前线程被中断的时候，取消并中断还没有完成的多线程任务
+     * @param <O> 最终结果类型
+     * @return 执行结果
+     */
+    public <O> O getFutureResults(final ListenableFuture<O> allFutures, Long timeout, TimeUnit timeUnit,
+                                  boolean cancelOnFailure) {
         try {
             if (timeout != null && timeUnit != null) {
                 return allFutures.get(timeout, timeUnit);
@@ -339,10 +1097,52 @@ public class ExecutorEngine implements AutoCloseable {
             }
             return allFutures.get();
         } catch (final InterruptedException | ExecutionException ex) {
+            if (cancelOnFailure) {
+                allFutures.cancel(true);
+            }
             // 其它异常信息，使用自定义异常进行包装
             throw new ExecuteException("execute task throw exception", ex);
         } catch (TimeoutException ex) {
+            if (cancelOnFailure) {
+                // 取消 allAsList 会同时取消并中断所有还没有完成的执行单元
+                allFutures.cancel(true);
+            }
             throw new ExecuteTimeoutException("execute task throw times out exception", ex);
         }
     }
+
+    private static class RecursiveExecuteTask<I, O> extends RecursiveTask<O> {
+        private static final long                serialVersionUID = 5043257713869311032L;
+        private final I                          input;
+        private final RecursiveExecuteUnit<I, O> executeUnit;
+
+        RecursiveExecuteTask(I input, RecursiveExecuteUnit<I, O> executeUnit) {
+            this.input = input;
+            this.executeUnit = executeUnit;
+        }
+
+        @Override
+        protected O compute() {
+            if (!executeUnit.isSplittable(input)) {
+                try {
+                    return executeUnit.execute(input);
+                } catch (ExecuteException ex) {
+                    throw ex;
+                } catch (Exception ex) {
+                    throw new ExecuteException("execute task throw exception", ex);
+                }
+            }
+            List<I> parts = executeUnit.split(input);
+            List<RecursiveExecuteTask<I, O>> tasks = new ArrayList<>(parts.size());
+            for (I part : parts) {
+                tasks.add(new RecursiveExecuteTask<>(part, executeUnit));
+            }
+            invokeAll(tasks);
+            List<O> results = new ArrayList<>(tasks.size());
+            for (RecursiveExecuteTask<I, O> task : tasks) {
+                results.add(task.join());
+            }
+            return executeUnit.combine(results);
+        }
+    }
 }
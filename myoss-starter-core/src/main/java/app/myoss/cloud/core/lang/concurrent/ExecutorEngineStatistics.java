@@ -0,0 +1,129 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package app.myoss.cloud.core.lang.concurrent;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link ExecutorEngine} 的运行统计，分别记录任务在队列中的等待时间和执行时间，用于根据数据调整线程池的大小
+ * <p>
+ * 队列中的任务数、正在执行的任务数由提交、开始、完成的任务数计算得出，不依赖具体的线程池实现
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午8:32:33
+ */
+public class ExecutorEngineStatistics {
+    private final LongAdder submittedCount = new LongAdder();
+    private final LongAdder rejectedCount  = new LongAdder();
+    private final LongAdder startedCount   = new LongAdder();
+    private final LongAdder completedCount = new LongAdder();
+    private final LongAdder queueWaitNanos = new LongAdder();
+    private final LongAdder runNanos       = new LongAdder();
+
+    void recordSubmitted() {
+        submittedCount.increment();
+    }
+
+    void recordRejected() {
+        rejectedCount.increment();
+    }
+
+    void recordStarted(long waitNanos) {
+        startedCount.increment();
+        queueWaitNanos.add(waitNanos);
+    }
+
+    void recordCompleted(long elapsedNanos) {
+        completedCount.increment();
+        runNanos.add(elapsedNanos);
+    }
+
+    /**
+     * 提交的任务数（包括被拒绝的任务）
+     *
+     * @return 提交的任务数
+     */
+    public long getSubmittedCount() {
+        return submittedCount.sum();
+    }
+
+    /**
+     * 线程池拒绝的任务数
+     *
+     * @return 拒绝的任务数
+     */
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    /**
+     * 执行完成的任务数（包括执行失败的任务）
+     *
+     * @return 执行完成的任务数
+     */
+    public long getCompletedCount() {
+        return completedCount.sum();
+    }
+
+    /**
+     * 在队列中等待执行的任务数
+     *
+     * @return 等待执行的任务数
+     */
+    public long getQueueSize() {
+        return Math.max(0, getSubmittedCount() - getRejectedCount() - startedCount.sum());
+    }
+
+    /**
+     * 正在执行的任务数
+     *
+     * @return 正在执行的任务数
+     */
+    public long getActiveCount() {
+        return Math.max(0, startedCount.sum() - getCompletedCount());
+    }
+
+    /**
+     * 开始执行的任务在队列中等待的总时间
+     *
+     * @param timeUnit 时间单位
+     * @return 等待的总时间
+     */
+    public long getTotalQueueWaitTime(TimeUnit timeUnit) {
+        return timeUnit.convert(queueWaitNanos.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 执行完成的任务的总执行时间
+     *
+     * @param timeUnit 时间单位
+     * @return 执行的总时间
+     */
+    public long getTotalRunTime(TimeUnit timeUnit) {
+        return timeUnit.convert(runNanos.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 开始执行的任务数
+     *
+     * @return 开始执行的任务数
+     */
+    public long getStartedCount() {
+        return startedCount.sum();
+    }
+}
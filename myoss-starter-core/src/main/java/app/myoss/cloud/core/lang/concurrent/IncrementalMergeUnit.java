@@ -0,0 +1,43 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package app.myoss.cloud.core.lang.concurrent;
+
+/**
+ * 增量合并执行单元，每个执行单元完成之后立即合并它的结果，不需要保存全部的执行结果.
+ * <p>
+ * {@link #accept(Object)} 按照执行单元完成的顺序在调用方线程中串行调用，不需要考虑线程安全，但是合并的结果不能依赖执行单元的顺序
+ *
+ * @param <I> 入参类型
+ * @param <O> 出参类型
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午8:28:49
+ */
+public interface IncrementalMergeUnit<I, O> {
+    /**
+     * 合并一个执行结果.
+     *
+     * @param param 执行结果
+     */
+    void accept(I param);
+
+    /**
+     * 获取合并后结果.
+     *
+     * @return 合并后结果
+     */
+    O getResult();
+}
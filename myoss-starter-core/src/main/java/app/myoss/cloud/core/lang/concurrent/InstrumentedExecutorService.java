@@ -0,0 +1,85 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package app.myoss.cloud.core.lang.concurrent;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 记录任务提交、拒绝、排队等待和执行时间的线程池代理
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午8:32:33
+ * @see ExecutorEngineStatistics
+ */
+class InstrumentedExecutorService extends AbstractExecutorService {
+    private final ExecutorService          delegate;
+    private final ExecutorEngineStatistics statistics;
+
+    InstrumentedExecutorService(ExecutorService delegate, ExecutorEngineStatistics statistics) {
+        this.delegate = delegate;
+        this.statistics = statistics;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        long submitTime = System.nanoTime();
+        statistics.recordSubmitted();
+        try {
+            delegate.execute(() -> {
+                long startTime = System.nanoTime();
+                statistics.recordStarted(startTime - submitTime);
+                try {
+                    command.run();
+                } finally {
+                    statistics.recordCompleted(System.nanoTime() - startTime);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            statistics.recordRejected();
+            throw ex;
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+}
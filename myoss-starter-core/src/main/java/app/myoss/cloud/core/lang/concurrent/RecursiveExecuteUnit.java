@@ -0,0 +1,63 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package app.myoss.cloud.core.lang.concurrent;
+
+import java.util.List;
+
+/**
+ * 可以递归拆分的执行单元，适合纯 CPU 计算的任务，在 ForkJoinPool 中执行，子任务之间可以窃取工作.
+ *
+ * @param <I> 入参类型
+ * @param <O> 出参类型
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午8:30:54
+ * @see ExecutorEngine#invoke(Object, RecursiveExecuteUnit)
+ */
+public interface RecursiveExecuteUnit<I, O> {
+    /**
+     * 是否需要拆分为多个子任务，输入数据足够小的时候直接执行 {@link #execute(Object)}.
+     *
+     * @param input 输入待处理数据
+     * @return true：需要拆分
+     */
+    boolean isSplittable(I input);
+
+    /**
+     * 拆分为多个子任务的输入数据.
+     *
+     * @param input 输入待处理数据
+     * @return 子任务的输入数据
+     */
+    List<I> split(I input);
+
+    /**
+     * 执行不需要拆分的任务.
+     *
+     * @param input 输入待处理数据
+     * @return 返回处理结果
+     * @throws Exception 执行期异常
+     */
+    O execute(I input) throws Exception;
+
+    /**
+     * 合并子任务的处理结果，顺序和 {@link #split(Object)} 返回的顺序一致.
+     *
+     * @param results 子任务的处理结果
+     * @return 合并后结果
+     */
+    O combine(List<O> results);
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package app.myoss.cloud.core.lang.concurrent;
+
+import java.util.List;
+import java.util.function.BinaryOperator;
+
+import lombok.Getter;
+
+/**
+ * 使用满足结合律的合并函数归并执行结果的合并执行单元，例如：求和、去重合并集合.
+ * <ul>
+ * <li>{@link #merge(List)}：按照执行结果的顺序归并，合并函数只需要满足结合律；执行结果的数量达到 {@link #parallelThreshold} 的时候，使用
+ * ForkJoin 公共线程池并行树形归并
+ * <li>{@link #incremental()}：每个执行单元完成之后立即合并，合并和还没有完成的执行单元同时进行，配合
+ * {@link ExecutorEngine#execute(java.util.Collection, ExecuteUnit, IncrementalMergeUnit, Long, java.util.concurrent.TimeUnit)}
+ * 使用；按照执行单元完成的顺序合并，合并函数必须同时满足交换律，例如：集合拼接不满足交换律，每次执行的结果顺序可能不一样
+ * </ul>
+ *
+ * @param <T> 执行结果类型
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午8:29:33
+ */
+@Getter
+public class ReduceMergeUnit<T> implements MergeUnit<T, T> {
+    /**
+     * 合并的初始值，和任意值 x 合并的结果都是 x
+     */
+    private final T                 identity;
+    /**
+     * 满足结合律的合并函数，并行归并的时候会在多个线程中调用，不能修改入参；使用 {@link #incremental()} 的时候还必须满足交换律
+     */
+    private final BinaryOperator<T> combiner;
+    /**
+     * 执行结果的数量达到这个阈值的时候使用并行归并，小于等于 0 的时候不使用并行归并
+     */
+    private final int               parallelThreshold;
+
+    /**
+     * 创建归并执行单元，不使用并行归并
+     *
+     * @param identity 合并的初始值
+     * @param combiner 满足结合律的合并函数
+     */
+    public ReduceMergeUnit(T identity, BinaryOperator<T> combiner) {
+        this(identity, combiner, 0);
+    }
+
+    /**
+     * 创建归并执行单元
+     *
+     * @param identity 合并的初始值
+     * @param combiner 满足结合律的合并函数
+     * @param parallelThreshold 执行结果的数量达到这个阈值的时候使用并行归并
+     */
+    public ReduceMergeUnit(T identity, BinaryOperator<T> combiner, int parallelThreshold) {
+        this.identity = identity;
+        this.combiner = combiner;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    @Override
+    public T merge(List<T> params) {
+        if (parallelThreshold > 0 && params.size() >= parallelThreshold) {
+            return params.parallelStream().reduce(identity, combiner);
+        }
+        T result = identity;
+        for (T param : params) {
+            result = combiner.apply(result, param);
+        }
+        return result;
+    }
+
+    /**
+     * 创建增量合并执行单元，每次调用都会创建新的实例；按照执行单元完成的顺序合并，{@link #combiner} 必须同时满足结合律和交换律，否则合并的结果不确定
+     *
+     * @return 增量合并执行单元
+     */
+    public IncrementalMergeUnit<T, T> incremental() {
+        return new IncrementalMergeUnit<T, T>() {
+            private T result = identity;
+
+            @Override
+            public void accept(T param) {
+                result = combiner.apply(result, param);
+            }
+
+            @Override
+            public T getResult() {
+                return result;
+            }
+        };
+    }
+}
@@ -17,9 +17,14 @@
 
 package app.myoss.cloud.core.spring.boot.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 
+import app.myoss.cloud.core.constants.MyossConstants;
+import app.myoss.cloud.core.spring.context.ExecutorEngineLifecycle;
 import app.myoss.cloud.core.spring.context.SpringContextHolder;
 
 /**
@@ -36,4 +41,17 @@ public class CommonAutoConfiguration {
      */
     public CommonAutoConfiguration() {
     }
+
+    /**
+     * 在 Spring 容器关闭的时候优雅的关闭当前容器的 {@link app.myoss.cloud.core.lang.concurrent.ExecutorEngine}
+     *
+     * @param shutdownTimeoutMillis 等待已经提交的任务执行完成的超时时间（毫秒），默认值为：30000
+     * @return 执行框架的生命周期管理
+     */
+    @ConditionalOnMissingBean
+    @Bean
+    public ExecutorEngineLifecycle executorEngineLifecycle(@Value("${" + MyossConstants.CORE_CONFIG_PREFIX
+            + ".executor-engine.shutdown-timeout-millis:30000}") long shutdownTimeoutMillis) {
+        return new ExecutorEngineLifecycle(shutdownTimeoutMillis);
+    }
 }
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.core.spring.context;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.SmartLifecycle;
+
+import app.myoss.cloud.core.lang.concurrent.ExecutorEngine;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 在 Spring 容器关闭的时候优雅的关闭当前容器的 {@link ExecutorEngine}：立即拒绝新的任务，在超时时间内等待已经提交的任务执行完成，超过超时时间之后中断还没有完成的任务，并打印没有执行完成的任务数
+ * <p>
+ * 只关闭当前容器（不包括父容器）中定义的 {@link ExecutorEngine} Bean，和使用 {@link #register(ExecutorEngine)} 注册的执行框架，
+ * 不会影响同一个 JVM 中的其它容器（父子容器、devtools 重启、测试用例缓存的容器）；其它的执行框架在 JVM 退出的时候关闭
+ * <p>
+ * 在其它的 Bean 销毁之前关闭，保证执行中的任务还可以使用其它的 Bean；关闭之后不能再次启动，调用 {@link #start()} 会抛出异常
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午8:36:14
+ * @see ExecutorEngine#shutdownAll(Collection, long, TimeUnit)
+ */
+@Slf4j
+public class ExecutorEngineLifecycle implements SmartLifecycle, ApplicationContextAware {
+    /**
+     * 默认的阶段，在大部分的 {@link SmartLifecycle} 之前停止
+     * <p>
+     * Spring Boot 2.2 及以上的版本，Web 容器使用 {@code Integer.MAX_VALUE}、{@code Integer.MAX_VALUE - 1} 的阶段，先停止接收请求；
+     * Spring Boot 2.1 的 Web 容器不是 {@link SmartLifecycle}，在所有的 {@link SmartLifecycle} 停止之后才在
+     * {@code onClose()} 中停止，关闭执行框架之后到 Web 容器停止之前，向执行框架提交任务的请求会抛出
+     * {@link java.util.concurrent.RejectedExecutionException}，需要在关闭应用之前先从注册中心/负载均衡中摘除流量
+     */
+    public static final int           DEFAULT_PHASE = Integer.MAX_VALUE - 2048;
+
+    @Getter
+    private final long                shutdownTimeoutMillis;
+    private final Set<ExecutorEngine> engines       = Collections.synchronizedSet(new LinkedHashSet<>());
+    private ApplicationContext        applicationContext;
+    private volatile boolean          running;
+    private volatile boolean          stopped;
+
+    /**
+     * 创建执行框架的生命周期管理
+     *
+     * @param shutdownTimeoutMillis 等待已经提交的任务执行完成的超时时间（毫秒）
+     */
+    public ExecutorEngineLifecycle(long shutdownTimeoutMillis) {
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+    }
+
+    @Override
+    public void setApplicationContext(ApplicationContext applicationContext) {
+        this.applicationContext = applicationContext;
+    }
+
+    /**
+     * 注册不是 Spring Bean 的执行框架，在当前容器关闭的时候一起关闭
+     *
+     * @param engine 执行框架
+     */
+    public void register(ExecutorEngine engine) {
+        engines.add(engine);
+    }
+
+    /**
+     * 获取当前容器关闭的时候需要关闭的执行框架
+     *
+     * @return 当前容器中定义的执行框架，和注册的执行框架
+     */
+    public List<ExecutorEngine> getOwnedEngines() {
+        Set<ExecutorEngine> owned = new LinkedHashSet<>();
+        if (applicationContext != null) {
+            // 不包括父容器中的 Bean，不会提前初始化延迟加载的 Bean
+            owned.addAll(applicationContext.getBeansOfType(ExecutorEngine.class, false, false).values());
+        }
+        synchronized (engines) {
+            owned.addAll(engines);
+        }
+        return new ArrayList<>(owned);
+    }
+
+    @Override
+    public void start() {
+        if (stopped) {
+            List<String> names = getOwnedEngines().stream()
+                    .filter(ExecutorEngine::isShutdown)
+                    .map(ExecutorEngine::getName)
+                    .collect(Collectors.toList());
+            if (!names.isEmpty()) {
+                throw new IllegalStateException("ExecutorEngine " + names + " has been shutdown, can not restart");
+            }
+        }
+        this.running = true;
+    }
+
+    @Override
+    public void stop() {
+        long begin = System.currentTimeMillis();
+        List<ExecutorEngine> owned = getOwnedEngines();
+        int undrained = ExecutorEngine.shutdownAll(owned, shutdownTimeoutMillis, TimeUnit.MILLISECONDS);
+        long cost = System.currentTimeMillis() - begin;
+        if (undrained > 0) {
+            log.warn("shutdown {} ExecutorEngine cost {}ms, {} tasks can not been drained", owned.size(), cost,
+                    undrained);
+        } else {
+            log.info("shutdown {} ExecutorEngine cost {}ms, all tasks have been drained", owned.size(), cost);
+        }
+        this.stopped = true;
+        this.running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return DEFAULT_PHASE;
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package app.myoss.cloud.core.lang.concurrent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * {@link AdaptivePoolSizeController} 测试类，使用模拟的时钟和运行统计构造任务的到达速率、排队等待时间，直接调用控制器的调整方法，检查计算出来的核心线程数
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午8:34:39
+ */
+public class AdaptivePoolSizeControllerTest {
+    private final AtomicLong               clock        = new AtomicLong();
+    private final ExecutorEngineStatistics statistics   = new ExecutorEngineStatistics();
+    private final ThreadPoolExecutor       poolExecutor = new ThreadPoolExecutor(2, 20, 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(1024));
+
+    @After
+    public void tearDown() {
+        poolExecutor.shutdownNow();
+    }
+
+    private AdaptivePoolSizeController newController(int minPoolSize, int maxPoolSize) {
+        // 目标等待时间 10ms
+        return new AdaptivePoolSizeController(poolExecutor, statistics, minPoolSize, maxPoolSize, 10,
+                TimeUnit.MILLISECONDS, clock::get);
+    }
+
+    private void submit(int count) {
+        for (int i = 0; i < count; i++) {
+            statistics.recordSubmitted();
+        }
+    }
+
+    private void start(int count, long waitMillis) {
+        for (int i = 0; i < count; i++) {
+            statistics.recordStarted(TimeUnit.MILLISECONDS.toNanos(waitMillis));
+        }
+    }
+
+    private void complete(int count, long runMillis) {
+        for (int i = 0; i < count; i++) {
+            statistics.recordCompleted(TimeUnit.MILLISECONDS.toNanos(runMillis));
+        }
+    }
+
+    private void tick(AdaptivePoolSizeController controller, long elapsedMillis) {
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(elapsedMillis));
+        controller.run();
+    }
+
+    @Test
+    public void growWithQueueWaitTest() {
+        AdaptivePoolSizeController controller = newController(2, 10);
+
+        // 突发 40 个请求，只有 2 个开始执行，等待时间远超过目标值，每次最多翻倍增加线程
+        submit(40);
+        start(2, 50);
+        tick(controller, 100);
+        assertThat(poolExecutor.getCorePoolSize()).isEqualTo(4);
+
+        start(4, 60);
+        complete(2, 50);
+        tick(controller, 100);
+        assertThat(poolExecutor.getCorePoolSize()).isEqualTo(8);
+
+        // 不超过最大的核心线程数
+        start(8, 60);
+        complete(4, 50);
+        tick(controller, 100);
+        assertThat(poolExecutor.getCorePoolSize()).isEqualTo(10);
+    }
+
+    @Test
+    public void growToArrivalRateTest() {
+        AdaptivePoolSizeController controller = newController(2, 20);
+
+        // 100ms 内到达 150 个任务，每个任务执行 10ms，按照 Little's law 需要 15 个线程，超过了每次翻倍的增长
+        submit(150);
+        start(145, 20);
+        complete(140, 10);
+        tick(controller, 100);
+        assertThat(poolExecutor.getCorePoolSize()).isEqualTo(15);
+    }
+
+    @Test
+    public void keepWithinTargetQueueWaitTest() {
+        AdaptivePoolSizeController controller = newController(2, 20);
+
+        // 队列中有任务，但是等待时间没有超过目标值，不需要增加线程
+        submit(101);
+        start(100, 5);
+        complete(98, 1);
+        tick(controller, 100);
+        assertThat(poolExecutor.getCorePoolSize()).isEqualTo(2);
+    }
+
+    @Test
+    public void shrinkWhenIdleTest() {
+        poolExecutor.setCorePoolSize(16);
+        AdaptivePoolSizeController controller = newController(2, 20);
+
+        // 队列为空，只有 1 个任务正在执行，每次减少一半的空闲线程，直到最小线程数
+        submit(10);
+        start(10, 0);
+        complete(9, 1);
+        List<Integer> poolSizes = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            tick(controller, 100);
+            poolSizes.add(poolExecutor.getCorePoolSize());
+        }
+        assertThat(poolSizes).containsExactly(9, 5, 3, 2, 2);
+    }
+
+    @Test
+    public void stopWhenPoolShutdownTest() {
+        AdaptivePoolSizeController controller = newController(2, 10);
+        submit(40);
+        start(2, 50);
+        poolExecutor.shutdown();
+        // 直接关闭了线程池，不再调整线程数
+        tick(controller, 100);
+        assertThat(poolExecutor.getCorePoolSize()).isEqualTo(2);
+    }
+
+    @Test
+    public void closeShouldStopControllerTest() {
+        ExecutorEngine executorEngine = ExecutorEngine.buildAdaptiveThreadPoolExecutor(2, 10, 10,
+                TimeUnit.MILLISECONDS);
+        AdaptivePoolSizeController controller = executorEngine.getPoolSizeController();
+        assertThat(controller).isNotNull();
+        assertThat(controller.isStopped()).isFalse();
+        // 关闭执行框架的时候立即停止控制器，不需要等到下一次调整的时候才发现线程池已经关闭
+        executorEngine.close();
+        assertThat(controller.isStopped()).isTrue();
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package app.myoss.cloud.core.lang.concurrent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+
+/**
+ * {@link ExecutorEngine} 性能基准测试，不是单元测试，需要手动运行 {@link #main(String[])}
+ * <ul>
+ * <li>recursiveSum*：纯 CPU 计算的递归拆分任务，比较 ForkJoinPool 和 ThreadPoolExecutor 两种执行框架
+ * <li>fanOut*：10/100/1000 个输入参数的扇出开销，比较按照输入参数的顺序返回结果和使用 HashSet 收集 Future 之后再排序
+ * <li>blockingUnits*：10000 个阻塞的执行单元，比较虚拟线程和固定大小的线程池，当前的 JDK 不支持虚拟线程的时候两者都使用线程池
+ * </ul>
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午3:12:08
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExecutorEngineBenchmark {
+    private static final int         PARALLELISM       = Runtime.getRuntime().availableProcessors();
+    private ExecutorEngine           forkJoinEngine;
+    private ExecutorEngine           threadPoolEngine;
+    private ListeningExecutorService listeningExecutor;
+    private RangeSumUnit             rangeSumUnit;
+
+    @Setup
+    public void setup() {
+        forkJoinEngine = ExecutorEngine.buildForkJoinExecutor(PARALLELISM);
+        threadPoolEngine = new ExecutorEngine("ExecutorEngineBenchmark", Executors.newFixedThreadPool(PARALLELISM));
+        listeningExecutor = MoreExecutors.listeningDecorator(Executors.newFixedThreadPool(PARALLELISM));
+        long[] values = new long[1 << 20];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i + 1;
+        }
+        rangeSumUnit = new RangeSumUnit(values, 256);
+    }
+
+    @TearDown
+    public void tearDown() {
+        forkJoinEngine.close();
+        threadPoolEngine.close();
+        listeningExecutor.shutdown();
+    }
+
+    @Benchmark
+    public Long recursiveSumForkJoin() {
+        return forkJoinEngine.invoke(rangeSumUnit.fullRange(), rangeSumUnit);
+    }
+
+    @Benchmark
+    public Long recursiveSumThreadPool() {
+        return invokeByThreadPool(threadPoolEngine, rangeSumUnit.fullRange(), rangeSumUnit);
+    }
+
+    @Benchmark
+    public List<Integer> fanOutOrdered(FanOutState state) {
+        return threadPoolEngine.execute(state.inputs, input -> input * 2);
+    }
+
+    @Benchmark
+    public List<Integer> blockingUnitsVirtualThread(BlockingState state) {
+        return state.virtualThreadEngine.execute(BlockingState.SIZE, state::block);
+    }
+
+    @Benchmark
+    public List<Integer> blockingUnitsThreadPool(BlockingState state) {
+        return state.threadPoolEngine.execute(BlockingState.SIZE, state::block);
+    }
+
+    /**
+     * 修改之前的实现：使用 HashSet 收集 Future，返回结果的顺序不确定，调用方需要重新排序
+     *
+     * @param state 输入参数
+     * @return 排序后的执行结果
+     * @throws Exception 执行异常
+     */
+    @Benchmark
+    public List<Integer> fanOutHashedResort(FanOutState state) throws Exception {
+        Set<ListenableFuture<Integer>> futures = new HashSet<>();
+        for (Integer input : state.inputs) {
+            futures.add(listeningExecutor.submit(() -> input * 2));
+        }
+        List<Integer> results = new ArrayList<>(Futures.allAsList(futures).get());
+        Collections.sort(results);
+        return results;
+    }
+
+    /**
+     * 使用 ThreadPoolExecutor 执行递归拆分的任务：线程池中的任务阻塞等待子任务会耗尽线程，所以在调用线程中拆分到不能再拆分为止，
+     * 再把所有的子任务一次提交到线程池中执行
+     *
+     * @param executorEngine ThreadPoolExecutor 执行框架
+     * @param input 输入参数
+     * @param executeUnit 可以递归拆分的执行单元
+     * @param <I> 入参类型
+     * @param <O> 出参类型
+     * @return 合并后的执行结果
+     */
+    static <I, O> O invokeByThreadPool(ExecutorEngine executorEngine, I input,
+                                       RecursiveExecuteUnit<I, O> executeUnit) {
+        List<I> leaves = new ArrayList<>();
+        collectLeaves(input, executeUnit, leaves);
+        return executeUnit.combine(executorEngine.execute(leaves, executeUnit::execute));
+    }
+
+    private static <I, O> void collectLeaves(I input, RecursiveExecuteUnit<I, O> executeUnit, List<I> leaves) {
+        if (!executeUnit.isSplittable(input)) {
+            leaves.add(input);
+            return;
+        }
+        for (I child : executeUnit.split(input)) {
+            collectLeaves(child, executeUnit, leaves);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(ExecutorEngineBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+
+    /**
+     * 扇出的输入参数
+     */
+    @State(Scope.Benchmark)
+    public static class FanOutState {
+        @Param({ "10", "100", "1000" })
+        int           size;
+        List<Integer> inputs;
+
+        @Setup
+        public void setup() {
+            inputs = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                inputs.add(i);
+            }
+        }
+    }
+
+    /**
+     * 阻塞的执行单元：每个执行单元休眠 sleepMillis 毫秒模拟等待 I/O，线程池的大小为 poolSize
+     */
+    @State(Scope.Benchmark)
+    public static class BlockingState {
+        static final int SIZE = 10_000;
+        @Param({ "10" })
+        long             sleepMillis;
+        @Param({ "200" })
+        int              poolSize;
+        ExecutorEngine   virtualThreadEngine;
+        ExecutorEngine   threadPoolEngine;
+
+        @Setup
+        public void setup() {
+            virtualThreadEngine = ExecutorEngine.buildVirtualThreadExecutor();
+            threadPoolEngine = new ExecutorEngine("ExecutorEngineBenchmarkBlocking",
+                    Executors.newFixedThreadPool(poolSize));
+        }
+
+        @TearDown
+        public void tearDown() {
+            virtualThreadEngine.close();
+            threadPoolEngine.close();
+        }
+
+        Integer block(Integer input) throws InterruptedException {
+            Thread.sleep(sleepMillis);
+            return input;
+        }
+    }
+
+    /**
+     * 对数组的区间 [input[0], input[1]) 递归拆分求和，区间的长度不超过 threshold 的时候直接计算
+     */
+    static class RangeSumUnit implements RecursiveExecuteUnit<int[], Long> {
+        private final long[] values;
+        private final int    threshold;
+
+        RangeSumUnit(long[] values, int threshold) {
+            this.values = values;
+            this.threshold = threshold;
+        }
+
+        int[] fullRange() {
+            return new int[] { 0, values.length };
+        }
+
+        @Override
+        public boolean isSplittable(int[] input) {
+            return input[1] - input[0] > threshold;
+        }
+
+        @Override
+        public List<int[]> split(int[] input) {
+            int middle = (input[0] + input[1]) >>> 1;
+            return Lists.newArrayList(new int[] { input[0], middle }, new int[] { middle, input[1] });
+        }
+
+        @Override
+        public Long execute(int[] input) {
+            long sum = 0;
+            for (int i = input[0]; i < input[1]; i++) {
+                sum += values[i];
+            }
+            return sum;
+        }
+
+        @Override
+        public Long combine(List<Long> results) {
+            long sum = 0;
+            for (Long result : results) {
+                sum += result;
+            }
+            return sum;
+        }
+    }
+}
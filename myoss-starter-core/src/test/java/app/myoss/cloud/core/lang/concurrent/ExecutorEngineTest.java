@@ -18,24 +18,40 @@
 package app.myoss.cloud.core.lang.concurrent;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.reflect.FieldUtils;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.slf4j.MDC;
 import org.springframework.boot.test.rule.OutputCapture;
 import org.springframework.util.ClassUtils;
 
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.Uninterruptibles;
 
 import app.myoss.cloud.core.exception.BizRuntimeException;
 import app.myoss.cloud.core.utils.EmojiUtils;
@@ -226,4 +242,707 @@ public class ExecutorEngineTest {
         log.info("总耗时: {}, 总共运行: {}次, 平均耗时: {}", totalCostTime, runCount, avgCostTime);
         assertThat(avgCostTime).isLessThan(sleepTime.intValue() + 100);
     }
+
+    @Test
+    public void executeKeepInputOrderTest() {
+        ExecutorEngine executorEngine = new ExecutorEngine(Executors.newFixedThreadPool(10));
+        List<Integer> inputs = new ArrayList<>(100);
+        for (int i = 0; i < 100; i++) {
+            inputs.add(i);
+        }
+        // 越靠前的任务执行得越慢，完成的顺序和输入的顺序相反
+        List<Integer> result = executorEngine.execute(inputs, input -> {
+            Thread.sleep((100 - input) / 10);
+            return input * 2;
+        });
+        List<Integer> expected = new ArrayList<>(100);
+        for (Integer input : inputs) {
+            expected.add(input * 2);
+        }
+        assertThat(result).isEqualTo(expected);
+
+        List<ExecuteUnit<String, String>> executeUnits = new ArrayList<>();
+        executeUnits.add(input -> {
+            Thread.sleep(50L);
+            return input + "-1";
+        });
+        executeUnits.add(input -> input + "-2");
+        executeUnits.add(input -> input + "-3");
+        assertThat(executorEngine.execute("unit", executeUnits, null, null)).containsExactly("unit-1", "unit-2",
+                "unit-3");
+    }
+
+    @Test
+    public void virtualThreadExecutorTest() {
+        ExecutorEngine executorEngine = ExecutorEngine.buildVirtualThreadExecutor();
+        // 当前的 JDK 不支持虚拟线程的时候，使用线程池，只验证可以正常执行；和线程池的性能对比参考 ExecutorEngineBenchmark
+        int size = (ExecutorEngine.isVirtualThreadSupported() ? 10_000 : 20);
+        Set<String> threadNames = ConcurrentHashMap.newKeySet();
+        List<Integer> result = executorEngine.execute(size, input -> {
+            threadNames.add(Thread.currentThread().getName());
+            Thread.sleep(10L);
+            return input;
+        }, 30L, TimeUnit.SECONDS);
+        log.info("virtual thread supported: {}, blocking units: {}, threads: {}",
+                ExecutorEngine.isVirtualThreadSupported(), size, threadNames.size());
+        assertThat(result).hasSize(size);
+        assertThat(result).isSorted();
+        if (ExecutorEngine.isVirtualThreadSupported()) {
+            // 每个执行单元都在一个新的虚拟线程中执行
+            assertThat(threadNames).hasSize(size).allMatch(name -> name.startsWith("ExecutorEngineVirtualThread-"));
+        }
+        executorEngine.close();
+    }
+
+    @Test
+    public void cancelOnFailureTest() throws InterruptedException {
+        ThreadPoolExecutor delegate = (ThreadPoolExecutor) Executors.newFixedThreadPool(3);
+        ExecutorEngine executorEngine = new ExecutorEngine(delegate);
+        AtomicInteger interrupted = new AtomicInteger();
+        List<Integer> inputs = Lists.newArrayList(1, 2, 3);
+        try {
+            executorEngine.execute(inputs, input -> {
+                if (input == 1) {
+                    Thread.sleep(50L);
+                    throw new BizRuntimeException("ba la ba la");
+                }
+                try {
+                    Thread.sleep(10_000L);
+                } catch (InterruptedException ex) {
+                    interrupted.incrementAndGet();
+                    throw ex;
+                }
+                return input;
+            }, null, null, true);
+            fail("should throw ExecuteException");
+        } catch (ExecuteException ex) {
+            assertThat(ex).hasRootCauseInstanceOf(BizRuntimeException.class);
+        }
+        // 其它的执行单元被中断，线程立即被释放
+        waitForIdle(delegate);
+        assertThat(interrupted.get()).isEqualTo(2);
+        assertThat(delegate.getActiveCount()).isEqualTo(0);
+        executorEngine.close();
+    }
+
+    @Test
+    public void cancelOnFailureBySizeTest() throws InterruptedException {
+        ThreadPoolExecutor delegate = (ThreadPoolExecutor) Executors.newFixedThreadPool(3);
+        ExecutorEngine executorEngine = new ExecutorEngine(delegate);
+        AtomicInteger interrupted = new AtomicInteger();
+        try {
+            executorEngine.execute(3, index -> {
+                if (index == 0) {
+                    Thread.sleep(50L);
+                    throw new BizRuntimeException("ba la ba la");
+                }
+                try {
+                    Thread.sleep(10_000L);
+                } catch (InterruptedException ex) {
+                    interrupted.incrementAndGet();
+                    throw ex;
+                }
+                return index;
+            }, null, null, true);
+            fail("should throw ExecuteException");
+        } catch (ExecuteException ex) {
+            assertThat(ex).hasRootCauseInstanceOf(BizRuntimeException.class);
+        }
+        // 其它的执行单元被中断，线程立即被释放
+        waitForIdle(delegate);
+        assertThat(interrupted.get()).isEqualTo(2);
+        assertThat(delegate.getActiveCount()).isEqualTo(0);
+        executorEngine.close();
+    }
+
+    @Test
+    public void cancelOnTimeoutTest() throws InterruptedException {
+        ThreadPoolExecutor delegate = (ThreadPoolExecutor) Executors.newFixedThreadPool(3);
+        ExecutorEngine executorEngine = new ExecutorEngine(delegate);
+        AtomicInteger interrupted = new AtomicInteger();
+        List<Integer> inputs = Lists.newArrayList(1, 2, 3);
+        try {
+            executorEngine.execute(inputs, input -> {
+                try {
+                    Thread.sleep(input == 1 ? 10L : 10_000L);
+                } catch (InterruptedException ex) {
+                    interrupted.incrementAndGet();
+                    throw ex;
+                }
+                return input;
+            }, 200L, TimeUnit.MILLISECONDS, true);
+            fail("should throw ExecuteTimeoutException");
+        } catch (ExecuteTimeoutException ex) {
+            log.info("execute timeout: {}", ex.getMessage());
+        }
+        waitForIdle(delegate);
+        assertThat(interrupted.get()).isEqualTo(2);
+        assertThat(delegate.getActiveCount()).isEqualTo(0);
+        executorEngine.close();
+    }
+
+    private static void waitForIdle(ThreadPoolExecutor executor) throws InterruptedException {
+        for (int retry = 0; retry < 20 && executor.getActiveCount() > 0; retry++) {
+            Thread.sleep(50L);
+        }
+    }
+
+    @Test
+    public void executePartialTest() throws InterruptedException {
+        ThreadPoolExecutor delegate = (ThreadPoolExecutor) Executors.newFixedThreadPool(5);
+        ExecutorEngine executorEngine = new ExecutorEngine(delegate);
+        AtomicInteger interrupted = new AtomicInteger();
+        List<Integer> inputs = Lists.newArrayList(1, 2, 3, 4, 5);
+        ExecutePartialResult<Integer, Integer> result = executorEngine.executePartial(inputs, input -> {
+            if (input == 2) {
+                throw new BizRuntimeException("ba la ba la");
+            }
+            if (input == 3 || input == 4) {
+                // 超过单个执行单元的超时时间
+                try {
+                    Thread.sleep(input == 3 ? 300L : 10_000L);
+                } catch (InterruptedException ex) {
+                    interrupted.incrementAndGet();
+                    throw ex;
+                }
+            }
+            return input * 10;
+        }, 200L, null, 500L, TimeUnit.MILLISECONDS);
+        assertThat(result.isComplete()).isFalse();
+        assertThat(result.getSuccessInputs()).containsExactly(1, 5);
+        assertThat(result.getResults()).containsExactly(10, 50);
+        assertThat(result.getFailedInputs()).containsExactly(2);
+        assertThat(result.getFailures().get(0)).isInstanceOf(BizRuntimeException.class);
+        assertThat(result.getTimeoutInputs()).containsExactly(3, 4);
+        // 超时的执行单元被中断，不会一直占用线程
+        waitForIdle(delegate);
+        assertThat(interrupted.get()).isEqualTo(2);
+        assertThat(delegate.getActiveCount()).isEqualTo(0);
+
+        // 没有单个执行单元的超时时间，超过整体的截止时间
+        interrupted.set(0);
+        result = executorEngine.executePartial(Lists.newArrayList(1, 2), input -> {
+            if (input == 2) {
+                try {
+                    Thread.sleep(10_000L);
+                } catch (InterruptedException ex) {
+                    interrupted.incrementAndGet();
+                    throw ex;
+                }
+            }
+            return input;
+        }, 300L, TimeUnit.MILLISECONDS);
+        assertThat(result.getResults()).containsExactly(1);
+        assertThat(result.getTimeoutInputs()).containsExactly(2);
+        waitForIdle(delegate);
+        assertThat(interrupted.get()).isEqualTo(1);
+        assertThat(delegate.getActiveCount()).isEqualTo(0);
+        executorEngine.close();
+    }
+
+    @Test
+    public void executePartialHedgedTest() {
+        ExecutorEngine executorEngine = new ExecutorEngine(Executors.newFixedThreadPool(4));
+        AtomicInteger invocations = new AtomicInteger();
+        ExecutePartialResult<Integer, Integer> result = executorEngine
+                .executePartial(Lists.newArrayList(1, 2), input -> {
+                    // 第一次请求很慢，对冲请求很快返回
+                    if (invocations.incrementAndGet() == 1) {
+                        Thread.sleep(5000L);
+                    }
+                    return input;
+                }, null, 100L, 3000L, TimeUnit.MILLISECONDS);
+        // 没有对冲请求的时候，慢请求会超过截止时间
+        assertThat(result.isComplete()).isTrue();
+        assertThat(result.getResults()).containsExactly(1, 2);
+        // 只有慢请求发出了对冲请求
+        assertThat(invocations.get()).isEqualTo(3);
+        executorEngine.close();
+    }
+
+    @Test
+    public void executePartialHedgedFastFailureTest() {
+        ExecutorEngine executorEngine = new ExecutorEngine(Executors.newFixedThreadPool(4));
+        AtomicInteger invocations = new AtomicInteger();
+        CountDownLatch backupFailed = new CountDownLatch(1);
+        ExecutePartialResult<Integer, Integer> result = executorEngine.executePartial(Lists.newArrayList(1),
+                input -> {
+                    if (invocations.incrementAndGet() == 1) {
+                        // 第一次请求在对冲请求失败之后才成功返回
+                        assertThat(backupFailed.await(3000L, TimeUnit.MILLISECONDS)).isTrue();
+                        return input;
+                    }
+                    backupFailed.countDown();
+                    throw new IllegalStateException("backup failed");
+                }, null, 50L, 3000L, TimeUnit.MILLISECONDS);
+        // 先失败的对冲请求不会作为最终的结果
+        assertThat(result.getResults()).containsExactly(1);
+        assertThat(result.getFailedInputs()).isEmpty();
+        assertThat(invocations.get()).isEqualTo(2);
+        executorEngine.close();
+    }
+
+    @Test
+    public void executePartialHedgedAllFailedTest() {
+        ExecutorEngine executorEngine = new ExecutorEngine(Executors.newFixedThreadPool(4));
+        AtomicInteger invocations = new AtomicInteger();
+        CountDownLatch backupFailed = new CountDownLatch(1);
+        ExecutePartialResult<Integer, Integer> result = executorEngine.executePartial(Lists.newArrayList(1),
+                input -> {
+                    if (invocations.incrementAndGet() == 1) {
+                        assertThat(backupFailed.await(3000L, TimeUnit.MILLISECONDS)).isTrue();
+                        throw new IllegalStateException("primary failed");
+                    }
+                    backupFailed.countDown();
+                    throw new IllegalStateException("backup failed");
+                }, null, 50L, 3000L, TimeUnit.MILLISECONDS);
+        // 所有已经发出的请求都失败之后才失败，使用第一个失败的异常信息
+        assertThat(result.getFailedInputs()).containsExactly(1);
+        assertThat(result.getFailures().get(0)).hasMessage("backup failed");
+        assertThat(invocations.get()).isEqualTo(2);
+        executorEngine.close();
+    }
+
+    @Test
+    public void executePartialHedgedPrimaryFailedTest() {
+        ExecutorEngine executorEngine = new ExecutorEngine(Executors.newFixedThreadPool(4));
+        AtomicInteger invocations = new AtomicInteger();
+        ExecutePartialResult<Integer, Integer> result = executorEngine.executePartial(Lists.newArrayList(1),
+                input -> {
+                    invocations.incrementAndGet();
+                    throw new IllegalStateException("primary failed");
+                }, null, 1000L, 3000L, TimeUnit.MILLISECONDS);
+        // 对冲请求发出之前第一次请求就失败了，不再发出对冲请求
+        assertThat(result.getFailedInputs()).containsExactly(1);
+        assertThat(invocations.get()).isEqualTo(1);
+        executorEngine.close();
+    }
+
+    @Test
+    public void executePartialRejectedTest() throws InterruptedException {
+        // 只有一个线程并且没有队列的线程池，线程被占用的时候提交的执行单元都会被拒绝
+        ExecutorEngine executorEngine = new ExecutorEngine(new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new SynchronousQueue<>(), new ThreadPoolExecutor.AbortPolicy()));
+        AtomicInteger invocations = new AtomicInteger();
+        ExecuteUnit<Integer, Integer> executeUnit = input -> {
+            invocations.incrementAndGet();
+            Thread.sleep(100L);
+            return input;
+        };
+        ExecutePartialResult<Integer, Integer> result = executorEngine.executePartial(Lists.newArrayList(1, 2, 3),
+                executeUnit, 3000L, TimeUnit.MILLISECONDS);
+        // 被拒绝的执行单元作为失败的输入参数返回，不抛出异常
+        assertThat(result.getResults()).containsExactly(1);
+        assertThat(result.getFailedInputs()).containsExactly(2, 3);
+        assertThat(result.getFailures().get(0)).isInstanceOf(RejectedExecutionException.class);
+        assertThat(result.getFailures().get(1)).isInstanceOf(RejectedExecutionException.class);
+        assertThat(executorEngine.getStatistics().getRejectedCount()).isEqualTo(2);
+        executorEngine.close();
+
+        // 对冲请求：第一次请求被拒绝的时候不会再发出对冲请求
+        executorEngine = new ExecutorEngine(new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new SynchronousQueue<>(), new ThreadPoolExecutor.AbortPolicy()));
+        invocations.set(0);
+        result = executorEngine.executePartial(Lists.newArrayList(1, 2), executeUnit, null, 300L, 3000L,
+                TimeUnit.MILLISECONDS);
+        assertThat(result.getResults()).containsExactly(1);
+        assertThat(result.getFailedInputs()).containsExactly(2);
+        assertThat(result.getFailures().get(0)).isInstanceOf(RejectedExecutionException.class);
+        // 超过对冲请求的延迟时间之后，线程已经空闲，也没有孤立的对冲请求被执行
+        Thread.sleep(500L);
+        assertThat(invocations.get()).isEqualTo(1);
+        assertThat(executorEngine.getStatistics().getRejectedCount()).isEqualTo(1);
+        executorEngine.close();
+    }
+
+    @Test
+    public void executeStreamTest() {
+        // 队列的容量只有 1024，一次性提交 50000 个执行单元会被拒绝
+        ExecutorEngine executorEngine = ExecutorEngine.buildTreadPoolExecutor();
+        int maxConcurrency = 16;
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        Long sum = executorEngine.executeStream(IntStream.range(0, 50_000).boxed(), input -> {
+            int current = running.incrementAndGet();
+            maxRunning.accumulateAndGet(current, Math::max);
+            running.decrementAndGet();
+            return (long) input;
+        }, new IncrementalMergeUnit<Long, Long>() {
+            private long total;
+
+            @Override
+            public void accept(Long param) {
+                total += param;
+            }
+
+            @Override
+            public Long getResult() {
+                return total;
+            }
+        }, maxConcurrency);
+        assertThat(sum).isEqualTo(49_999L * 50_000L / 2);
+        assertThat(maxRunning.get()).isLessThanOrEqualTo(maxConcurrency);
+        executorEngine.close();
+    }
+
+    @Test
+    public void executeStreamRejectedTest() throws InterruptedException {
+        // 只有一个线程并且没有队列的线程池，第二个执行单元会被拒绝
+        ThreadPoolExecutor delegate = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new SynchronousQueue<>(),
+                new ThreadPoolExecutor.AbortPolicy());
+        ExecutorEngine executorEngine = new ExecutorEngine(delegate);
+        AtomicInteger closed = new AtomicInteger();
+        Stream<Integer> inputs = Stream.of(1, 2, 3).onClose(closed::incrementAndGet);
+        try {
+            executorEngine.executeStream(inputs, input -> {
+                Thread.sleep(10_000L);
+                return input;
+            }, new IncrementalMergeUnit<Integer, Integer>() {
+                @Override
+                public void accept(Integer param) {
+                }
+
+                @Override
+                public Integer getResult() {
+                    return null;
+                }
+            }, 3);
+            fail("should throw ExecuteException");
+        } catch (ExecuteException ex) {
+            assertThat(ex.getCause()).isInstanceOf(RejectedExecutionException.class);
+        }
+        // 已经提交的执行单元被取消，线程立即被释放
+        waitForIdle(delegate);
+        assertThat(delegate.getActiveCount()).isEqualTo(0);
+        // 执行失败之后也会关闭输入的 Stream
+        assertThat(closed.get()).isEqualTo(1);
+        executorEngine.close();
+    }
+
+    @Test
+    public void reduceMergeUnitTest() {
+        List<Long> params = new ArrayList<>(100_000);
+        for (long i = 1; i <= 100_000; i++) {
+            params.add(i);
+        }
+        long expected = 100_000L * 100_001L / 2;
+        assertThat(new ReduceMergeUnit<>(0L, Long::sum).merge(params)).isEqualTo(expected);
+        assertThat(new ReduceMergeUnit<>(0L, Long::sum, 1000).merge(params)).isEqualTo(expected);
+    }
+
+    @Test
+    public void executeIncrementalMergeTest() {
+        ExecutorEngine executorEngine = new ExecutorEngine(Executors.newFixedThreadPool(5));
+        List<Integer> inputs = Lists.newArrayList(1, 2, 3, 4, 5);
+        List<Integer> mergeOrder = Collections.synchronizedList(new ArrayList<>());
+        ReduceMergeUnit<Integer> reduceMergeUnit = new ReduceMergeUnit<>(0, Integer::sum);
+        IncrementalMergeUnit<Integer, Integer> incremental = reduceMergeUnit.incremental();
+        Integer result = executorEngine.execute(inputs, input -> {
+            if (input == 1) {
+                // 最慢的执行单元，其它执行单元的结果在它完成之前就已经合并
+                Thread.sleep(300L);
+            }
+            return input;
+        }, new IncrementalMergeUnit<Integer, Integer>() {
+            @Override
+            public void accept(Integer param) {
+                mergeOrder.add(param);
+                incremental.accept(param);
+            }
+
+            @Override
+            public Integer getResult() {
+                return incremental.getResult();
+            }
+        }, 2000L, TimeUnit.MILLISECONDS);
+        assertThat(result).isEqualTo(15);
+        assertThat(mergeOrder).hasSize(5).endsWith(1);
+        executorEngine.close();
+    }
+
+    @Test
+    public void executeIncrementalMergeRejectedTest() throws InterruptedException {
+        // 只有一个线程并且没有队列的线程池，第二个执行单元会被拒绝
+        ThreadPoolExecutor delegate = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new SynchronousQueue<>(),
+                new ThreadPoolExecutor.AbortPolicy());
+        ExecutorEngine executorEngine = new ExecutorEngine(delegate);
+        try {
+            executorEngine.execute(Lists.newArrayList(1, 2, 3), input -> {
+                Thread.sleep(10_000L);
+                return input;
+            }, new ReduceMergeUnit<>(0, Integer::sum).incremental(), null, null);
+            fail("should throw ExecuteException");
+        } catch (ExecuteException ex) {
+            assertThat(ex.getCause()).isInstanceOf(RejectedExecutionException.class);
+        }
+        // 已经提交的执行单元被取消，线程立即被释放
+        waitForIdle(delegate);
+        assertThat(delegate.getActiveCount()).isEqualTo(0);
+        executorEngine.close();
+    }
+
+    @Test
+    public void forkJoinExecutorTest() {
+        ExecutorEngine executorEngine = ExecutorEngine.buildForkJoinExecutor(4);
+        long[] values = new long[100_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i + 1;
+        }
+        // 递归拆分求和，每段不超过 1000 个元素
+        Long result = executorEngine.invoke(new int[] { 0, values.length },
+                new RecursiveExecuteUnit<int[], Long>() {
+                    @Override
+                    public boolean isSplittable(int[] input) {
+                        return input[1] - input[0] > 1000;
+                    }
+
+                    @Override
+                    public List<int[]> split(int[] input) {
+                        int middle = (input[0] + input[1]) >>> 1;
+                        return Lists.newArrayList(new int[] { input[0], middle }, new int[] { middle, input[1] });
+                    }
+
+                    @Override
+                    public Long execute(int[] input) {
+                        assertThat(Thread.currentThread().getName()).startsWith("ExecutorEngineForkJoinPool-");
+                        long sum = 0;
+                        for (int i = input[0]; i < input[1]; i++) {
+                            sum += values[i];
+                        }
+                        return sum;
+                    }
+
+                    @Override
+                    public Long combine(List<Long> results) {
+                        return results.stream().mapToLong(Long::longValue).sum();
+                    }
+                });
+        assertThat(result).isEqualTo(100_000L * 100_001L / 2);
+
+        // 普通的执行单元也可以使用 ForkJoinPool 执行
+        List<Integer> results = executorEngine.execute(Lists.newArrayList(1, 2, 3), input -> input * 2);
+        assertThat(results).containsExactly(2, 4, 6);
+        executorEngine.close();
+    }
+
+    /**
+     * {@link ExecutorEngineBenchmark} 中的递归拆分求和，ForkJoinPool 和 ThreadPoolExecutor 的计算结果相同，性能对比使用
+     * {@link ExecutorEngineBenchmark} 测试
+     */
+    @Test
+    public void recursiveSumForkJoinAndThreadPoolTest() {
+        int parallelism = Math.max(2, Runtime.getRuntime().availableProcessors());
+        ExecutorEngine forkJoinEngine = ExecutorEngine.buildForkJoinExecutor(parallelism);
+        ExecutorEngine threadPoolEngine = new ExecutorEngine("recursiveSumForkJoinAndThreadPoolTest",
+                Executors.newFixedThreadPool(parallelism));
+        long[] values = new long[1 << 20];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i + 1;
+        }
+        Set<Thread> forkJoinThreads = ConcurrentHashMap.newKeySet();
+        ExecutorEngineBenchmark.RangeSumUnit forkJoinUnit = new ExecutorEngineBenchmark.RangeSumUnit(values, 256) {
+            @Override
+            public Long execute(int[] input) {
+                forkJoinThreads.add(Thread.currentThread());
+                return super.execute(input);
+            }
+        };
+        ExecutorEngineBenchmark.RangeSumUnit threadPoolUnit = new ExecutorEngineBenchmark.RangeSumUnit(values, 256);
+        long expected = (long) values.length * (values.length + 1) / 2;
+
+        assertThat(forkJoinEngine.invoke(forkJoinUnit.fullRange(), forkJoinUnit)).isEqualTo(expected);
+        assertThat(ExecutorEngineBenchmark.invokeByThreadPool(threadPoolEngine, threadPoolUnit.fullRange(),
+                threadPoolUnit)).isEqualTo(expected);
+        // 拆分之后的子任务都在 ForkJoinPool 的工作线程中执行
+        assertThat(forkJoinThreads).isNotEmpty()
+                .allMatch(thread -> thread instanceof ForkJoinWorkerThread)
+                .allMatch(thread -> thread.getName().startsWith("ExecutorEngineForkJoinPool-"));
+        forkJoinEngine.close();
+        threadPoolEngine.close();
+    }
+
+    @Test
+    public void engineRegistryTest() {
+        ExecutorEngine executorEngine = new ExecutorEngine("engineRegistryTest", Executors.newFixedThreadPool(1));
+        ListenableFuture<List<Integer>> futures = executorEngine.submitFutures(Lists.newArrayList(1), input -> {
+            Thread.sleep(50L);
+            return input;
+        });
+        // 没有关闭的执行框架一直保留，JVM 退出的时候可以等待任务执行完成
+        assertThat(ExecutorEngine.getEngines()).contains(executorEngine);
+        assertThat(executorEngine.shutdown(5, TimeUnit.SECONDS)).isZero();
+        assertThat(futures.isDone()).isTrue();
+        assertThat(ExecutorEngine.getEngines()).doesNotContain(executorEngine);
+    }
+
+    @Test
+    public void statisticsTest() throws InterruptedException {
+        ThreadPoolExecutor poolExecutor = (ThreadPoolExecutor) Executors.newFixedThreadPool(1);
+        ExecutorEngine executorEngine = new ExecutorEngine("statisticsTest", poolExecutor);
+        assertThat(ExecutorEngine.getEngines()).contains(executorEngine);
+        List<Integer> results = executorEngine.execute(Lists.newArrayList(1, 2, 3), input -> {
+            Thread.sleep(50L);
+            return input;
+        });
+        assertThat(results).containsExactly(1, 2, 3);
+        // 执行结果返回之后，执行线程才记录完成的统计
+        waitForIdle(poolExecutor);
+
+        ExecutorEngineStatistics statistics = executorEngine.getStatistics();
+        assertThat(executorEngine.getName()).isEqualTo("statisticsTest");
+        assertThat(statistics.getSubmittedCount()).isEqualTo(3);
+        assertThat(statistics.getStartedCount()).isEqualTo(3);
+        assertThat(statistics.getCompletedCount()).isEqualTo(3);
+        assertThat(statistics.getRejectedCount()).isZero();
+        assertThat(statistics.getQueueSize()).isZero();
+        assertThat(statistics.getActiveCount()).isZero();
+        // 只有一个线程，第 2、3 个任务需要排队等待前面的任务执行完成
+        assertThat(statistics.getTotalRunTime(TimeUnit.NANOSECONDS)).isPositive();
+        assertThat(statistics.getTotalQueueWaitTime(TimeUnit.NANOSECONDS)).isPositive();
+        executorEngine.close();
+    }
+
+    @Test
+    public void gracefulShutdownTest() throws InterruptedException {
+        ExecutorEngine executorEngine = new ExecutorEngine(Executors.newFixedThreadPool(2));
+        AtomicInteger completed = new AtomicInteger();
+        executorEngine.submitFutures(Lists.newArrayList(1, 2, 3, 4), input -> {
+            Thread.sleep(50L);
+            return completed.incrementAndGet();
+        });
+        // 在超时时间内，已经提交的任务全部执行完成
+        assertThat(executorEngine.shutdown(2, TimeUnit.SECONDS)).isZero();
+        assertThat(completed.get()).isEqualTo(4);
+        assertThat(executorEngine.isShutdown()).isTrue();
+        // 关闭之后拒绝新的任务
+        assertThat(executorEngine.getStatistics().getRejectedCount()).isZero();
+        try {
+            executorEngine.submitFutures(Lists.newArrayList(5), input -> input);
+            fail("should reject new task after shutdown");
+        } catch (RejectedExecutionException ex) {
+            assertThat(executorEngine.getStatistics().getRejectedCount()).isEqualTo(1);
+        }
+
+        // 超过超时时间，中断正在执行的任务，丢弃队列中的任务
+        ThreadPoolExecutor slowPool = (ThreadPoolExecutor) Executors.newFixedThreadPool(1);
+        ExecutorEngine slowEngine = new ExecutorEngine(slowPool);
+        AtomicInteger interrupted = new AtomicInteger();
+        slowEngine.submitFutures(Lists.newArrayList(1, 2, 3), input -> {
+            try {
+                Thread.sleep(5000L);
+            } catch (InterruptedException ex) {
+                interrupted.incrementAndGet();
+                throw ex;
+            }
+            return input;
+        });
+        assertThat(slowEngine.shutdown(100, TimeUnit.MILLISECONDS)).isEqualTo(3);
+        // 正在执行的任务被中断，线程池随后终止
+        assertThat(slowPool.awaitTermination(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(interrupted.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void executionScopeTest() throws Exception {
+        ExecutorEngine executorEngine = new ExecutorEngine(Executors.newFixedThreadPool(5));
+        MDC.put("traceId", "executionScopeTest");
+        try (ExecutionScope scope = executorEngine.openScope(2, TimeUnit.SECONDS)) {
+            ListenableFuture<Integer> square = scope.fork(3, input -> input * input);
+            ListenableFuture<String> traceId = scope.fork(() -> MDC.get("traceId"));
+            scope.join();
+            assertThat(Futures.getDone(square)).isEqualTo(9);
+            // 子任务使用创建范围时的 MDC 上下文
+            assertThat(Futures.getDone(traceId)).isEqualTo("executionScopeTest");
+        } finally {
+            MDC.remove("traceId");
+        }
+
+        // 有一个子任务失败，取消其它的子任务，不需要等待最慢的子任务
+        ListenableFuture<Integer> slow = null;
+        try (ExecutionScope scope = executorEngine.openScope(2, TimeUnit.SECONDS)) {
+            slow = scope.fork(() -> {
+                Thread.sleep(5000L);
+                return 1;
+            });
+            scope.fork(() -> {
+                throw new BizRuntimeException("ba la ba la");
+            });
+            scope.join();
+            fail("should throw ExecuteException");
+        } catch (ExecuteException ex) {
+            assertThat(ex).isNotInstanceOf(ExecuteTimeoutException.class);
+            assertThat(ex.getCause()).isInstanceOf(BizRuntimeException.class).hasMessage("ba la ba la");
+        }
+        // 等待到截止时间的时候会抛出 ExecuteTimeoutException
+        assertThat(slow.isCancelled()).isTrue();
+
+        // 超过截止时间，取消所有还没有完成的子任务
+        try (ExecutionScope scope = executorEngine.openScope(100, TimeUnit.MILLISECONDS)) {
+            slow = scope.fork(() -> {
+                Thread.sleep(5000L);
+                return 1;
+            });
+            scope.join();
+            fail("should throw ExecuteTimeoutException");
+        } catch (ExecuteTimeoutException ex) {
+            assertThat(slow.isCancelled()).isTrue();
+        }
+
+        // 关闭之后不能再提交子任务
+        ExecutionScope scope = executorEngine.openScope(1, TimeUnit.SECONDS);
+        ListenableFuture<Integer> unfinished = scope.fork(() -> {
+            Thread.sleep(5000L);
+            return 1;
+        });
+        scope.close();
+        assertThat(unfinished.isCancelled()).isTrue();
+        executorEngine.close();
+        thrown.expect(IllegalStateException.class);
+        scope.fork(() -> 1);
+    }
+
+    @Test
+    public void executionScopeCloseWaitTest() throws Exception {
+        ExecutorEngine executorEngine = new ExecutorEngine(Executors.newFixedThreadPool(2));
+        // 关闭范围的时候等待被中断的子任务执行完清理逻辑
+        AtomicBoolean cleaned = new AtomicBoolean();
+        CountDownLatch started = new CountDownLatch(1);
+        try (ExecutionScope scope = executorEngine.openScope(10, TimeUnit.SECONDS)) {
+            scope.fork(() -> {
+                started.countDown();
+                try {
+                    Thread.sleep(10000L);
+                } catch (InterruptedException ex) {
+                    Uninterruptibles.sleepUninterruptibly(50, TimeUnit.MILLISECONDS);
+                    cleaned.set(true);
+                    throw ex;
+                }
+                return 1;
+            });
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+        assertThat(cleaned.get()).isTrue();
+
+        // 忽略中断的子任务在等待时间内没有结束，输出警告日志
+        AtomicBoolean finished = new AtomicBoolean();
+        CountDownLatch stubbornStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutionScope scope = executorEngine.openScope(10, TimeUnit.SECONDS);
+        ListenableFuture<Integer> stubborn = scope.fork(() -> {
+            stubbornStarted.countDown();
+            Uninterruptibles.awaitUninterruptibly(release);
+            finished.set(true);
+            return 1;
+        });
+        assertThat(stubbornStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(scope.close(10, TimeUnit.MILLISECONDS)).isFalse();
+        assertThat(stubborn.isCancelled()).isTrue();
+        assertThat(finished.get()).isFalse();
+        assertThat(this.output.toString()).contains("cancelled tasks ignore interruption");
+
+        release.countDown();
+        assertThat(scope.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(finished.get()).isTrue();
+        executorEngine.close();
+    }
 }
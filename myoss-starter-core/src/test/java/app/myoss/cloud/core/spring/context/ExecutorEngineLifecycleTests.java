@@ -0,0 +1,77 @@
+/*
+ * Copyright 2018-2019 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.core.spring.context;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import app.myoss.cloud.core.lang.concurrent.ExecutorEngine;
+
+/**
+ * {@link ExecutorEngineLifecycle} 测试类
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月16日 下午9:05:30
+ */
+public class ExecutorEngineLifecycleTests {
+    @Test
+    public void stopOnlyOwnedEnginesTest() {
+        ExecutorEngine unmanaged = new ExecutorEngine("unmanaged", Executors.newSingleThreadExecutor());
+        ExecutorEngine registered = new ExecutorEngine("registered", Executors.newSingleThreadExecutor());
+        try (AnnotationConfigApplicationContext first = new AnnotationConfigApplicationContext(Config.class);
+                AnnotationConfigApplicationContext second = new AnnotationConfigApplicationContext(Config.class)) {
+            first.getBean(ExecutorEngineLifecycle.class).register(registered);
+            ExecutorEngine firstEngine = first.getBean(ExecutorEngine.class);
+            ExecutorEngine secondEngine = second.getBean(ExecutorEngine.class);
+            assertThat(first.getBean(ExecutorEngineLifecycle.class).getOwnedEngines()).containsExactly(firstEngine,
+                    registered);
+
+            // 只关闭当前容器的执行框架，不影响其它的容器
+            first.stop();
+            assertThat(firstEngine.isShutdown()).isTrue();
+            assertThat(registered.isShutdown()).isTrue();
+            assertThat(secondEngine.isShutdown()).isFalse();
+            assertThat(unmanaged.isShutdown()).isFalse();
+
+            // 执行框架关闭之后不能再次启动
+            assertThatThrownBy(first::start).hasCauseInstanceOf(IllegalStateException.class);
+        } finally {
+            unmanaged.close();
+        }
+    }
+
+    @Configuration
+    protected static class Config {
+        @Bean
+        public ExecutorEngine executorEngine() {
+            return new ExecutorEngine(Executors.newSingleThreadExecutor());
+        }
+
+        @Bean
+        public ExecutorEngineLifecycle executorEngineLifecycle() {
+            return new ExecutorEngineLifecycle(1000L);
+        }
+    }
+}